@@ -2,11 +2,37 @@
 
 package com.everdro1d.libs.commands;
 
+import java.util.Set;
+
 /** Interface for defining commands that can be executed by the {@link CommandManager}.
  * <p> Commonly used for handling CLI arguments in applications.
+ * <h2>Running commands in parallel</h2>
+ * {@link com.everdro1d.libs.core.ApplicationCore#checkCLIArgs(String[], CommandManager) ApplicationCore.checkCLIArgs()}
+ * runs commands that do not conflict at the same time. Commands conflict if they share a side effect
+ * class, see {@link #getSideEffects()}, and conflicting commands run in the order they were given,
+ * unless one depends on the other.
+ * A command can also wait for other commands, see {@link #getDependencies()}. Commands that override
+ * neither method are in the {@link #SERIAL} class, so they run one at a time, in order, as before.
+ * <p><strong>Example:</strong></p>
+ * <blockquote><pre>
+ * public class LoadConfigCommand implements CommandInterface {
+ *     &#64;Override
+ *     public Set&lt;String&gt; getSideEffects() {
+ *         return Set.of("config");
+ *     }
+ *     ...
+ * }
+ * </pre></blockquote>
  * @see CommandManager
  */
 public interface CommandInterface {
+    /**
+     * Side effect class that conflicts with every other command, the default for commands
+     * that do not declare their side effects.
+     * @see #getSideEffects()
+     */
+    String SERIAL = "serial";
+
     /**
      * Returns the number of arguments expected by the command.
      * <p>
@@ -84,5 +110,32 @@ public interface CommandInterface {
      * @see #getDescription()
      */
     void setDescription(String description);
-}
 
+    /**
+     * Returns the side effect classes of the command, e.g. {@code "config"} or {@code "stdout"}.
+     * <p>
+     * Commands that share a class run one at a time, in the order they were given,
+     * or after the commands they depend on.
+     * Commands without any class in common may run at the same time.
+     * Return an empty set if the command has no side effects other commands could observe.
+     * </p>
+     *
+     * @return the side effect classes, {@code Set.of(SERIAL)} by default
+     * @see #SERIAL
+     */
+    default Set<String> getSideEffects() {
+        return Set.of(SERIAL);
+    }
+
+    /**
+     * Returns the commands that must finish before this command runs, if they are given as well.
+     * <p>
+     * The command is skipped if any of them fails or is skipped itself.
+     * </p>
+     *
+     * @return the keys of the commands to wait for, empty by default
+     */
+    default Set<String> getDependencies() {
+        return Set.of();
+    }
+}
@@ -3,8 +3,19 @@
 package com.everdro1d.libs.commands;
 
 import com.everdro1d.libs.commands.included.HelpCommand;
-
+import com.everdro1d.libs.structs.Trie;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
 
 import static com.everdro1d.libs.core.Utils.reverseKeysFromValueInMap;
 
@@ -61,16 +72,141 @@ import static com.everdro1d.libs.core.Utils.reverseKeysFromValueInMap;
  * </pre></blockquote>
  *     </li>
  * </ol>
+ * <h2>Resolving commands</h2>
+ * Input is matched against a {@link Trie} of all commands and aliases, in this order:
+ * <ol>
+ *     <li>an exact command or alias, e.g. {@code --help} or {@code -h}</li>
+ *     <li>a command followed by {@code =} and a value, e.g. {@code --output=file.txt},
+ *         where the value is passed as the first argument of the command</li>
+ *     <li>an unambiguous prefix of a command or alias, e.g. {@code --hel} for {@code --help},
+ *         also before {@code =}, e.g. {@code --outp=file.txt}. Dashes alone are not a prefix.</li>
+ * </ol>
+ * Unknown commands are reported with the closest matches by edit distance, see {@link #getSuggestedCommands(String)}.
+ * <h2>Thread safety</h2>
+ * Every CommandManager has its own commands and aliases, so several independent command sets
+ * can live in one application. They are kept in an immutable snapshot that registering replaces
+ * in one atomic step, so commands can be registered from one thread (e.g. a plugin loader) while
+ * another thread executes commands, without any locking. Executing a command always sees one
+ * complete snapshot.
  */
 public class CommandManager {
-    private static final Map<String, CommandInterface> COMMANDS_MAP = new HashMap<>();
-    private static final Map<String, String> ALIAS_MAP = new HashMap<>();
+    /**
+     * Immutable set of commands and aliases. Registering creates a changed copy.
+     */
+    private static final class Registry {
+        final Map<String, CommandInterface> commands;
+        final Map<String, String> aliases;
+
+        private Registry(Map<String, CommandInterface> commands, Map<String, String> aliases) {
+            this.commands = Collections.unmodifiableMap(commands);
+            this.aliases = Collections.unmodifiableMap(aliases);
+        }
+
+        private static Registry withDefaults() {
+            Map<String, CommandInterface> commands = new LinkedHashMap<>();
+            Map<String, String> aliases = new LinkedHashMap<>();
+
+            // Default commands
+            commands.put("--help", new HelpCommand("displays a list of valid commands"));
+            aliases.put("-h", "--help");
 
-    static { // Default commands
-        COMMANDS_MAP.put("--help", new HelpCommand("displays a list of valid commands"));
-        ALIAS_MAP.put("-h", "--help");
+            return new Registry(commands, aliases);
+        }
+
+        private Registry withCommands(Map<String, CommandInterface> added) {
+            Map<String, CommandInterface> copy = new LinkedHashMap<>(commands);
+            copy.putAll(added);
+            return new Registry(copy, aliases);
+        }
+
+        private Registry withAliases(Map<String, String> added) {
+            Map<String, String> copy = new LinkedHashMap<>(aliases);
+            copy.putAll(added);
+            return new Registry(commands, copy);
+        }
+
+        /**
+         * Commands and aliases mapped to the command they run. Built on first use, since
+         * registering many commands one by one creates many snapshots that are never resolved against.
+         */
+        private volatile Trie<String> names;
+
+        private Trie<String> names() {
+            Trie<String> trie = names;
+            if (trie == null) {
+                // two threads may both build it, either result is the same
+                Trie<String> built = new Trie<>();
+                commands.keySet().forEach(commandString -> built.insert(commandString, commandString));
+                aliases.forEach(built::insert);
+                names = trie = built;
+            }
+            return trie;
+        }
+
+        private Resolution resolve(String input) {
+            Trie<String> trie = names();
+
+            String commandString = trie.get(input);
+            if (commandString != null) {
+                return new Resolution(commandString, null, List.of());
+            }
+
+            // --opt=value
+            String name = trie.longestPrefixOf(input);
+            if (name != null && name.length() < input.length() && input.charAt(name.length()) == '=') {
+                return new Resolution(trie.get(name), input.substring(name.length() + 1), List.of());
+            }
+
+            // --op=value, with an abbreviated name
+            int equals = input.indexOf('=');
+            if (equals > 0) {
+                Resolution resolution = resolvePrefix(input.substring(0, equals));
+                return resolution.commandString() == null ? resolution
+                        : new Resolution(resolution.commandString(), input.substring(equals + 1), List.of());
+            }
+
+            return resolvePrefix(input);
+        }
+
+        private Resolution resolvePrefix(String prefix) {
+            Trie<String> trie = names();
+
+            // only dashes, e.g. a lone "-", says nothing about which command is meant
+            if (prefix.chars().allMatch(c -> c == '-')) {
+                return new Resolution(null, null, List.of());
+            }
+
+            // unambiguous prefix, aliases of the same command do not make it ambiguous, so the
+            // walk stops at the first key below the prefix that runs a different command
+            Iterator<Map.Entry<String, String>> matches = trie.entryIterator(prefix);
+            String target = null;
+            while (matches.hasNext()) {
+                String commandString = matches.next().getValue();
+                if (target == null) {
+                    target = commandString;
+                } else if (!target.equals(commandString)) {
+                    return new Resolution(null, null, trie.listKeysMatching(prefix));
+                }
+            }
+            return new Resolution(target, null, List.of());
+        }
     }
 
+    /**
+     * Result of matching input against the commands.
+     * @param commandString the command to run, or null if none matched
+     * @param inlineValue value given as {@code command=value}, or null
+     * @param candidates commands and aliases the input is an ambiguous prefix of, empty if there are none
+     */
+    private record Resolution(String commandString, String inlineValue, List<String> candidates) {}
+
+    /**
+     * Maximum edit distance of the commands suggested for unknown input.
+     */
+    private static final int SUGGESTION_DISTANCE = 2;
+
+    private final AtomicReference<Registry> registry = new AtomicReference<>(Registry.withDefaults());
+
     /**
      * Creates a new CommandManager with only the default {@code -help} command.
      * @see #CommandManager(Map, Map)
@@ -114,7 +250,7 @@ public class CommandManager {
      * @return the CommandInterface related to the key, or {@code null} if no matching command is found
      */
     public CommandInterface getCommand(String commandString) {
-        return COMMANDS_MAP.get(commandString);
+        return registry.get().commands.get(commandString);
     }
 
     /**
@@ -123,7 +259,34 @@ public class CommandManager {
      * @return the command string related to the alias, or {@code null} if no matching alias is found
      */
     public String getCommandStringMatchingAlias(String alias) {
-        return ALIAS_MAP.get(alias);
+        return registry.get().aliases.get(alias);
+    }
+
+    /**
+     * Resolves input to the command it refers to.
+     * <p>The input may be a command, an alias, a command followed by {@code =value},
+     * or an unambiguous prefix of a command or alias.</p>
+     * <p><strong>Example:</strong></p>
+     * <blockquote><pre>
+     * commandManager.resolveCommandString("-h"); // "--help"
+     * commandManager.resolveCommandString("--hel"); // "--help"
+     * commandManager.resolveCommandString("--output=file.txt"); // "--output"
+     * </pre></blockquote>
+     * @param input the CLI arg to resolve
+     * @return the key of the matching command, or {@code null} if the input is unknown or ambiguous
+     */
+    public String resolveCommandString(String input) {
+        return registry.get().resolve(input).commandString();
+    }
+
+    /**
+     * Retrieves the commands and aliases closest to the input, for "did you mean" messages.
+     * @param input the unknown CLI arg
+     * @return commands and aliases within a small edit distance of the input, closest first
+     * @see Trie#searchWithinDistance(String, int, boolean)
+     */
+    public List<String> getSuggestedCommands(String input) {
+        return registry.get().names().searchWithinDistance(input, SUGGESTION_DISTANCE, true);
     }
 
     /**
@@ -132,23 +295,25 @@ public class CommandManager {
      * @return the aliases related to the command, or {@code null} if no matching command is found
      */
     public String[] getAliases(String commandString) {
-        return reverseKeysFromValueInMap(commandString, ALIAS_MAP);
+        return reverseKeysFromValueInMap(commandString, registry.get().aliases);
     }
 
     /**
      * Retrieves the command map.
-     * @return Map containing all existing arg keys and their command objects.
+     * @return unmodifiable snapshot of all existing arg keys and their command objects,
+     *         in the order they were registered. Later registrations are not reflected in it.
      */
     public Map<String, CommandInterface> getCommandMap() {
-        return COMMANDS_MAP;
+        return registry.get().commands;
     }
 
     /**
      * Retrieves the alias map.
-     * @return Map containing all existing aliases and their command keys.
+     * @return unmodifiable snapshot of all existing aliases and their command keys.
+     *         Later registrations are not reflected in it.
      */
     public Map<String, String> getAliasMap() {
-        return ALIAS_MAP;
+        return registry.get().aliases;
     }
 
     /**
@@ -156,7 +321,7 @@ public class CommandManager {
      * @return A list of valid CLI args for use.
      */
     public Set<String> getValidCommands() {
-        return COMMANDS_MAP.keySet();
+        return registry.get().commands.keySet();
     }
 
     /**
@@ -186,9 +351,10 @@ public class CommandManager {
      */
     public List<String> getValidCommandsWithInfo() {
         List<String> commandInfoList = new ArrayList<>();
+        Registry snapshot = registry.get();
 
-        getCommandMap().forEach((key, command) -> {
-            String[] aliases = getAliases(key);
+        snapshot.commands.forEach((key, command) -> {
+            String[] aliases = reverseKeysFromValueInMap(key, snapshot.aliases);
 
             String aliasPart = (aliases != null) ? " (" + String.join(", ", aliases) + ")" : "";
 
@@ -211,7 +377,7 @@ public class CommandManager {
      * @see HelpCommand#execute(CommandManager) 
      */
     public void registerCommand(String commandString, CommandInterface commandToExecute) {
-        COMMANDS_MAP.put(commandString, commandToExecute);
+        update(r -> r.withCommands(Collections.singletonMap(commandString, commandToExecute)));
     }
 
     /**
@@ -228,8 +394,8 @@ public class CommandManager {
      * @see HelpCommand#execute(CommandManager)
      */
     public void registerCommand(String commandString, String alias, CommandInterface commandToExecute) {
-        COMMANDS_MAP.put(commandString, commandToExecute);
-        ALIAS_MAP.put(alias, commandString);
+        update(r -> r.withCommands(Collections.singletonMap(commandString, commandToExecute))
+                .withAliases(Collections.singletonMap(alias, commandString)));
     }
 
     /**
@@ -247,8 +413,9 @@ public class CommandManager {
      * @param commandString the command to which the alias refers
      */
     public void registerAlias(String alias, String commandString) {
-        if (COMMANDS_MAP.containsKey(commandString)) {
-            ALIAS_MAP.put(alias, commandString);
+        // commands are never unregistered, so the check cannot go stale
+        if (registry.get().commands.containsKey(commandString)) {
+            update(r -> r.withAliases(Collections.singletonMap(alias, commandString)));
         } else {
             System.err.printf("Command [%s] not found. Alias [%s] not registered.%n", commandString, alias);
         }
@@ -269,7 +436,8 @@ public class CommandManager {
      * @see #registerCommand(String, CommandInterface)
      */
     public void registerCommands(Map<String, CommandInterface> commandMap) {
-        COMMANDS_MAP.putAll(commandMap);
+        Map<String, CommandInterface> added = new LinkedHashMap<>(commandMap);
+        update(r -> r.withCommands(added));
     }
 
     /**
@@ -311,7 +479,8 @@ public class CommandManager {
      * @param aliasMap map of key-value pairs where the key is the alias and the value is the command it refers to.
      */
     public void registerAliases(Map<String, String> aliasMap) {
-        ALIAS_MAP.putAll(aliasMap);
+        Map<String, String> added = new LinkedHashMap<>(aliasMap);
+        update(r -> r.withAliases(added));
     }
 
     /**
@@ -328,23 +497,249 @@ public class CommandManager {
      * Execute a command from the map with arguments. If the command is not
      * found or the number of arguments is different from expected, an error
      * message is printed to {@code System.err}.
+     * <p>The command is resolved as described in {@link #resolveCommandString(String)}.
+     * A value given as {@code command=value} is passed before the other arguments.</p>
      *
      * @param commandString the key of the CommandInterface to execute
      * @param args          an array of {@code String} arguments passed to the command
      */
     public void executeCommand(String commandString, String[] args) {
-        if (getAliasMap().containsKey(commandString)) {
-            commandString = getCommandStringMatchingAlias(commandString);
+        tryExecuteCommand(commandString, args);
+    }
+
+    /**
+     * A command resolved from input by {@link #resolveCommand(String)}, to run later without resolving it again.
+     * @param commandString the key of the command, or {@code null} if the input did not resolve
+     * @param command the command, or {@code null} if the input did not resolve
+     * @param inlineValue value given as {@code command=value}, passed before the other arguments, or {@code null}
+     * @param error why the input did not resolve, or {@code null} if it did
+     */
+    public record ResolvedCommand(String commandString, CommandInterface command, String inlineValue, String error) {
+        /**
+         * Checks if the input resolved to a command.
+         * @return true if there is a command to run
+         */
+        public boolean isResolved() {
+            return command != null;
+        }
+    }
+
+    /**
+     * Resolves input to the command it refers to, from a single snapshot of the commands.
+     * <p>Unlike {@link #resolveCommandString(String)}, the result keeps the command itself and any
+     * {@code =value}, so it can be run with {@link #tryExecuteCommand(ResolvedCommand, String[])}
+     * even if commands are registered in between.</p>
+     * @param input the CLI arg to resolve
+     * @return the resolved command, or a result with the reason if the input is unknown or ambiguous
+     */
+    public ResolvedCommand resolveCommand(String input) {
+        // resolve from a single snapshot, registrations on other threads cannot interleave
+        Registry snapshot = registry.get();
+        Resolution resolution = snapshot.resolve(input);
+
+        if (!resolution.candidates().isEmpty()) {
+            return new ResolvedCommand(null, null, null, String.format(
+                    "Ambiguous command: [%s] Skipping.%nDid you mean one of: %s%n",
+                    input, String.join(", ", resolution.candidates())
+            ));
         }
 
-        CommandInterface commandToExecute = getCommand(commandString);
+        CommandInterface command = (resolution.commandString() != null)
+                ? snapshot.commands.get(resolution.commandString()) : null;
 
-        if (commandToExecute == null) {
-            System.err.printf(
-                    "Unknown command: [%s] Skipping.%nUse \"--help\" or \"-h\" to list valid commands.%n",
-                    commandString
+        if (command == null) {
+            List<String> suggestions = snapshot.names().searchWithinDistance(input, SUGGESTION_DISTANCE, true);
+            String hint = suggestions.isEmpty() ? "" : String.format(
+                    "Did you mean: %s%n", String.join(", ", suggestions.subList(0, Math.min(3, suggestions.size())))
             );
-            return;
+            return new ResolvedCommand(null, null, null, String.format(
+                    "Unknown command: [%s] Skipping.%n%sUse \"--help\" or \"-h\" to list valid commands.%n",
+                    input, hint
+            ));
+        }
+
+        return new ResolvedCommand(resolution.commandString(), command, resolution.inlineValue(), null);
+    }
+
+    /**
+     * Execute a command like {@link #executeCommand(String, String[])}, reporting whether it ran.
+     * @param commandString the key of the CommandInterface to execute
+     * @param args          an array of {@code String} arguments passed to the command
+     * @return true if the command ran, false if it was skipped because it is unknown or ambiguous,
+     *         or the number of arguments is different from expected
+     */
+    public boolean tryExecuteCommand(String commandString, String[] args) {
+        return tryExecuteCommand(resolveCommand(commandString), args);
+    }
+
+    /**
+     * Execute a command resolved earlier with {@link #resolveCommand(String)}, without resolving it again.
+     * If it did not resolve, or the number of arguments is different from expected, an error message
+     * is printed to {@code System.err}.
+     * @param resolved the resolved command
+     * @param args     an array of {@code String} arguments passed to the command, after any {@code =value}
+     * @return true if the command ran, false if it was skipped
+     */
+    public boolean tryExecuteCommand(ResolvedCommand resolved, String[] args) {
+        String error = runResolved(resolved, args);
+        if (error != null) {
+            System.err.print(error);
+        }
+        return error == null;
+    }
+
+    /**
+     * Result of one line of a script, see {@link #executeScript(Reader, boolean, Consumer)}.
+     * @param lineNumber number of the line in the script, starting at 1
+     * @param line the line as read
+     * @param error why the line failed, or {@code null} if it succeeded
+     * @param exception the exception thrown by the command, or {@code null}
+     */
+    public record ScriptResult(int lineNumber, String line, String error, RuntimeException exception) {
+        /**
+         * Checks if the line ran without errors.
+         * @return true if the line succeeded
+         */
+        public boolean succeeded() {
+            return error == null;
+        }
+    }
+
+    /**
+     * Executes commands read line by line, printing failed lines to {@code System.err}.
+     * @param reader where to read the script from
+     * @param continueOnError true to run the remaining lines after a line fails, false to stop
+     * @return number of lines that failed
+     * @throws IOException if reading the script fails
+     * @see #executeScript(Reader, boolean, Consumer)
+     */
+    public int executeScript(Reader reader, boolean continueOnError) throws IOException {
+        return executeScript(reader, continueOnError, result -> {
+            if (!result.succeeded()) {
+                System.err.printf("Line %d: %s", result.lineNumber(), result.error());
+            }
+        });
+    }
+
+    /**
+     * Executes commands read line by line from a UTF-8 file, printing failed lines to {@code System.err}.
+     * @param script path of the script file
+     * @param continueOnError true to run the remaining lines after a line fails, false to stop
+     * @return number of lines that failed
+     * @throws IOException if reading the script fails
+     * @see #executeScript(Reader, boolean, Consumer)
+     */
+    public int executeScript(Path script, boolean continueOnError) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(script)) {
+            return executeScript(reader, continueOnError);
+        }
+    }
+
+    /**
+     * Executes commands read line by line from {@code System.in} until it ends, printing failed
+     * lines to {@code System.err}. Useful to pipe a script into the application.
+     * <p><strong>Example:</strong></p>
+     * <blockquote><pre>
+     * // java -jar app.jar --script &lt; job.txt
+     * commandManager.executeScriptFromStdin(true);
+     * </pre></blockquote>
+     * @param continueOnError true to run the remaining lines after a line fails, false to stop
+     * @return number of lines that failed
+     * @throws IOException if reading stdin fails
+     * @see #executeScript(Reader, boolean, Consumer)
+     */
+    public int executeScriptFromStdin(boolean continueOnError) throws IOException {
+        // System.in is not closed, it belongs to the whole application
+        return executeScript(new InputStreamReader(System.in, Charset.defaultCharset()), continueOnError);
+    }
+
+    /**
+     * Executes commands read line by line from a file, stdin or any other {@link Reader}.
+     * <p>Each line holds one command followed by its arguments, separated by whitespace,
+     * like a single command on the command line. Arguments may be quoted with {@code "} or
+     * {@code '}. Outside of quotes {@code \} escapes the next character, inside {@code "} it only
+     * escapes {@code "} and {@code \}, so Windows paths can be quoted as they are.
+     * Empty lines and lines starting with {@code #} are skipped.</p>
+     * <p>Lines are read, split and executed one at a time, so scripts of any length run
+     * in constant memory, and many commands can run in one JVM instead of one launch each.</p>
+     * <p><strong>Example:</strong></p>
+     * <blockquote><pre>
+     * try (Reader script = Files.newBufferedReader(Path.of("job.txt"))) {
+     *     commandManager.executeScript(script, true, result -&gt; {
+     *         if (!result.succeeded()) log.add(result.lineNumber() + ": " + result.error());
+     *     });
+     * }
+     * // job.txt:
+     * // --load-config "my settings.json"
+     * // --export out.csv
+     * </pre></blockquote>
+     * @param reader where to read the script from, it is not closed
+     * @param continueOnError true to run the remaining lines after a line fails, false to stop
+     * @param resultConsumer receives the result of every line that is not skipped, in order
+     * @return number of lines that failed
+     * @throws IOException if reading the script fails
+     */
+    public int executeScript(Reader reader, boolean continueOnError, Consumer<? super ScriptResult> resultConsumer) throws IOException {
+        BufferedReader lines = (reader instanceof BufferedReader bufferedReader) ? bufferedReader : new BufferedReader(reader);
+        List<String> tokens = new ArrayList<>();
+        int failures = 0;
+        int lineNumber = 0;
+
+        String line;
+        while ((line = lines.readLine()) != null) {
+            lineNumber++;
+
+            tokens.clear();
+            String syntaxError = tokenize(line, tokens);
+            if (syntaxError == null && tokens.isEmpty()) continue;
+
+            ScriptResult result;
+            if (syntaxError != null) {
+                result = new ScriptResult(lineNumber, line, syntaxError, null);
+            } else {
+                String[] args = tokens.subList(1, tokens.size()).toArray(new String[0]);
+                try {
+                    result = new ScriptResult(lineNumber, line, runCommand(tokens.get(0), args), null);
+                } catch (RuntimeException e) {
+                    result = new ScriptResult(lineNumber, line, String.format("Command failed: %s%n", e), e);
+                }
+            }
+
+            resultConsumer.accept(result);
+            if (!result.succeeded()) {
+                failures++;
+                if (!continueOnError) break;
+            }
+        }
+
+        return failures;
+    }
+
+    // ---
+    /**
+     * Resolves and runs a command, see {@link #executeCommand(String, String[])}.
+     * @return why the command was skipped, or null if it ran
+     */
+    private String runCommand(String commandString, String[] args) {
+        return runResolved(resolveCommand(commandString), args);
+    }
+
+    /**
+     * Runs a resolved command, see {@link #tryExecuteCommand(ResolvedCommand, String[])}.
+     * @return why the command was skipped, or null if it ran
+     */
+    private String runResolved(ResolvedCommand resolved, String[] args) {
+        if (!resolved.isResolved()) {
+            return resolved.error();
+        }
+
+        String commandString = resolved.commandString();
+        CommandInterface commandToExecute = resolved.command();
+        if (resolved.inlineValue() != null) {
+            String[] withValue = new String[(args == null) ? 1 : args.length + 1];
+            withValue[0] = resolved.inlineValue();
+            if (args != null) System.arraycopy(args, 0, withValue, 1, args.length);
+            args = withValue;
         }
 
         int expectedArgs = commandToExecute.getExpectedArguments();
@@ -361,7 +756,7 @@ public class CommandManager {
             }
 
         } else if (providedArgs != expectedArgs) {
-            System.err.printf(
+            return String.format(
                 "Invalid number of arguments for command: [%s] Skipping.%nExpected: %d%nProvided: %d%n",
                 commandString, expectedArgs, providedArgs
             );
@@ -371,5 +766,69 @@ public class CommandManager {
 
         }
 
+        return null;
+    }
+
+    /**
+     * Splits a script line into tokens, handling quotes, escapes and comments.
+     * @return why the line could not be split, or null
+     */
+    private static String tokenize(String line, List<String> tokens) {
+        StringBuilder token = new StringBuilder();
+        boolean inToken = false;
+        char quote = 0;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+
+            if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                } else if (c == '\\' && quote == '"' && i + 1 < line.length()
+                        && (line.charAt(i + 1) == '"' || line.charAt(i + 1) == '\\')) {
+                    // only quotes and backslashes, so "C:\Users\me" stays as it is
+                    token.append(line.charAt(++i));
+                } else {
+                    token.append(c);
+                }
+
+            } else if (Character.isWhitespace(c)) {
+                if (inToken) {
+                    tokens.add(token.toString());
+                    token.setLength(0);
+                    inToken = false;
+                }
+
+            } else if (c == '#' && !inToken) {
+                break; // rest of the line is a comment
+
+            } else {
+                inToken = true;
+                if (c == '"' || c == '\'') {
+                    quote = c;
+                } else if (c == '\\' && i + 1 < line.length()) {
+                    token.append(line.charAt(++i));
+                } else {
+                    token.append(c);
+                }
+            }
+        }
+
+        if (quote != 0) {
+            return String.format("Unclosed quote [%c] Skipping.%n", quote);
+        }
+        if (inToken) {
+            tokens.add(token.toString());
+        }
+        return null;
+    }
+
+    /**
+     * Replaces the registry with a changed copy. The change may run more than once if another
+     * thread registers at the same time, so it must not have side effects.
+     */
+    private void update(UnaryOperator<Registry> change) {
+        registry.updateAndGet(change);
     }
+    // ---
 }
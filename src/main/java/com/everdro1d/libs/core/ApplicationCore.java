@@ -9,7 +9,27 @@ import java.net.*;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousCloseException;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.prefs.Preferences;
 
 import static com.everdro1d.libs.core.Utils.getUserConfigDirectory;
@@ -32,6 +52,7 @@ import static com.everdro1d.libs.io.Files.getJarPath;
  *     <li>Retrieves the latest application version based on GitHub release tags.</li>
  *     <li>Determines the application name based on the JAR file or package structure.</li>
  *     <li>Manages application configuration directories and files.</li>
+ *     <li>Forwards CLI arguments to an already running instance of the application.</li>
  * </ul>
  * <h2>Usage</h2>
  * <p>
@@ -49,38 +70,251 @@ public final class ApplicationCore {
 
     /**
      * Processes and executes CLI arguments using the provided {@link CommandManager}.
+     * <p>Commands may be abbreviated to any unambiguous prefix, and take a value as
+     * {@code --option=value}, see {@link CommandManager#resolveCommandString(String)}.</p>
+     * <p>If any command declares its side effects or dependencies, commands that do not conflict
+     * run at the same time on virtual threads, and this method returns once all of them are done.
+     * Conflicting commands still run in the order they were given, or after the commands they
+     * depend on, see {@link CommandInterface}. All commands are resolved before any of them runs.</p>
+     * <p>Otherwise all commands run one at a time on the calling thread, each resolved right before
+     * it runs, so commands registered by earlier commands can be used.</p>
      * @param args the array of CLI arguments to process
      * @param commandManager CommandManager instance used to execute commands
+     * @throws IllegalArgumentException if the dependencies of the given commands form a cycle
+     * @throws RuntimeException if commands fail; if more than one fails, the failures are added
+     *                          to it as suppressed exceptions
      * @see CommandManager
      * @see CommandInterface
      */
     public static void checkCLIArgs(String[] args, CommandManager commandManager) {
-        for (int i = 0; i < args.length; i++) {
-            String arg = args[i];
+        if (runsSerially(args, commandManager)) {
+            for (int i = 0; i < args.length; i++) {
+                if (!args[i].startsWith("-")) continue;
+
+                Invocation invocation = parseCLIArg(args, i, commandManager);
+                commandManager.tryExecuteCommand(invocation.resolved(), invocation.args());
+            }
+        } else {
+            executeConcurrently(parseCLIArgs(args, commandManager), commandManager);
+        }
+    }
+
+    // ---
+    /**
+     * Checks if every known command in the arguments runs serially. Only looks the commands up,
+     * unknown ones are reported later when they are resolved to run.
+     */
+    private static boolean runsSerially(String[] args, CommandManager commandManager) {
+        for (String arg : args) {
             if (!arg.startsWith("-")) continue;
 
-            CommandInterface cmd = commandManager.getCommand(arg);
+            String commandString = commandManager.resolveCommandString(arg);
+            CommandInterface cmd = (commandString != null) ? commandManager.getCommand(commandString) : null;
+            if (cmd != null && (!cmd.getSideEffects().contains(CommandInterface.SERIAL) || !cmd.getDependencies().isEmpty())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * A command found in the CLI arguments.
+     * @param arg the CLI argument as given
+     * @param resolved the command it resolved to with any {@code =value}, run as it is without resolving it again
+     * @param args the arguments for the command, or null if it takes none
+     */
+    private record Invocation(String arg, CommandManager.ResolvedCommand resolved, String[] args) {
+        // both null if the argument is unknown
+        String commandString() {
+            return resolved.commandString();
+        }
+
+        CommandInterface command() {
+            return resolved.command();
+        }
+    }
+
+    private static List<Invocation> parseCLIArgs(String[] args, CommandManager commandManager) {
+        List<Invocation> invocations = new ArrayList<>();
+
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("-")) continue;
+            invocations.add(parseCLIArg(args, i, commandManager));
+        }
+
+        return invocations;
+    }
+
+    private static Invocation parseCLIArg(String[] args, int i, CommandManager commandManager) {
+        String arg = args[i];
+        CommandManager.ResolvedCommand resolved = commandManager.resolveCommand(arg);
+        CommandInterface cmd = resolved.command();
+
+        if (cmd == null || cmd.getExpectedArguments() == 0) {
+            return new Invocation(arg, resolved, null);
+        }
+
+        int j = 0; // actual number of arguments passed
+                  // (executeCommand() handles too few/many/invalid args)
 
-            if (cmd == null || cmd.getExpectedArguments() == 0) {
-                commandManager.executeCommand(arg);
+        // max length is total args length - current index - 1
+        String[] commandArgs = new String[args.length - i - 1];
 
-            } else {
-                int j = 0; // actual number of arguments passed
-                          // (executeCommand() handles too few/many/invalid args)
+        // treat args starting with "-" as a new command
+        for (int k = ( i + 1 ); ( k < args.length && !args[k].startsWith("-") ); k++) {
+            commandArgs[j++] = args[k];
+        }
 
-                // max length is total args length - current index - 1
-                String[] commandArgs = new String[args.length - i - 1];
+        // trims the array of args to the actual number of args passed before continuing
+        return new Invocation(arg, resolved, Arrays.copyOf(commandArgs, j));
+    }
 
-                // treat args starting with "-" as a new command
-                for (int k = ( i + 1 ); ( k < args.length && !args[k].startsWith("-") ); k++) {
-                    commandArgs[j++] = args[k];
+    /**
+     * Runs each command on a virtual thread once the commands it waits for are done,
+     * then waits for all of them and reports their failures together.
+     */
+    private static void executeConcurrently(List<Invocation> invocations, CommandManager commandManager) {
+        int count = invocations.size();
+        List<List<Integer>> dependsOn = new ArrayList<>();
+
+        for (int j = 0; j < count; j++) {
+            List<Integer> dependencies = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                if (i != j && dependsOn(invocations.get(j), invocations.get(i))) dependencies.add(i);
+            }
+            dependsOn.add(dependencies);
+        }
+
+        // conflicting commands run in this order, which is the order they were given unless
+        // a command depends on a later one, so ordering them never adds a cycle
+        int[] order = topologicalOrder(dependsOn, invocations);
+        int[] position = new int[count];
+        for (int k = 0; k < count; k++) position[order[k]] = k;
+
+        List<List<Integer>> waitFor = new ArrayList<>();
+        for (int j = 0; j < count; j++) {
+            List<Integer> waits = new ArrayList<>(dependsOn.get(j));
+            for (int i = 0; i < count; i++) {
+                if (position[i] < position[j] && !waits.contains(i) && conflicts(invocations.get(i), invocations.get(j))) {
+                    waits.add(i);
                 }
+            }
+            waitFor.add(waits);
+        }
+        CompletableFuture<?>[] done = new CompletableFuture<?>[count];
+        Throwable[] failures = new Throwable[count];
+        boolean[] failed = new boolean[count];
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int j : order) {
+                Invocation invocation = invocations.get(j);
+                CompletableFuture<?>[] waits = waitFor.get(j).stream().map(i -> done[i]).toArray(CompletableFuture<?>[]::new);
+
+                // completing a future makes its results visible to the commands waiting for it
+                done[j] = CompletableFuture.allOf(waits).thenRunAsync(() -> {
+                    for (int i : dependsOn.get(j)) {
+                        if (failed[i]) {
+                            System.err.printf(
+                                    "Command [%s] skipped, [%s] failed.%n",
+                                    invocation.arg(), invocations.get(i).arg()
+                            );
+                            failed[j] = true;
+                            return;
+                        }
+                    }
+
+                    try {
+                        // unknown commands and wrong argument counts are skipped without throwing
+                        if (!commandManager.tryExecuteCommand(invocation.resolved(), invocation.args())) {
+                            failed[j] = true;
+                        }
+                    } catch (Throwable t) {
+                        failures[j] = t;
+                        failed[j] = true;
+                    }
+                }, executor);
+            }
+
+            // join barrier
+            CompletableFuture.allOf(done).join();
+        }
+
+        List<Throwable> errors = new ArrayList<>();
+        List<String> failedArgs = new ArrayList<>();
+        for (int j = 0; j < count; j++) {
+            if (failures[j] != null) {
+                errors.add(failures[j]);
+                failedArgs.add(invocations.get(j).arg());
+            }
+        }
+
+        if (errors.size() == 1 && errors.get(0) instanceof RuntimeException e) throw e;
+        if (errors.size() == 1 && errors.get(0) instanceof Error e) throw e;
+        if (!errors.isEmpty()) {
+            RuntimeException aggregate = new RuntimeException(
+                    errors.size() + " commands failed: " + String.join(", ", failedArgs)
+            );
+            errors.forEach(aggregate::addSuppressed);
+            throw aggregate;
+        }
+    }
+
+    private static boolean dependsOn(Invocation a, Invocation b) {
+        return a.command() != null && b.commandString() != null
+                && a.command().getDependencies().contains(b.commandString());
+    }
+
+    private static boolean conflicts(Invocation a, Invocation b) {
+        Set<String> sideEffectsA = (a.command() != null) ? a.command().getSideEffects() : Set.of();
+        Set<String> sideEffectsB = (b.command() != null) ? b.command().getSideEffects() : Set.of();
+
+        if (sideEffectsA.contains(CommandInterface.SERIAL) || sideEffectsB.contains(CommandInterface.SERIAL)) {
+            return true;
+        }
+        for (String sideEffect : sideEffectsA) {
+            if (sideEffectsB.contains(sideEffect)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Orders the commands so that every command comes after the ones it waits for,
+     * keeping the order they were given where it can.
+     * @throws IllegalArgumentException if the commands wait for each other in a cycle
+     */
+    private static int[] topologicalOrder(List<List<Integer>> waitFor, List<Invocation> invocations) {
+        int count = waitFor.size();
+        int[] remaining = new int[count];
+        List<List<Integer>> waitedOnBy = new ArrayList<>();
+        for (int j = 0; j < count; j++) waitedOnBy.add(new ArrayList<>());
+
+        PriorityQueue<Integer> ready = new PriorityQueue<>();
+        for (int j = 0; j < count; j++) {
+            remaining[j] = waitFor.get(j).size();
+            for (int i : waitFor.get(j)) waitedOnBy.get(i).add(j);
+            if (remaining[j] == 0) ready.add(j);
+        }
 
-                // trims the array of args to the actual number of args passed before continuing
-                commandManager.executeCommand(arg, Arrays.copyOf(commandArgs, j));
+        int[] order = new int[count];
+        int ordered = 0;
+        while (!ready.isEmpty()) {
+            int i = ready.poll();
+            order[ordered++] = i;
+            for (int j : waitedOnBy.get(i)) {
+                if (--remaining[j] == 0) ready.add(j);
             }
         }
+
+        if (ordered < count) {
+            List<String> cycle = new ArrayList<>();
+            for (int j = 0; j < count; j++) {
+                if (remaining[j] > 0) cycle.add(invocations.get(j).arg());
+            }
+            throw new IllegalArgumentException("Commands depend on each other in a cycle: " + String.join(", ", cycle));
+        }
+        return order;
     }
+    // ---
 
     /**
      * Detects the operating system and returns its general type.
@@ -310,4 +544,270 @@ public final class ApplicationCore {
             ex.printStackTrace(System.err);
         }
     }
+
+    /**
+     * Starts single-instance mode, or forwards the CLI arguments to the instance that is already running.
+     * <p>The first instance listens on a Unix domain socket in the application's configuration directory.
+     * Later launches connect to it and send their arguments, which the running instance processes with
+     * {@link #checkCLIArgs(String[], CommandManager)}, so they can exit right away instead of starting
+     * the whole application again. A socket left behind by an instance that did not shut down cleanly
+     * is detected and taken over.</p>
+     * <p><strong>Example:</strong></p>
+     * <blockquote><pre>
+     * public static void main(String[] args) throws IOException {
+     *     if (!ApplicationCore.startSingleInstance(Main.class, "dro1dDev", args, commandManager)) {
+     *         return; // the running instance got the args
+     *     }
+     *     ApplicationCore.checkCLIArgs(args, commandManager);
+     *     // start the application as usual
+     * }
+     * </pre></blockquote>
+     * @param clazz the {@code main()} class of the application
+     * @param developerName the name of the developer or vendor (ex: {@code "dro1dDev"})
+     * @param args the CLI arguments of this launch
+     * @param commandManager CommandManager used to process arguments forwarded by later launches
+     * @return true if this is the first instance and is now listening, false if the arguments
+     *         were forwarded to the running instance and this launch should exit
+     * @throws IOException if the socket cannot be created or no instance answers in time
+     * @see #startSingleInstance(Path, String[], CommandManager)
+     * @see #stopSingleInstance()
+     */
+    public static boolean startSingleInstance(Class<?> clazz, String developerName, String[] args, CommandManager commandManager) throws IOException {
+        return startSingleInstance(
+                Path.of(getApplicationConfigDirectory(clazz, developerName), INSTANCE_SOCKET_NAME), args, commandManager
+        );
+    }
+
+    /**
+     * Starts single-instance mode on the given socket path, see {@link #startSingleInstance(Class, String, String[], CommandManager)}.
+     * <p>Socket paths are limited to about 100 characters on most systems.</p>
+     * @param socketPath path of the Unix domain socket, next to it a {@code .lock} file decides which launch listens
+     * @param args the CLI arguments of this launch
+     * @param commandManager CommandManager used to process arguments forwarded by later launches
+     * @return true if this is the first instance and is now listening, false if the arguments
+     *         were forwarded to the running instance and this launch should exit
+     * @throws IOException if the socket cannot be created or no instance answers in time
+     * @throws IllegalStateException if this process already listens on another socket
+     */
+    public static synchronized boolean startSingleInstance(Path socketPath, String[] args, CommandManager commandManager) throws IOException {
+        socketPath = socketPath.toAbsolutePath();
+        Files.createDirectories(socketPath.getParent());
+        Path lockPath = socketPath.resolveSibling(socketPath.getFileName() + ".lock");
+
+        for (int attempt = 0; attempt < INSTANCE_CONNECT_ATTEMPTS; attempt++) {
+            if (forwardToRunningInstance(socketPath, args)) {
+                return false;
+            }
+
+            if (instanceServer != null) {
+                throw new IllegalStateException("Single-instance mode is already listening on: " + instanceSocketPath);
+            }
+
+            // whoever holds the lock is the running instance, the lock goes away with its process
+            FileChannel lock = FileChannel.open(lockPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            if (lock.tryLock() != null) {
+                try {
+                    // nobody answered and nobody else is starting, so the socket is stale
+                    Files.deleteIfExists(socketPath);
+                    ServerSocketChannel server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+                    server.bind(UnixDomainSocketAddress.of(socketPath));
+
+                    instanceServer = server;
+                    instanceLock = lock;
+                    instanceSocketPath = socketPath;
+                    Thread.ofVirtual().name("single-instance-listener").start(
+                            () -> acceptForwardedArgs(server, commandManager)
+                    );
+                    return true;
+                } catch (IOException | RuntimeException ex) {
+                    lock.close();
+                    throw ex;
+                }
+            }
+            lock.close();
+
+            // another launch holds the lock but is not listening yet
+            try {
+                Thread.sleep(INSTANCE_RETRY_DELAY_MS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for the running instance");
+            }
+        }
+
+        throw new IOException("The running instance does not answer on: " + socketPath);
+    }
+
+    /**
+     * Stops listening for forwarded CLI arguments and removes the socket.
+     * Does nothing if single-instance mode is not running.
+     * @throws IOException if closing the socket fails
+     * @see #startSingleInstance(Class, String, String[], CommandManager)
+     */
+    public static synchronized void stopSingleInstance() throws IOException {
+        if (instanceServer == null) {
+            return;
+        }
+
+        try {
+            instanceServer.close();
+            Files.deleteIfExists(instanceSocketPath);
+        } finally {
+            instanceLock.close();
+            instanceServer = null;
+            instanceLock = null;
+            instanceSocketPath = null;
+        }
+    }
+
+    // ---
+    private static final String INSTANCE_SOCKET_NAME = "instance.sock";
+    private static final int INSTANCE_PROTOCOL_MAGIC = 0x44534931;
+    private static final int INSTANCE_CONNECT_ATTEMPTS = 50;
+    private static final long INSTANCE_RETRY_DELAY_MS = 20;
+
+    /**
+     * Time either side of a connection gets to send the arguments and answer, before it is closed.
+     */
+    private static final long INSTANCE_TIMEOUT_MS = 2_000;
+
+    /**
+     * Forwarded launches are processed one at a time, like launches typed one after another.
+     */
+    private static final ReentrantLock forwardedArgsLock = new ReentrantLock();
+
+    /**
+     * Largest total size of forwarded arguments, protects the running instance from garbage input.
+     */
+    private static final int MAX_FORWARDED_BYTES = 1 << 20;
+
+    private static ServerSocketChannel instanceServer;
+    private static FileChannel instanceLock;
+    private static Path instanceSocketPath;
+
+    /**
+     * Sends the arguments to the running instance.
+     * @return true if the instance received them, false if no instance is listening
+     */
+    private static boolean forwardToRunningInstance(Path socketPath, String[] args) throws IOException {
+        if (!Files.exists(socketPath)) {
+            return false;
+        }
+
+        SocketChannel channel;
+        try {
+            channel = SocketChannel.open(UnixDomainSocketAddress.of(socketPath));
+        } catch (SocketException ex) {
+            return false; // the socket file is left over, nobody is listening
+        }
+
+        CompletableFuture<Void> deadline = closeAfterTimeout(channel);
+        try (channel) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+            out.writeInt(INSTANCE_PROTOCOL_MAGIC);
+            out.writeInt(args.length);
+            for (String arg : args) {
+                byte[] bytes = arg.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+            out.flush();
+
+            // the instance answers once it has read everything
+            return Channels.newInputStream(channel).read() == 1;
+        } catch (AsynchronousCloseException ex) {
+            throw new IOException("The running instance did not answer within " + INSTANCE_TIMEOUT_MS + " ms on: " + socketPath, ex);
+        } finally {
+            deadline.cancel(false);
+        }
+    }
+
+    private static void acceptForwardedArgs(ServerSocketChannel server, CommandManager commandManager) {
+        while (true) {
+            SocketChannel channel;
+            try {
+                channel = server.accept();
+            } catch (ClosedChannelException ex) {
+                return; // stopped
+            } catch (IOException ex) {
+                ex.printStackTrace(System.err);
+                continue;
+            }
+
+            // a client that never sends anything must not hold up the next launches
+            Thread.ofVirtual().name("single-instance-connection").start(
+                    () -> handleForwardedArgs(channel, commandManager)
+            );
+        }
+    }
+
+    private static void handleForwardedArgs(SocketChannel channel, CommandManager commandManager) {
+        String[] args;
+        CompletableFuture<Void> deadline = closeAfterTimeout(channel);
+        try (channel) {
+            args = readForwardedArgs(channel);
+            channel.write(ByteBuffer.wrap(new byte[]{1}));
+        } catch (AsynchronousCloseException ex) {
+            System.err.println("Launch did not send its arguments within " + INSTANCE_TIMEOUT_MS + " ms. Ignoring it.");
+            return;
+        } catch (IOException ex) {
+            ex.printStackTrace(System.err);
+            return;
+        } finally {
+            deadline.cancel(false);
+        }
+
+        forwardedArgsLock.lock();
+        try {
+            checkCLIArgs(args, commandManager);
+        } catch (Throwable t) {
+            // keep listening whatever a command does
+            t.printStackTrace(System.err);
+        } finally {
+            forwardedArgsLock.unlock();
+        }
+    }
+
+    /**
+     * Closes the channel once {@link #INSTANCE_TIMEOUT_MS} passes, which makes blocked reads and
+     * writes on it throw {@link AsynchronousCloseException}. Cancel the result when done in time.
+     */
+    private static CompletableFuture<Void> closeAfterTimeout(SocketChannel channel) {
+        return CompletableFuture.runAsync(() -> {
+            try {
+                channel.close();
+            } catch (IOException ex) {
+                ex.printStackTrace(System.err);
+            }
+        }, CompletableFuture.delayedExecutor(INSTANCE_TIMEOUT_MS, TimeUnit.MILLISECONDS));
+    }
+
+    private static String[] readForwardedArgs(SocketChannel channel) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+        if (in.readInt() != INSTANCE_PROTOCOL_MAGIC) {
+            throw new IOException("Unknown message on the single-instance socket");
+        }
+
+        int count = in.readInt();
+        if (count < 0 || count > MAX_FORWARDED_BYTES / 4) {
+            throw new IOException("Invalid number of forwarded arguments: " + count);
+        }
+
+        String[] args = new String[count];
+        long total = 0;
+        for (int i = 0; i < count; i++) {
+            int length = in.readInt();
+            total += length;
+            if (length < 0 || total > MAX_FORWARDED_BYTES) {
+                throw new IOException("Forwarded arguments are too long");
+            }
+            byte[] bytes = in.readNBytes(length);
+            if (bytes.length < length) {
+                throw new EOFException("Forwarded arguments end early");
+            }
+            args[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return args;
+    }
+    // ---
 }
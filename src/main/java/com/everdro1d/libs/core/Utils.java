@@ -3,6 +3,7 @@
 package com.everdro1d.libs.core;
 
 import com.everdro1d.libs.io.SyncPipe;
+import com.everdro1d.libs.structs.AhoCorasick;
 
 import java.awt.*;
 import java.awt.datatransfer.StringSelection;
@@ -114,6 +115,22 @@ public final class Utils {
         return false;
     }
 
+    /**
+     * Checks if the specified string contains any of the patterns of a precompiled matcher.
+     * <p>Scans the string once however many patterns there are, so prefer this over
+     * {@link #stringContainsAny(String[], String)} when checking many strings against the same patterns,
+     * e.g. every line of a process's output.</p>
+     * @param matcher the compiled patterns to check for
+     * @param testString the string to test
+     * @return {@code true} if the test string contains any of the patterns, {@code false} otherwise
+     * <p><strong>Example:</strong></p>
+     * <p>{@code AhoCorasick errors = new AhoCorasick(List.of("ERROR", "Exception"));}</p>
+     * <p>{@code stringContainsAny(errors, "java.io.IOException: Broken pipe")} -> {@code true}</p>
+     */
+    public static boolean stringContainsAny(AhoCorasick matcher, String testString) {
+        return matcher.containsAny(testString);
+    }
+
     /**
      * Checks if the given 2D array contains the specified test string.
      * @param matchingArray the 2D array to check in
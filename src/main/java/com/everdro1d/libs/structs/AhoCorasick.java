@@ -0,0 +1,216 @@
+// dro1dDev - created: 2026-10-16
+
+/* Reference materials:
+ * https://en.wikipedia.org/wiki/Aho%E2%80%93Corasick_algorithm
+ * https://www.geeksforgeeks.org/aho-corasick-algorithm-pattern-searching/
+ */
+
+package com.everdro1d.libs.structs;
+
+import java.util.*;
+
+/**
+ * Finds many patterns in a text in a single pass, using the Aho-Corasick automaton.
+ * <p>The patterns are compiled once into a Trie with failure links: when the next character
+ * does not continue the current match, the automaton falls back to the longest suffix of it that
+ * is still a prefix of some pattern, instead of restarting. Scanning a text is O(n + matches),
+ * however many patterns there are, where checking each pattern with {@link String#contains}
+ * is O(n × patterns).</p>
+ * <p>An AhoCorasick cannot change after it is built, so it is safe to share between threads.</p>
+ * <p><strong>Example:</strong></p>
+ * <blockquote><pre>
+ * AhoCorasick errors = new AhoCorasick(List.of("ERROR", "Exception", "FATAL"));
+ * errors.containsAny(line);
+ * errors.findAll("FATAL: NullPointerException"); // [FATAL at 0, Exception at 18]
+ * </pre></blockquote>
+ *
+ * @see com.everdro1d.libs.core.Utils#stringContainsAny(AhoCorasick, String)
+ */
+public final class AhoCorasick {
+    /**
+     * A pattern found in a text.
+     * @param start index of the first character of the match in the text
+     * @param end index after the last character of the match in the text
+     * @param pattern the pattern that matched
+     */
+    public record Match(int start, int end, String pattern) {
+        @Override
+        public String toString() {
+            return pattern + " at " + start;
+        }
+    }
+
+    private final String[] patterns;
+
+    // states in level order, the children of a state are consecutive and sorted by label, as in FrozenTrie
+    private final char[] labels;
+    private final int[] childStart;
+
+    /**
+     * State to go to when the next character does not continue the current state.
+     */
+    private final int[] fail;
+
+    /**
+     * Index of the pattern that ends at each state, or -1.
+     */
+    private final int[] patternAt;
+
+    /**
+     * Nearest state along the failure links where a pattern ends, or -1.
+     */
+    private final int[] outputLink;
+
+    /**
+     * Builds the automaton for the given patterns.
+     * @param patterns patterns to search for, duplicates are ignored
+     */
+    public AhoCorasick(Collection<String> patterns) {
+        // plain trie first, children kept sorted so the level order matches FrozenTrie
+        List<TreeMap<Character, Integer>> edges = new ArrayList<>();
+        List<Integer> patternOfNode = new ArrayList<>();
+        List<String> distinct = new ArrayList<>();
+        edges.add(new TreeMap<>());
+        patternOfNode.add(-1);
+
+        for (String pattern : patterns) {
+            int node = 0;
+            for (int i = 0; i < pattern.length(); i++) {
+                Integer child = edges.get(node).get(pattern.charAt(i));
+                if (child == null) {
+                    child = edges.size();
+                    edges.get(node).put(pattern.charAt(i), child);
+                    edges.add(new TreeMap<>());
+                    patternOfNode.add(-1);
+                }
+                node = child;
+            }
+            if (patternOfNode.get(node) == -1) {
+                patternOfNode.set(node, distinct.size());
+                distinct.add(pattern);
+            }
+        }
+
+        int stateCount = edges.size();
+        this.patterns = distinct.toArray(new String[0]);
+        labels = new char[stateCount];
+        childStart = new int[stateCount + 1];
+        fail = new int[stateCount];
+        patternAt = new int[stateCount];
+        outputLink = new int[stateCount];
+
+        // renumber in level order
+        int[] order = new int[stateCount];
+        int nextChild = 1;
+        for (int state = 0; state < stateCount; state++) {
+            TreeMap<Character, Integer> children = edges.get(order[state]);
+            patternAt[state] = patternOfNode.get(order[state]);
+            childStart[state] = nextChild;
+            for (Map.Entry<Character, Integer> child : children.entrySet()) {
+                labels[nextChild] = child.getKey();
+                order[nextChild++] = child.getValue();
+            }
+        }
+        childStart[stateCount] = nextChild;
+
+        // failure links point to shallower states, which level order has already finished
+        outputLink[0] = -1;
+        for (int state = 0; state < stateCount; state++) {
+            for (int child = childStart[state]; child < childStart[state + 1]; child++) {
+                fail[child] = state == 0 ? 0 : next(fail[state], labels[child]);
+                int suffix = fail[child];
+                outputLink[child] = patternAt[suffix] >= 0 ? suffix : outputLink[suffix];
+            }
+        }
+    }
+
+    /**
+     * Builds the automaton for the keys of a Trie.
+     * @param trie Trie whose keys are the patterns to search for
+     * @see #AhoCorasick(Collection)
+     */
+    public AhoCorasick(Trie<?> trie) {
+        this(trie.listKeys());
+    }
+
+    /**
+     * Gets the patterns this AhoCorasick searches for.
+     * @return the distinct patterns, in the order they were given
+     */
+    public List<String> patterns() {
+        return List.of(patterns);
+    }
+
+    /**
+     * Checks if the text contains any of the patterns. Stops at the first match.
+     * @param text text to search
+     * @return true if any pattern occurs in the text
+     */
+    public boolean containsAny(CharSequence text) {
+        if (patternAt[0] >= 0) return true;
+
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            state = next(state, text.charAt(i));
+            if (patternAt[state] >= 0 || outputLink[state] >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Finds every occurrence of every pattern in the text, including overlapping ones.
+     * @param text text to search
+     * @return the matches, ordered by their end index, then longest pattern first
+     */
+    public List<Match> findAll(CharSequence text) {
+        List<Match> matches = new ArrayList<>();
+        if (patternAt[0] >= 0) matches.add(new Match(0, 0, ""));
+
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            state = next(state, text.charAt(i));
+
+            for (int output = patternAt[state] >= 0 ? state : outputLink[state]; output >= 0; output = outputLink[output]) {
+                String pattern = patterns[patternAt[output]];
+                matches.add(new Match(i + 1 - pattern.length(), i + 1, pattern));
+            }
+        }
+        return matches;
+    }
+
+    // ---
+    /**
+     * Follows the goto function, falling back along the failure links.
+     */
+    private int next(int state, char c) {
+        while (true) {
+            int child = findChild(state, c);
+            if (child >= 0) return child;
+            if (state == 0) return 0;
+            state = fail[state];
+        }
+    }
+
+    private int findChild(int state, char c) {
+        int low = childStart[state];
+        int high = childStart[state + 1] - 1;
+
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            char label = labels[mid];
+
+            if (label < c) {
+                low = mid + 1;
+            } else if (label > c) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+
+        return -1;
+    }
+    // ---
+}
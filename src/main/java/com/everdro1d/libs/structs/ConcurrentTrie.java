@@ -0,0 +1,462 @@
+// dro1dDev - created: 2026-10-16
+
+/* Reference materials:
+ * https://en.wikipedia.org/wiki/Ctrie
+ * https://en.wikipedia.org/wiki/Copy-on-write
+ */
+
+package com.everdro1d.libs.structs;
+
+import java.util.*;
+
+/**
+ * A thread-safe variant of {@link Trie} for indexes that are updated by one or more background
+ * threads while other threads (such as the EDT) keep querying them.
+ * <h2>Concurrency</h2>
+ * <ul>
+ *     <li>Reads ({@code get}, {@code contains}, {@code startsWith}, listing keys) never lock and never wait.
+ *         Each node publishes its children as an immutable sorted array snapshot through a volatile field,
+ *         so a reader only follows volatile references.</li>
+ *     <li>Writes lock a single node at a time while they add a child or change its value. Different
+ *         branches of the tree can be changed in parallel.</li>
+ *     <li>Removal prunes the nodes that no longer lead to a key, locking a parent and then its child.
+ *         A pruned node is marked, and writers that race with the pruning restart from the root.</li>
+ * </ul>
+ * <p>Listing keys is weakly consistent: it reflects the tree at some point during the traversal,
+ * and may or may not include changes made by other threads while it runs.</p>
+ *
+ * @param <T> the type of value stored in the ConcurrentTrie
+ * @see Trie
+ */
+public class ConcurrentTrie<T> {
+
+    /**
+     * Value of a node that does not end a key. Keys may have {@code null} as their value.
+     */
+    private static final Object NO_VALUE = new Object();
+
+    private static final class Node {
+        /**
+         * The character that this node represents.
+         */
+        final char character;
+
+        /**
+         * The value of the key ending at this node, or {@link #NO_VALUE}.
+         */
+        volatile Object value = NO_VALUE;
+
+        /**
+         * Immutable snapshot of this node's children, replaced while holding this node's lock.
+         */
+        volatile Children children = Children.EMPTY;
+
+        /**
+         * Set once this node has been unlinked from its parent, guarded by this node's lock.
+         */
+        boolean removed;
+
+        Node(char character) {
+            this.character = character;
+        }
+    }
+
+    private static final class Children {
+        static final Children EMPTY = new Children(new char[0], new Node[0]);
+
+        /**
+         * Sorted characters of the children, parallel to {@link #nodes}.
+         */
+        final char[] keys;
+        final Node[] nodes;
+
+        Children(char[] keys, Node[] nodes) {
+            this.keys = keys;
+            this.nodes = nodes;
+        }
+
+        Node get(char c) {
+            int index = Arrays.binarySearch(keys, c);
+            return index >= 0 ? nodes[index] : null;
+        }
+
+        Children with(Node node) {
+            int index = -(Arrays.binarySearch(keys, node.character) + 1);
+            char[] newKeys = new char[keys.length + 1];
+            Node[] newNodes = new Node[nodes.length + 1];
+
+            System.arraycopy(keys, 0, newKeys, 0, index);
+            System.arraycopy(nodes, 0, newNodes, 0, index);
+            newKeys[index] = node.character;
+            newNodes[index] = node;
+            System.arraycopy(keys, index, newKeys, index + 1, keys.length - index);
+            System.arraycopy(nodes, index, newNodes, index + 1, nodes.length - index);
+
+            return new Children(newKeys, newNodes);
+        }
+
+        Children without(char c) {
+            int index = Arrays.binarySearch(keys, c);
+            if (keys.length == 1) return EMPTY;
+
+            char[] newKeys = new char[keys.length - 1];
+            Node[] newNodes = new Node[nodes.length - 1];
+
+            System.arraycopy(keys, 0, newKeys, 0, index);
+            System.arraycopy(nodes, 0, newNodes, 0, index);
+            System.arraycopy(keys, index + 1, newKeys, index, keys.length - index - 1);
+            System.arraycopy(nodes, index + 1, newNodes, index, nodes.length - index - 1);
+
+            return new Children(newKeys, newNodes);
+        }
+    }
+
+    /**
+     * Root node of the ConcurrentTrie, it is never removed.
+     */
+    private final Node root = new Node('\0');
+
+    /**
+     * Creates a new ConcurrentTrie without any values.
+     */
+    public ConcurrentTrie() {}
+
+    /**
+     * Creates a new ConcurrentTrie containing the keys given in the list.
+     * @param list list of key the tree should be init with
+     */
+    public ConcurrentTrie(List<String> list) {
+        for (String key : list) {
+            insert(key, null);
+        }
+    }
+
+    /**
+     * Creates a new ConcurrentTrie containing the key-value pairs given in the map.
+     * @param map map of key-value pairs the tree should be init with
+     */
+    public ConcurrentTrie(Map<String, T> map) {
+        for (Map.Entry<String, T> entry : map.entrySet()) {
+            insert(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Inserts the given key into the ConcurrentTrie, creating nodes where necessary.
+     * @param key key to insert
+     */
+    public void insert(String key) {
+        insert(key, null);
+    }
+
+    /**
+     * Inserts the given key-value pair into the ConcurrentTrie, creating nodes where necessary.
+     * @param key key to insert
+     * @param value value to associate with the key
+     */
+    public void insert(String key, T value) {
+        retry:
+        while (true) {
+            Node currentNode = root;
+
+            for (int i = 0; i < key.length(); i++) {
+                char character = key.charAt(i);
+                Node childNode = currentNode.children.get(character);
+
+                if (childNode == null) {
+                    synchronized (currentNode) {
+                        if (currentNode.removed) continue retry;
+
+                        childNode = currentNode.children.get(character);
+                        if (childNode == null) {
+                            childNode = new Node(character);
+                            currentNode.children = currentNode.children.with(childNode);
+                        }
+                    }
+                }
+
+                currentNode = childNode;
+            }
+
+            synchronized (currentNode) {
+                if (currentNode.removed) continue retry;
+                currentNode.value = value;
+            }
+            return;
+        }
+    }
+
+    /**
+     * Inserts the list of keys into the ConcurrentTrie, creating nodes where necessary.
+     * @param list the list of keys to insert
+     */
+    public void insert(List<String> list) {
+        for (String key : list) {
+            insert(key);
+        }
+    }
+
+    /**
+     * Inserts a map of key-value pairs into the ConcurrentTrie, creating nodes where necessary.
+     * @param map the map of key-value pairs to insert
+     */
+    public void insert(Map<String, T> map) {
+        for (Map.Entry<String, T> entry : map.entrySet()) {
+            insert(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Checks if the given key exists in the tree.
+     * @param key key to check for
+     * @return true if all the nodes of the key exist in the ConcurrentTrie and the last node is EOW.
+     */
+    public boolean contains(String key) {
+        Node node = findNode(key);
+        return node != null && node.value != NO_VALUE;
+    }
+
+    /**
+     * Checks if any of the given keys exist in the tree.
+     * @param list the list of keys to check for
+     * @return true if any key in the list exists in the ConcurrentTrie.
+     */
+    public boolean containsAny(List<String> list) {
+        for (String key : list) {
+            if (contains(key)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Checks if all the given keys exist in the tree.
+     * @param list the list of keys to check for
+     * @return true if all keys in the list exist in the ConcurrentTrie.
+     */
+    public boolean containsAll(List<String> list) {
+        for (String key : list) {
+            if (!contains(key)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Checks if any keys in the tree start with the given prefix.
+     * @param prefix prefix to check for
+     * @return true if any key starts with or matches the prefix
+     */
+    public boolean startsWith(String prefix) {
+        return findNode(prefix) != null;
+    }
+
+    // ---
+    private Node findNode(String key) {
+        Node currentNode = root;
+
+        for (int i = 0; i < key.length(); i++) {
+            currentNode = currentNode.children.get(key.charAt(i));
+
+            if (currentNode == null) {
+                return null;
+            }
+        }
+
+        return currentNode;
+    }
+    // ---
+
+    /**
+     * Checks if the ConcurrentTrie is empty.
+     * @return true if the root node has no children, else false.
+     */
+    public boolean isEmpty() {
+        return root.children.keys.length == 0;
+    }
+
+    /**
+     * Removes all keys from the ConcurrentTrie.
+     * <p>Readers may observe the tree partially cleared while this runs.
+     * Inserts that race with it are either kept or removed as a whole.</p>
+     */
+    public void clear() {
+        synchronized (root) {
+            // mark every node first, so that writers holding a reference into the old tree restart
+            for (Node childNode : root.children.nodes) {
+                markRemoved(childNode);
+            }
+
+            root.children = Children.EMPTY;
+            root.value = NO_VALUE;
+        }
+    }
+
+    // ---
+    private void markRemoved(Node node) {
+        Children children;
+        synchronized (node) {
+            node.removed = true;
+            children = node.children;
+        }
+
+        for (Node childNode : children.nodes) {
+            markRemoved(childNode);
+        }
+    }
+    // ---
+
+    /**
+     * Removes the given key from the ConcurrentTrie, pruning the nodes that no longer lead to a key.
+     * @param key key to remove
+     * @return true if the key was removed, false otherwise (including key does not exist)
+     */
+    public boolean remove(String key) {
+        Node[] path = new Node[key.length() + 1];
+        path[0] = root;
+
+        for (int i = 0; i < key.length(); i++) {
+            path[i + 1] = path[i].children.get(key.charAt(i));
+
+            if (path[i + 1] == null) {
+                return false; // key does not exist
+            }
+        }
+
+        Node endNode = path[key.length()];
+        synchronized (endNode) {
+            if (endNode.removed || endNode.value == NO_VALUE) {
+                return false; // key does not exist
+            }
+            endNode.value = NO_VALUE;
+        }
+
+        // prune bottom up, stop at the first node that is still needed
+        for (int i = key.length(); i > 0; i--) {
+            Node parentNode = path[i - 1];
+            Node childNode = path[i];
+
+            synchronized (parentNode) {
+                synchronized (childNode) {
+                    boolean prune = !parentNode.removed && !childNode.removed
+                            && childNode.value == NO_VALUE
+                            && childNode.children.keys.length == 0
+                            && parentNode.children.get(childNode.character) == childNode;
+
+                    if (!prune) {
+                        return true;
+                    }
+
+                    childNode.removed = true;
+                    parentNode.children = parentNode.children.without(childNode.character);
+                }
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Removes all keys in a given list from the ConcurrentTrie
+     * @param list list of keys to remove
+     * @return true if none of the given keys exist in the ConcurrentTrie, false otherwise
+     */
+    public boolean removeAll(List<String> list) {
+        for (String key : list) {
+            remove(key);
+        }
+
+        return !containsAny(list);
+    }
+
+    /**
+     * List the keys in a ConcurrentTrie.
+     * @return A list of all the keys in the ConcurrentTrie
+     */
+    public List<String> listKeys() {
+        return listKeysMatching("");
+    }
+
+    /**
+     * List the keys in a ConcurrentTrie that match the prefix.
+     *
+     * @param prefix prefix to match
+     * @return List of all matching keys in the ConcurrentTrie
+     *
+     * @see #listKeysMatching(String, int)
+     */
+    public List<String> listKeysMatching(String prefix) {
+        return listKeysMatching(prefix, -1);
+    }
+
+    /**
+     * List the keys in a ConcurrentTrie that match the prefix with a limit on the number of matches.
+     * Keys are visited in lexicographic order.
+     *
+     * @param prefix prefix to match
+     * @param maxMatches maximum number of matches to return
+     * @return List of all matching keys in the ConcurrentTrie
+     *
+     * @see #listKeysMatching(String)
+     */
+    public List<String> listKeysMatching(String prefix, int maxMatches) {
+        List<String> list = new ArrayList<>();
+        Node node = findNode(prefix);
+
+        if (node != null) {
+            listKeysHelper(node, list, new StringBuilder(prefix), maxMatches);
+        }
+        return list;
+    }
+
+    // ---
+    private void listKeysHelper(Node currentNode, List<String> list, StringBuilder stringAssembler, int maxMatches) {
+        if (maxMatches != -1 && list.size() >= maxMatches) return;
+
+        if (currentNode.value != NO_VALUE) list.add(stringAssembler.toString());
+
+        for (Node childNode : currentNode.children.nodes) {
+            listKeysHelper(childNode, list, stringAssembler.append(childNode.character), maxMatches);
+            stringAssembler.setLength(stringAssembler.length() - 1);
+        }
+    }
+    // ---
+
+    /**
+     * Get the value of a key in the ConcurrentTrie.
+     * @param key the key to search for
+     * @return the value associated with the key
+     */
+    @SuppressWarnings("unchecked")
+    public T get(String key) {
+        Node node = findNode(key);
+        if (node == null) return null;
+
+        Object value = node.value;
+        return value != NO_VALUE ? (T) value : null;
+    }
+
+    /**
+     * Set the value for an existing key in the ConcurrentTrie.
+     * @param key key to search for
+     * @param value value to set as
+     * @return true if value was set, false otherwise (including value does not exist)
+     */
+    public boolean set(String key, T value) {
+        Node node = findNode(key);
+        if (node == null) return false;
+
+        synchronized (node) {
+            if (node.removed || node.value == NO_VALUE) {
+                return false;
+            }
+            node.value = value;
+            return true;
+        }
+    }
+
+}
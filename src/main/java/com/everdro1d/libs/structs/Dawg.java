@@ -0,0 +1,379 @@
+// dro1dDev - created: 2026-10-16
+
+/* Reference materials:
+ * https://en.wikipedia.org/wiki/Deterministic_acyclic_finite_state_automaton
+ * https://aclanthology.org/J00-1002.pdf (Daciuk et al., Incremental Construction of Minimal Acyclic Finite-State Automata)
+ */
+
+package com.everdro1d.libs.structs;
+
+import java.util.*;
+
+/**
+ * An immutable set of strings stored as a directed acyclic word graph (DAWG).
+ * <p>A DAWG is a Trie where equal subtrees are merged, so keys share their common suffixes as well
+ * as their common prefixes. Word lists and file paths repeat endings like {@code ".json"} or
+ * {@code "_settings.xml"} over and over, and a DAWG stores each of them once. {@link #contains(String)}
+ * and {@link #startsWith(String)} stay O(m), where m is the length of the key.</p>
+ * <p>The graph is built minimal from the start, with the incremental algorithm for sorted input by
+ * Daciuk et al.: whenever the next key leaves a branch of the previous key, that branch can no longer
+ * change and is merged with an equal branch seen before, if there is one.</p>
+ * <p>A DAWG only stores keys, since merged nodes end many keys at once. Use a {@link Trie} when values are needed.</p>
+ * <p><strong>Example:</strong></p>
+ * <blockquote><pre>
+ * Dawg dictionary = Dawg.fromSorted(Files.readAllLines(sortedWordList));
+ * dictionary.contains("settings.json");
+ * dictionary.nodeCount(); // far fewer nodes than the same keys in a Trie
+ * </pre></blockquote>
+ *
+ * @see Trie
+ */
+public final class Dawg {
+    // nodes are numbered from the root, the edges of a node are consecutive and sorted by label
+    private final int[] edgeStart;
+    private final char[] edgeLabels;
+    private final int[] edgeTargets;
+    private final long[] terminal;
+    private final int size;
+
+    /**
+     * Creates a Dawg containing the given keys, in any order.
+     * @param keys keys the Dawg should contain, duplicates are ignored
+     * @see #fromSorted(Iterable)
+     */
+    public Dawg(Collection<String> keys) {
+        this(sortedCopy(keys));
+    }
+
+    /**
+     * Creates a Dawg containing the keys of a Trie.
+     * @param trie Trie whose keys the Dawg should contain
+     */
+    public Dawg(Trie<?> trie) {
+        this(trie.listKeys());
+    }
+
+    private Dawg(List<String> sortedKeys) {
+        this(build(sortedKeys));
+    }
+
+    private Dawg(Builder builder) {
+        // number the canonical nodes, depth first from the root
+        Map<BuildNode, Integer> ids = new IdentityHashMap<>();
+        List<BuildNode> order = new ArrayList<>();
+        ArrayDeque<BuildNode> stack = new ArrayDeque<>();
+        stack.push(builder.root);
+        ids.put(builder.root, 0);
+        order.add(builder.root);
+
+        int edgeCount = 0;
+        while (!stack.isEmpty()) {
+            BuildNode node = stack.pop();
+            edgeCount += node.childCount;
+            for (int i = node.childCount - 1; i >= 0; i--) {
+                BuildNode child = node.children[i];
+                if (!ids.containsKey(child)) {
+                    ids.put(child, order.size());
+                    order.add(child);
+                    stack.push(child);
+                }
+            }
+        }
+
+        int nodeCount = order.size();
+        edgeStart = new int[nodeCount + 1];
+        edgeLabels = new char[edgeCount];
+        edgeTargets = new int[edgeCount];
+        terminal = new long[(nodeCount + 63) >>> 6];
+
+        int nextEdge = 0;
+        for (int id = 0; id < nodeCount; id++) {
+            BuildNode node = order.get(id);
+            edgeStart[id] = nextEdge;
+            if (node.isEndOfWord) terminal[id >>> 6] |= 1L << id;
+
+            for (int i = 0; i < node.childCount; i++) {
+                edgeLabels[nextEdge] = node.labels[i];
+                edgeTargets[nextEdge++] = ids.get(node.children[i]);
+            }
+        }
+        edgeStart[nodeCount] = nextEdge;
+        size = builder.count;
+    }
+
+    /**
+     * Creates a Dawg from keys that are already sorted, minimizing while they are added.
+     * @param sortedKeys keys in {@link String#compareTo(String)} order, duplicates are allowed
+     * @return the Dawg
+     * @throws IllegalArgumentException if the keys are not sorted
+     */
+    public static Dawg fromSorted(Iterable<String> sortedKeys) {
+        return new Dawg(build(sortedKeys));
+    }
+
+    /**
+     * Gets the number of keys in the Dawg.
+     * @return number of keys
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks if the Dawg is empty.
+     * @return true if there are no keys, else false.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Gets the number of nodes in the graph, after merging equal subtrees.
+     * @return number of nodes
+     */
+    public int nodeCount() {
+        return edgeStart.length - 1;
+    }
+
+    /**
+     * Checks if the given key exists in the Dawg.
+     * @param key key to check for
+     * @return true if the key exists
+     */
+    public boolean contains(String key) {
+        int node = findNode(key);
+        return node >= 0 && isTerminal(node);
+    }
+
+    /**
+     * Checks if any keys in the Dawg start with the given prefix.
+     * @param prefix prefix to check for
+     * @return true if any key starts with or matches the prefix
+     */
+    public boolean startsWith(String prefix) {
+        return findNode(prefix) >= 0;
+    }
+
+    /**
+     * List the keys in a Dawg.
+     * @return A list of all the keys in the Dawg
+     */
+    public List<String> listKeys() {
+        return listKeysMatching("");
+    }
+
+    /**
+     * List the keys in a Dawg that match the prefix.
+     *
+     * @param prefix prefix to match
+     * @return List of all matching keys in the Dawg
+     *
+     * @see #listKeysMatching(String, int)
+     */
+    public List<String> listKeysMatching(String prefix) {
+        return listKeysMatching(prefix, -1);
+    }
+
+    /**
+     * List the keys in a Dawg that match the prefix with a limit on the number of matches.
+     * Keys are visited in lexicographic order.
+     *
+     * @param prefix prefix to match
+     * @param maxMatches maximum number of matches to return
+     * @return List of all matching keys in the Dawg
+     *
+     * @see #listKeysMatching(String)
+     */
+    public List<String> listKeysMatching(String prefix, int maxMatches) {
+        List<String> list = new ArrayList<>();
+        int node = findNode(prefix);
+
+        if (node >= 0) {
+            listKeysHelper(node, list, new StringBuilder(prefix), maxMatches);
+        }
+        return list;
+    }
+
+    // ---
+    private void listKeysHelper(int node, List<String> list, StringBuilder stringAssembler, int maxMatches) {
+        if (maxMatches != -1 && list.size() >= maxMatches) return;
+
+        if (isTerminal(node)) list.add(stringAssembler.toString());
+
+        for (int edge = edgeStart[node]; edge < edgeStart[node + 1]; edge++) {
+            listKeysHelper(edgeTargets[edge], list, stringAssembler.append(edgeLabels[edge]), maxMatches);
+            stringAssembler.setLength(stringAssembler.length() - 1);
+        }
+    }
+
+    private int findNode(String key) {
+        int node = 0;
+
+        for (int i = 0; i < key.length(); i++) {
+            int edge = findEdge(node, key.charAt(i));
+            if (edge < 0) {
+                return -1;
+            }
+            node = edgeTargets[edge];
+        }
+
+        return node;
+    }
+
+    private int findEdge(int node, char c) {
+        int low = edgeStart[node];
+        int high = edgeStart[node + 1] - 1;
+
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            char label = edgeLabels[mid];
+
+            if (label < c) {
+                low = mid + 1;
+            } else if (label > c) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+
+        return -1;
+    }
+
+    private boolean isTerminal(int node) {
+        return (terminal[node >>> 6] & (1L << node)) != 0;
+    }
+
+    private static List<String> sortedCopy(Collection<String> keys) {
+        String[] array = keys.toArray(new String[0]);
+        Arrays.sort(array);
+        return Arrays.asList(array);
+    }
+
+    private static Builder build(Iterable<String> sortedKeys) {
+        Builder builder = new Builder();
+        for (String key : sortedKeys) {
+            builder.add(key);
+        }
+        return builder.finish();
+    }
+
+    /**
+     * Node of the graph while it is being built. Once registered, a node never changes again,
+     * so nodes can be compared by their flag, labels and the identity of their children.
+     */
+    private static final class BuildNode {
+        boolean isEndOfWord;
+        char[] labels = new char[2];
+        BuildNode[] children = new BuildNode[2];
+        int childCount;
+
+        private int hash;
+
+        private void addChild(char c, BuildNode child) {
+            if (childCount == labels.length) {
+                labels = Arrays.copyOf(labels, childCount * 2);
+                children = Arrays.copyOf(children, childCount * 2);
+            }
+            labels[childCount] = c;
+            children[childCount++] = child;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof BuildNode other)) return false;
+            if (isEndOfWord != other.isEndOfWord || childCount != other.childCount || hashCode() != other.hashCode()) {
+                return false;
+            }
+
+            for (int i = 0; i < childCount; i++) {
+                if (labels[i] != other.labels[i] || children[i] != other.children[i]) return false;
+            }
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            // only called on nodes that no longer change
+            if (hash == 0) {
+                int h = isEndOfWord ? 1 : 2;
+                for (int i = 0; i < childCount; i++) {
+                    h = 31 * (31 * h + labels[i]) + System.identityHashCode(children[i]);
+                }
+                hash = h == 0 ? 1 : h;
+            }
+            return hash;
+        }
+    }
+
+    /**
+     * Incremental construction from sorted keys. The nodes along the previous key are still
+     * open, every other node is already in the register of unique nodes.
+     */
+    private static final class Builder {
+        private final BuildNode root = new BuildNode();
+        private final Map<BuildNode, BuildNode> register = new HashMap<>();
+
+        /**
+         * Open nodes along the previous key, {@code path[0]} is the root.
+         */
+        private BuildNode[] path = new BuildNode[16];
+        private String previous = "";
+        private int count;
+
+        Builder() {
+            path[0] = root;
+        }
+
+        void add(String key) {
+            int common = 0;
+            int limit = Math.min(previous.length(), key.length());
+            while (common < limit && previous.charAt(common) == key.charAt(common)) common++;
+
+            if (common < previous.length() && (common == key.length() || key.charAt(common) < previous.charAt(common))) {
+                throw new IllegalArgumentException("Keys are not sorted: \"" + key + "\" comes after \"" + previous + "\"");
+            }
+
+            // the rest of the previous key can no longer change
+            minimize(common);
+
+            if (key.length() >= path.length) {
+                path = Arrays.copyOf(path, Math.max(path.length * 2, key.length() + 1));
+            }
+            for (int i = common; i < key.length(); i++) {
+                BuildNode child = new BuildNode();
+                path[i].addChild(key.charAt(i), child);
+                path[i + 1] = child;
+            }
+
+            BuildNode last = path[key.length()];
+            if (!last.isEndOfWord) {
+                last.isEndOfWord = true;
+                count++;
+            }
+            previous = key;
+        }
+
+        Builder finish() {
+            minimize(0);
+            return this;
+        }
+
+        /**
+         * Replaces the open nodes below the given depth by equal registered nodes, or registers them.
+         */
+        private void minimize(int depth) {
+            for (int i = previous.length(); i > depth; i--) {
+                BuildNode node = path[i];
+                BuildNode parent = path[i - 1];
+
+                BuildNode existing = register.putIfAbsent(node, node);
+                if (existing != null) {
+                    // the node is always the last child, it was added most recently
+                    parent.children[parent.childCount - 1] = existing;
+                }
+            }
+        }
+    }
+    // ---
+}
@@ -0,0 +1,216 @@
+// dro1dDev - created: 2026-10-16
+
+/* Reference materials:
+ * https://en.wikipedia.org/wiki/Succinct_data_structure
+ * https://www.geeksforgeeks.org/level-order-tree-traversal/
+ */
+
+package com.everdro1d.libs.structs;
+
+import java.util.*;
+
+/**
+ * An immutable, compiled form of a {@link Trie}, created with {@link Trie#freeze()}.
+ * <p>Nodes are numbered in level order (the same ordering LOUDS uses) and the whole tree is
+ * stored in a few flat arrays instead of an object graph:</p>
+ * <ul>
+ *     <li>{@code labels[i]}: the character on the edge into node {@code i}</li>
+ *     <li>{@code childStart[i]}: children of node {@code i} are the consecutive nodes
+ *         {@code childStart[i]} to {@code childStart[i + 1] - 1}, sorted by label</li>
+ *     <li>{@code terminal}: bitset of the nodes that end a key, with a rank directory so that
+ *         values can be stored densely, one per key</li>
+ * </ul>
+ * <p>Lookups are O(m log σ), where σ is the fan-out of a node, and touch only arrays.
+ * Since a FrozenTrie cannot change, it is safe to share between any number of threads without locking.</p>
+ * <p><strong>Example:</strong></p>
+ * <blockquote><pre>
+ * Trie&lt;String&gt; trie = new Trie&lt;&gt;(localeMap);
+ * FrozenTrie&lt;String&gt; frozen = trie.freeze();
+ * frozen.get("BasicSettingsWindow.Defaults.x");
+ * </pre></blockquote>
+ *
+ * @param <T> the type of value stored in the FrozenTrie
+ * @see Trie#freeze()
+ */
+public final class FrozenTrie<T> {
+    final char[] labels;
+    final int[] childStart;
+    final long[] terminal;
+
+    /**
+     * Number of terminal nodes before each 64-bit word of {@link #terminal}.
+     */
+    final int[] terminalRank;
+
+    final Object[] values;
+
+    /**
+     * Creates a FrozenTrie from already compiled arrays.
+     * @param labels edge label of each node, in level order
+     * @param childStart index of the first child of each node, with one extra trailing entry
+     * @param terminal bitset of the nodes that end a key
+     * @param values value of each key, in level order of the terminal nodes
+     * @see Trie#freeze()
+     */
+    FrozenTrie(char[] labels, int[] childStart, long[] terminal, Object[] values) {
+        this.labels = labels;
+        this.childStart = childStart;
+        this.terminal = terminal;
+        this.values = values;
+
+        this.terminalRank = new int[terminal.length];
+        int rank = 0;
+        for (int i = 0; i < terminal.length; i++) {
+            terminalRank[i] = rank;
+            rank += Long.bitCount(terminal[i]);
+        }
+    }
+
+    /**
+     * Gets the number of keys in the FrozenTrie.
+     * @return number of keys
+     */
+    public int size() {
+        return values.length;
+    }
+
+    /**
+     * Checks if the FrozenTrie is empty.
+     * @return true if there are no keys, else false.
+     */
+    public boolean isEmpty() {
+        return values.length == 0;
+    }
+
+    /**
+     * Checks if the given key exists in the tree.
+     * @param key key to check for
+     * @return true if the key exists
+     */
+    public boolean contains(String key) {
+        int node = findNode(key);
+        return node >= 0 && isTerminal(node);
+    }
+
+    /**
+     * Checks if any keys in the tree start with the given prefix.
+     * @param prefix prefix to check for
+     * @return true if any key starts with or matches the prefix
+     */
+    public boolean startsWith(String prefix) {
+        return findNode(prefix) >= 0;
+    }
+
+    /**
+     * Get the value of a key in the FrozenTrie.
+     * @param key the key to search for
+     * @return the value associated with the key, or null if the key does not exist
+     */
+    @SuppressWarnings("unchecked")
+    public T get(String key) {
+        int node = findNode(key);
+        return (node >= 0 && isTerminal(node)) ? (T) values[rank(node)] : null;
+    }
+
+    /**
+     * List the keys in a FrozenTrie.
+     * @return A list of all the keys in the FrozenTrie
+     */
+    public List<String> listKeys() {
+        return listKeysMatching("");
+    }
+
+    /**
+     * List the keys in a FrozenTrie that match the prefix.
+     *
+     * @param prefix prefix to match
+     * @return List of all matching keys in the FrozenTrie
+     *
+     * @see #listKeysMatching(String, int)
+     */
+    public List<String> listKeysMatching(String prefix) {
+        return listKeysMatching(prefix, -1);
+    }
+
+    /**
+     * List the keys in a FrozenTrie that match the prefix with a limit on the number of matches.
+     * Keys are visited in lexicographic order.
+     *
+     * @param prefix prefix to match
+     * @param maxMatches maximum number of matches to return
+     * @return List of all matching keys in the FrozenTrie
+     *
+     * @see #listKeysMatching(String)
+     */
+    public List<String> listKeysMatching(String prefix, int maxMatches) {
+        List<String> list = new ArrayList<>();
+        int node = findNode(prefix);
+
+        if (node >= 0) {
+            listKeysHelper(node, list, new StringBuilder(prefix), maxMatches);
+        }
+        return list;
+    }
+
+    // ---
+    private void listKeysHelper(int node, List<String> list, StringBuilder stringAssembler, int maxMatches) {
+        if (maxMatches != -1 && list.size() >= maxMatches) return;
+
+        if (isTerminal(node)) list.add(stringAssembler.toString());
+
+        for (int child = childStart[node]; child < childStart[node + 1]; child++) {
+            listKeysHelper(child, list, stringAssembler.append(labels[child]), maxMatches);
+            stringAssembler.setLength(stringAssembler.length() - 1);
+        }
+    }
+
+    /**
+     * Walks the tree along the given key.
+     * @param key key to follow
+     * @return index of the node the key ends on, or -1 if the path does not exist
+     */
+    private int findNode(String key) {
+        int node = 0;
+
+        for (int i = 0; i < key.length(); i++) {
+            node = findChild(node, key.charAt(i));
+            if (node < 0) {
+                return -1;
+            }
+        }
+
+        return node;
+    }
+
+    private int findChild(int node, char c) {
+        int low = childStart[node];
+        int high = childStart[node + 1] - 1;
+
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            char label = labels[mid];
+
+            if (label < c) {
+                low = mid + 1;
+            } else if (label > c) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+
+        return -1;
+    }
+
+    private boolean isTerminal(int node) {
+        return (terminal[node >>> 6] & (1L << node)) != 0;
+    }
+
+    /**
+     * Counts the terminal nodes before the given node, which is the index of its value.
+     */
+    private int rank(int node) {
+        return terminalRank[node >>> 6] + Long.bitCount(terminal[node >>> 6] & ((1L << node) - 1));
+    }
+    // ---
+}
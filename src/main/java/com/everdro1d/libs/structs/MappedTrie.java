@@ -0,0 +1,396 @@
+// dro1dDev - created: 2026-10-16
+
+package com.everdro1d.libs.structs;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * A read-only Trie that is queried directly from a memory-mapped file, without deserializing it into nodes.
+ * <p>Large dictionaries can be built once, written with {@link #write(FrozenTrie, Path, TrieValueCodec)},
+ * and then opened in milliseconds on every start. Only the pages that lookups actually touch are read
+ * from disk, and none of the Trie lives on the Java heap.</p>
+ * <h2>File format</h2>
+ * <p>All numbers are big-endian. The layout is the level-order layout of {@link FrozenTrie}:</p>
+ * <ol>
+ *     <li>Header: magic {@code "DTRI"}, format version, flags, node count, key count (5 ints)</li>
+ *     <li>{@code int[nodeCount + 1]}: index of the first child of each node</li>
+ *     <li>{@code char[nodeCount]}: edge label of each node, padded to 8 bytes</li>
+ *     <li>{@code long[]}: bitset of the nodes that end a key</li>
+ *     <li>{@code int[]}: number of keys before each word of the bitset</li>
+ *     <li>Only if the values flag is set: {@code int[keyCount]} offset of each value, followed by the values,
+ *         each as an {@code int} length ({@code -1} for {@code null}) and the bytes from the {@link TrieValueCodec}</li>
+ * </ol>
+ * <p>Files are limited to 2 GB.</p>
+ * <p><strong>Example:</strong></p>
+ * <blockquote><pre>
+ * // at build time
+ * MappedTrie.write(trie.freeze(), dictionaryPath, TrieValueCodec.STRING);
+ *
+ * // on startup
+ * MappedTrie&lt;String&gt; dictionary = MappedTrie.open(dictionaryPath, TrieValueCodec.STRING);
+ * dictionary.get("BasicSettingsWindow.Defaults.x");
+ * </pre></blockquote>
+ *
+ * @param <T> the type of value stored in the MappedTrie
+ * @see FrozenTrie
+ * @see TrieValueCodec
+ */
+public final class MappedTrie<T> {
+    /**
+     * {@code "DTRI"} in ASCII.
+     */
+    private static final int MAGIC = 0x44545249;
+
+    /**
+     * Current version of the file format, files with a newer version are rejected.
+     */
+    public static final int FORMAT_VERSION = 1;
+
+    private static final int HEADER_BYTES = 5 * Integer.BYTES;
+    private static final int FLAG_VALUES = 1;
+
+    private final ByteBuffer buffer;
+    private final TrieValueCodec<T> codec;
+
+    private final int nodeCount;
+    private final int keyCount;
+    private final boolean hasValues;
+
+    // section offsets in bytes
+    private final int childStartOffset;
+    private final int labelsOffset;
+    private final int terminalOffset;
+    private final int terminalRankOffset;
+    private final int valueOffsetsOffset;
+
+    private MappedTrie(ByteBuffer buffer, TrieValueCodec<T> codec) throws IOException {
+        this.buffer = buffer;
+        this.codec = codec;
+
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a trie file, magic number does not match.");
+        }
+        int version = buffer.getInt(4);
+        if (version < 1 || version > FORMAT_VERSION) {
+            throw new IOException("Unsupported trie file version: " + version + ", supported up to " + FORMAT_VERSION);
+        }
+
+        hasValues = (buffer.getInt(8) & FLAG_VALUES) != 0;
+        if (hasValues && codec == null) {
+            throw new IllegalArgumentException("Trie file has values, a codec is required to open it.");
+        }
+        nodeCount = buffer.getInt(12);
+        keyCount = buffer.getInt(16);
+        if (nodeCount < 0 || keyCount < 0 || keyCount > nodeCount) {
+            throw new IOException("Trie file is corrupt, invalid node count " + nodeCount + " or key count " + keyCount);
+        }
+
+        // in long, so counts from a corrupt file cannot overflow past the size check
+        long terminalWords = (nodeCount + 63L) >>> 6;
+        long labels = HEADER_BYTES + (nodeCount + 1L) * Integer.BYTES;
+        long terminal = labels + (((long) nodeCount * Character.BYTES + 7) & ~7L);
+        long terminalRank = terminal + terminalWords * Long.BYTES;
+        long valueOffsets = terminalRank + terminalWords * Integer.BYTES;
+
+        long expectedSize = hasValues ? valueOffsets + (long) keyCount * Integer.BYTES : valueOffsets;
+        if (buffer.capacity() < expectedSize) {
+            throw new IOException("Trie file is truncated.");
+        }
+
+        childStartOffset = HEADER_BYTES;
+        labelsOffset = (int) labels;
+        terminalOffset = (int) terminal;
+        terminalRankOffset = (int) terminalRank;
+        valueOffsetsOffset = (int) valueOffsets;
+
+        // children always come after their parent and the ranges never go backwards, so every lookup
+        // stays inside the file and every walk down the Trie ends
+        int previous = 0;
+        for (int node = 0; node < nodeCount; node++) {
+            int start = childStart(node);
+            if (start <= node || start < previous) {
+                throw new IOException("Trie file is corrupt, invalid child index " + start + " of node " + node);
+            }
+            previous = start;
+        }
+        if (childStart(nodeCount) != nodeCount || previous > nodeCount) {
+            throw new IOException("Trie file is corrupt, child indices do not end at the node count " + nodeCount);
+        }
+    }
+
+    /**
+     * Opens a trie file by mapping it into memory. Nothing is read until the MappedTrie is queried.
+     * @param path the file written by {@link #write(FrozenTrie, Path, TrieValueCodec)}
+     * @param codec codec to decode values with, or {@code null} if the file was written without values
+     * @param <T> the type of value stored in the file
+     * @return the MappedTrie
+     * @throws IOException if the file cannot be read, or is not a supported trie file
+     * @throws IllegalArgumentException if the file has values but no codec is given
+     */
+    public static <T> MappedTrie<T> open(Path path, TrieValueCodec<T> codec) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Trie file is larger than 2 GB: " + path);
+            }
+            // the mapping stays valid after the channel is closed
+            return new MappedTrie<>(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), codec);
+        }
+    }
+
+    /**
+     * Writes a trie to a file that can be opened with {@link #open(Path, TrieValueCodec)}.
+     * @param trie the trie to write
+     * @param path the file to write, it is replaced if it exists
+     * @param codec codec to encode values with, or {@code null} to only write the keys
+     * @param <T> the type of value stored in the trie
+     * @throws IOException if the file cannot be written
+     * @see #write(FrozenTrie, Path, TrieValueCodec)
+     */
+    public static <T> void write(Trie<T> trie, Path path, TrieValueCodec<T> codec) throws IOException {
+        write(trie.freeze(), path, codec);
+    }
+
+    /**
+     * Writes a trie to a file that can be opened with {@link #open(Path, TrieValueCodec)}.
+     * @param trie the trie to write, see {@link Trie#freeze()}
+     * @param path the file to write, it is replaced if it exists
+     * @param codec codec to encode values with, or {@code null} to only write the keys
+     * @param <T> the type of value stored in the trie
+     * @throws IOException if the file cannot be written
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> void write(FrozenTrie<T> trie, Path path, TrieValueCodec<T> codec) throws IOException {
+        int nodeCount = trie.labels.length;
+        int keyCount = trie.values.length;
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(codec != null ? FLAG_VALUES : 0);
+            out.writeInt(nodeCount);
+            out.writeInt(keyCount);
+
+            for (int childStart : trie.childStart) {
+                out.writeInt(childStart);
+            }
+            for (char label : trie.labels) {
+                out.writeChar(label);
+            }
+            out.write(new byte[align8(nodeCount * Character.BYTES) - nodeCount * Character.BYTES]);
+            for (long word : trie.terminal) {
+                out.writeLong(word);
+            }
+            for (int rank : trie.terminalRank) {
+                out.writeInt(rank);
+            }
+
+            if (codec == null) {
+                return;
+            }
+
+            byte[][] encoded = new byte[keyCount][];
+            long dataOffset = out.size() + (long) keyCount * Integer.BYTES;
+            for (int i = 0; i < keyCount; i++) {
+                T value = (T) trie.values[i];
+                encoded[i] = value != null ? codec.encode(value) : null;
+
+                if (dataOffset > Integer.MAX_VALUE) {
+                    throw new IOException("Trie file would be larger than 2 GB.");
+                }
+                out.writeInt((int) dataOffset);
+                dataOffset += Integer.BYTES + (encoded[i] != null ? encoded[i].length : 0);
+            }
+
+            for (byte[] bytes : encoded) {
+                out.writeInt(bytes != null ? bytes.length : -1);
+                if (bytes != null) out.write(bytes);
+            }
+        }
+    }
+
+    private static int align8(int bytes) {
+        return (bytes + 7) & ~7;
+    }
+
+    /**
+     * Gets the number of keys in the MappedTrie.
+     * @return number of keys
+     */
+    public int size() {
+        return keyCount;
+    }
+
+    /**
+     * Checks if the MappedTrie is empty.
+     * @return true if there are no keys, else false.
+     */
+    public boolean isEmpty() {
+        return keyCount == 0;
+    }
+
+    /**
+     * Checks if the given key exists in the tree.
+     * @param key key to check for
+     * @return true if the key exists
+     */
+    public boolean contains(String key) {
+        int node = findNode(key);
+        return node >= 0 && isTerminal(node);
+    }
+
+    /**
+     * Checks if any keys in the tree start with the given prefix.
+     * @param prefix prefix to check for
+     * @return true if any key starts with or matches the prefix
+     */
+    public boolean startsWith(String prefix) {
+        return findNode(prefix) >= 0;
+    }
+
+    /**
+     * Get the value of a key in the MappedTrie, decoding it straight from the mapped file.
+     * @param key the key to search for
+     * @return the value associated with the key, or null if the key does not exist
+     * @throws UncheckedIOException if the file is corrupt and the value lies outside of it
+     */
+    public T get(String key) {
+        int node = findNode(key);
+        if (node < 0 || !isTerminal(node) || !hasValues) {
+            return null;
+        }
+
+        // values are only checked when read, opening a file stays cheap
+        int rank = rank(node);
+        int valuesEnd = valueOffsetsOffset + keyCount * Integer.BYTES;
+        int valueOffset = (rank >= 0 && rank < keyCount) ? buffer.getInt(valueOffsetsOffset + rank * Integer.BYTES) : -1;
+        if (valueOffset < valuesEnd || valueOffset > buffer.capacity() - Integer.BYTES) {
+            throw corruptValue(key);
+        }
+
+        int length = buffer.getInt(valueOffset);
+        if (length == -1) {
+            return null;
+        }
+        if (length < 0 || length > buffer.capacity() - valueOffset - Integer.BYTES) {
+            throw corruptValue(key);
+        }
+
+        return codec.decode(buffer.slice(valueOffset + Integer.BYTES, length).asReadOnlyBuffer());
+    }
+
+    /**
+     * List the keys in a MappedTrie.
+     * @return A list of all the keys in the MappedTrie
+     */
+    public List<String> listKeys() {
+        return listKeysMatching("");
+    }
+
+    /**
+     * List the keys in a MappedTrie that match the prefix.
+     *
+     * @param prefix prefix to match
+     * @return List of all matching keys in the MappedTrie
+     *
+     * @see #listKeysMatching(String, int)
+     */
+    public List<String> listKeysMatching(String prefix) {
+        return listKeysMatching(prefix, -1);
+    }
+
+    /**
+     * List the keys in a MappedTrie that match the prefix with a limit on the number of matches.
+     * Keys are visited in lexicographic order.
+     *
+     * @param prefix prefix to match
+     * @param maxMatches maximum number of matches to return
+     * @return List of all matching keys in the MappedTrie
+     *
+     * @see #listKeysMatching(String)
+     */
+    public List<String> listKeysMatching(String prefix, int maxMatches) {
+        List<String> list = new ArrayList<>();
+        int node = findNode(prefix);
+
+        if (node >= 0) {
+            listKeysHelper(node, list, new StringBuilder(prefix), maxMatches);
+        }
+        return list;
+    }
+
+    // ---
+    private static UncheckedIOException corruptValue(String key) {
+        return new UncheckedIOException(new IOException("Trie file is corrupt, the value of [" + key + "] lies outside of it."));
+    }
+
+    private void listKeysHelper(int node, List<String> list, StringBuilder stringAssembler, int maxMatches) {
+        if (maxMatches != -1 && list.size() >= maxMatches) return;
+
+        if (isTerminal(node)) list.add(stringAssembler.toString());
+
+        int end = childStart(node + 1);
+        for (int child = childStart(node); child < end; child++) {
+            listKeysHelper(child, list, stringAssembler.append(label(child)), maxMatches);
+            stringAssembler.setLength(stringAssembler.length() - 1);
+        }
+    }
+
+    private int findNode(String key) {
+        if (nodeCount == 0) return -1;
+        int node = 0;
+
+        for (int i = 0; i < key.length(); i++) {
+            node = findChild(node, key.charAt(i));
+            if (node < 0) {
+                return -1;
+            }
+        }
+
+        return node;
+    }
+
+    private int findChild(int node, char c) {
+        int low = childStart(node);
+        int high = childStart(node + 1) - 1;
+
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            char label = label(mid);
+
+            if (label < c) {
+                low = mid + 1;
+            } else if (label > c) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+
+        return -1;
+    }
+
+    private int childStart(int node) {
+        return buffer.getInt(childStartOffset + node * Integer.BYTES);
+    }
+
+    private char label(int node) {
+        return buffer.getChar(labelsOffset + node * Character.BYTES);
+    }
+
+    private boolean isTerminal(int node) {
+        return (buffer.getLong(terminalOffset + (node >>> 6) * Long.BYTES) & (1L << node)) != 0;
+    }
+
+    private int rank(int node) {
+        long word = buffer.getLong(terminalOffset + (node >>> 6) * Long.BYTES);
+        return buffer.getInt(terminalRankOffset + (node >>> 6) * Integer.BYTES)
+                + Long.bitCount(word & ((1L << node) - 1));
+    }
+    // ---
+}
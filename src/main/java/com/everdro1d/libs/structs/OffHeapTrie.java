@@ -0,0 +1,470 @@
+// dro1dDev - created: 2026-10-16
+
+/* Reference materials:
+ * https://en.wikipedia.org/wiki/Left-child_right-sibling_binary_tree
+ * https://docs.oracle.com/en/java/javase/21/docs/api/java.base/java/nio/ByteBuffer.html#direct
+ */
+
+package com.everdro1d.libs.structs;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.*;
+
+/**
+ * A Trie that keeps its nodes outside the Java heap, for indexes with tens of millions of keys.
+ * <p>Nodes are fixed-size records in direct {@link ByteBuffer} chunks, so the garbage collector only
+ * sees a handful of buffer objects instead of one object per node. Each record holds the node's
+ * UTF-16 edge character, its first child and its next sibling (children are a linked list sorted by
+ * character) and a 64-bit payload:</p>
+ * <ul>
+ *     <li>primitive {@code long} values, stored with {@link #insertLong(String, long)}, live in the payload itself</li>
+ *     <li>object values, stored with {@link #insert(String, Object)}, live in an on-heap side table and
+ *         the payload holds their handle</li>
+ * </ul>
+ * <p>Call {@link #close()} when done with the Trie. The chunks are released once their buffer objects are
+ * collected, which is cheap since there are only a few of them.</p>
+ * <p>This class is not thread-safe.</p>
+ * <p><strong>Example:</strong></p>
+ * <blockquote><pre>
+ * try (OffHeapTrie&lt;Void&gt; index = new OffHeapTrie&lt;&gt;()) {
+ *     index.insertLong("/usr/lib/libc.so", 4096L);
+ *     index.getLong("/usr/lib/libc.so", -1); // 4096
+ *     index.listKeysMatching("/usr/");
+ * }
+ * </pre></blockquote>
+ *
+ * @param <T> the type of object value stored in the side table
+ * @see Trie
+ */
+public class OffHeapTrie<T> implements AutoCloseable {
+    // record layout, in bytes
+    private static final int PAYLOAD = 0;
+    private static final int FIRST_CHILD = 8;
+    private static final int NEXT_SIBLING = 12;
+    private static final int LABEL = 16;
+    private static final int FLAGS = 18;
+    private static final int NODE_BYTES = 20;
+
+    private static final short FLAG_TERMINAL = 1;
+    private static final short FLAG_HANDLE = 2;
+    private static final short FLAG_LONG = 4;
+
+    private static final int CHUNK_SHIFT = 16;
+    private static final int CHUNK_NODES = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_NODES - 1;
+
+    /**
+     * Node id meaning "no node". The root is never anyone's child or sibling, so it can double as this.
+     */
+    private static final int NONE = 0;
+    private static final int ROOT = 0;
+
+    private List<ByteBuffer> chunks = new ArrayList<>();
+    private int nodeCount;
+
+    /**
+     * Removed nodes, linked through their next sibling field.
+     */
+    private int freeNode = NONE;
+
+    private List<T> sideTable = new ArrayList<>();
+    private final ArrayDeque<Integer> freeHandles = new ArrayDeque<>();
+
+    private int size;
+    private boolean closed;
+
+    /**
+     * Creates a new, empty OffHeapTrie.
+     */
+    public OffHeapTrie() {
+        allocateNode('\0');
+    }
+
+    /**
+     * Inserts the given key into the OffHeapTrie, creating nodes where necessary.
+     * <p>If the key already exists, its value is cleared.</p>
+     * @param key key to insert
+     */
+    public void insert(String key) {
+        int node = findOrCreateNode(key);
+        releaseHandle(node);
+        setPayload(node, 0, FLAG_TERMINAL);
+    }
+
+    /**
+     * Inserts the given key with an object value, which is kept in the on-heap side table.
+     * @param key key to insert
+     * @param value value to associate with the key
+     */
+    public void insert(String key, T value) {
+        int node = findOrCreateNode(key);
+
+        if (hasHandle(node)) {
+            sideTable.set((int) payload(node), value);
+            return;
+        }
+
+        int handle;
+        if (freeHandles.isEmpty()) {
+            handle = sideTable.size();
+            sideTable.add(value);
+        } else {
+            handle = freeHandles.pop();
+            sideTable.set(handle, value);
+        }
+        setPayload(node, handle, (short) (FLAG_TERMINAL | FLAG_HANDLE));
+    }
+
+    /**
+     * Inserts the given key with a primitive value, which is stored off-heap in the node itself.
+     * <p>This is not an overload of {@link #insert(String, Object)}, a boxed {@code Long} or {@code Integer}
+     * value would otherwise silently be stored as a primitive.</p>
+     * @param key key to insert
+     * @param value value to associate with the key
+     * @see #getLong(String, long)
+     */
+    public void insertLong(String key, long value) {
+        int node = findOrCreateNode(key);
+        releaseHandle(node);
+        setPayload(node, value, (short) (FLAG_TERMINAL | FLAG_LONG));
+    }
+
+    /**
+     * Checks if the given key exists in the tree.
+     * @param key key to check for
+     * @return true if the key exists
+     */
+    public boolean contains(String key) {
+        int node = findNode(key);
+        return node >= 0 && isTerminal(node);
+    }
+
+    /**
+     * Checks if any keys in the tree start with the given prefix.
+     * @param prefix prefix to check for
+     * @return true if any key starts with or matches the prefix
+     */
+    public boolean startsWith(String prefix) {
+        return findNode(prefix) >= 0;
+    }
+
+    /**
+     * Get the object value of a key in the OffHeapTrie.
+     * @param key the key to search for
+     * @return the value associated with the key, or null if the key does not exist or has a primitive value
+     * @see #getLong(String, long)
+     */
+    public T get(String key) {
+        int node = findNode(key);
+        return (node >= 0 && hasHandle(node)) ? sideTable.get((int) payload(node)) : null;
+    }
+
+    /**
+     * Get the primitive value of a key in the OffHeapTrie.
+     * @param key the key to search for
+     * @param defaultValue value to return if there is no primitive value for the key
+     * @return the value associated with the key, or defaultValue if the key does not exist or has no primitive value
+     * @see #get(String)
+     */
+    public long getLong(String key, long defaultValue) {
+        int node = findNode(key);
+        return (node >= 0 && hasLong(node)) ? payload(node) : defaultValue;
+    }
+
+    /**
+     * Removes a key from the OffHeapTrie. Nodes that no longer lead to any key are reused by later inserts.
+     * @param key the key to remove
+     * @return true if the key was removed, false if it did not exist
+     */
+    public boolean remove(String key) {
+        checkOpen();
+        int[] path = new int[key.length() + 1];
+        int node = ROOT;
+
+        for (int i = 0; i < key.length(); i++) {
+            node = findChild(node, key.charAt(i));
+            if (node < 0) return false;
+            path[i + 1] = node;
+        }
+        if (!isTerminal(node)) return false;
+
+        releaseHandle(node);
+        setPayload(node, 0, (short) 0);
+        size--;
+
+        // unlink the nodes that are now dead ends, from the bottom up
+        for (int depth = key.length(); depth > 0; depth--) {
+            int current = path[depth];
+            if (isTerminal(current) || firstChild(current) != NONE) break;
+
+            unlinkChild(path[depth - 1], current);
+            setInt(current, NEXT_SIBLING, freeNode);
+            freeNode = current;
+        }
+        return true;
+    }
+
+    /**
+     * Gets the number of keys in the OffHeapTrie.
+     * @return number of keys
+     */
+    public int size() {
+        checkOpen();
+        return size;
+    }
+
+    /**
+     * Checks if the OffHeapTrie is empty.
+     * @return true if there are no keys, else false.
+     */
+    public boolean isEmpty() {
+        checkOpen();
+        return size == 0;
+    }
+
+    /**
+     * Gets the number of bytes of off-heap memory held by the node chunks.
+     * @return allocated off-heap bytes
+     */
+    public long offHeapBytes() {
+        return (long) chunks.size() * CHUNK_NODES * NODE_BYTES;
+    }
+
+    /**
+     * Removes all keys from the OffHeapTrie. The chunks are kept and reused.
+     */
+    public void clear() {
+        checkOpen();
+        nodeCount = 0;
+        freeNode = NONE;
+        size = 0;
+        sideTable.clear();
+        freeHandles.clear();
+        allocateNode('\0');
+    }
+
+    /**
+     * Releases the off-heap memory of the OffHeapTrie. Any use after this throws {@link IllegalStateException}.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        chunks = List.of();
+        sideTable = List.of();
+        freeHandles.clear();
+        nodeCount = 0;
+        size = 0;
+    }
+
+    /**
+     * List the keys in an OffHeapTrie.
+     * @return A list of all the keys in the OffHeapTrie
+     */
+    public List<String> listKeys() {
+        return listKeysMatching("");
+    }
+
+    /**
+     * List the keys in an OffHeapTrie that match the prefix.
+     *
+     * @param prefix prefix to match
+     * @return List of all matching keys in the OffHeapTrie
+     *
+     * @see #listKeysMatching(String, int)
+     */
+    public List<String> listKeysMatching(String prefix) {
+        return listKeysMatching(prefix, -1);
+    }
+
+    /**
+     * List the keys in an OffHeapTrie that match the prefix with a limit on the number of matches.
+     * Keys are visited in lexicographic order.
+     *
+     * @param prefix prefix to match
+     * @param maxMatches maximum number of matches to return
+     * @return List of all matching keys in the OffHeapTrie
+     *
+     * @see #listKeysMatching(String)
+     */
+    public List<String> listKeysMatching(String prefix, int maxMatches) {
+        List<String> list = new ArrayList<>();
+        int node = findNode(prefix);
+
+        if (node >= 0) {
+            listKeysHelper(node, list, new StringBuilder(prefix), maxMatches);
+        }
+        return list;
+    }
+
+    // ---
+    private void listKeysHelper(int node, List<String> list, StringBuilder stringAssembler, int maxMatches) {
+        if (maxMatches != -1 && list.size() >= maxMatches) return;
+
+        if (isTerminal(node)) list.add(stringAssembler.toString());
+
+        for (int child = firstChild(node); child != NONE; child = nextSibling(child)) {
+            listKeysHelper(child, list, stringAssembler.append(label(child)), maxMatches);
+            stringAssembler.setLength(stringAssembler.length() - 1);
+        }
+    }
+
+    private int findNode(String key) {
+        checkOpen();
+        int node = ROOT;
+
+        for (int i = 0; i < key.length(); i++) {
+            node = findChild(node, key.charAt(i));
+            if (node < 0) {
+                return -1;
+            }
+        }
+
+        return node;
+    }
+
+    private int findChild(int node, char c) {
+        for (int child = firstChild(node); child != NONE; child = nextSibling(child)) {
+            char label = label(child);
+            if (label == c) return child;
+            if (label > c) break;
+        }
+        return -1;
+    }
+
+    private int findOrCreateNode(String key) {
+        checkOpen();
+        int node = ROOT;
+
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+
+            // find the child, or the sibling to link a new child after
+            int previous = NONE;
+            int child = firstChild(node);
+            while (child != NONE && label(child) < c) {
+                previous = child;
+                child = nextSibling(child);
+            }
+
+            if (child == NONE || label(child) != c) {
+                int created = allocateNode(c);
+                setInt(created, NEXT_SIBLING, child);
+                if (previous == NONE) {
+                    setInt(node, FIRST_CHILD, created);
+                } else {
+                    setInt(previous, NEXT_SIBLING, created);
+                }
+                child = created;
+            }
+            node = child;
+        }
+
+        if (!isTerminal(node)) size++;
+        return node;
+    }
+
+    private void unlinkChild(int parent, int child) {
+        int current = firstChild(parent);
+        if (current == child) {
+            setInt(parent, FIRST_CHILD, nextSibling(child));
+            return;
+        }
+
+        while (nextSibling(current) != child) {
+            current = nextSibling(current);
+        }
+        setInt(current, NEXT_SIBLING, nextSibling(child));
+    }
+
+    private int allocateNode(char label) {
+        int node;
+        if (freeNode != NONE) {
+            node = freeNode;
+            freeNode = nextSibling(node);
+        } else {
+            if (nodeCount == Integer.MAX_VALUE) {
+                throw new IllegalStateException("OffHeapTrie is full.");
+            }
+            node = nodeCount++;
+            if ((node >>> CHUNK_SHIFT) == chunks.size()) {
+                chunks.add(ByteBuffer.allocateDirect(CHUNK_NODES * NODE_BYTES).order(ByteOrder.nativeOrder()));
+            }
+        }
+
+        ByteBuffer chunk = chunk(node);
+        int offset = offset(node);
+        chunk.putLong(offset + PAYLOAD, 0);
+        chunk.putInt(offset + FIRST_CHILD, NONE);
+        chunk.putInt(offset + NEXT_SIBLING, NONE);
+        chunk.putChar(offset + LABEL, label);
+        chunk.putShort(offset + FLAGS, (short) 0);
+        return node;
+    }
+
+    private void releaseHandle(int node) {
+        if (hasHandle(node)) {
+            int handle = (int) payload(node);
+            sideTable.set(handle, null);
+            freeHandles.push(handle);
+        }
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("OffHeapTrie is closed.");
+        }
+    }
+
+    private ByteBuffer chunk(int node) {
+        return chunks.get(node >>> CHUNK_SHIFT);
+    }
+
+    private static int offset(int node) {
+        return (node & CHUNK_MASK) * NODE_BYTES;
+    }
+
+    private int firstChild(int node) {
+        return chunk(node).getInt(offset(node) + FIRST_CHILD);
+    }
+
+    private int nextSibling(int node) {
+        return chunk(node).getInt(offset(node) + NEXT_SIBLING);
+    }
+
+    private char label(int node) {
+        return chunk(node).getChar(offset(node) + LABEL);
+    }
+
+    private long payload(int node) {
+        return chunk(node).getLong(offset(node) + PAYLOAD);
+    }
+
+    private short flags(int node) {
+        return chunk(node).getShort(offset(node) + FLAGS);
+    }
+
+    private boolean isTerminal(int node) {
+        return (flags(node) & FLAG_TERMINAL) != 0;
+    }
+
+    private boolean hasHandle(int node) {
+        return (flags(node) & FLAG_HANDLE) != 0;
+    }
+
+    private boolean hasLong(int node) {
+        return (flags(node) & FLAG_LONG) != 0;
+    }
+
+    private void setInt(int node, int field, int value) {
+        chunk(node).putInt(offset(node) + field, value);
+    }
+
+    private void setPayload(int node, long payload, short flags) {
+        ByteBuffer chunk = chunk(node);
+        int offset = offset(node);
+        chunk.putLong(offset + PAYLOAD, payload);
+        chunk.putShort(offset + FLAGS, flags);
+    }
+    // ---
+}
@@ -0,0 +1,370 @@
+// dro1dDev - created: 2026-10-16
+
+/* Reference materials:
+ * https://en.wikipedia.org/wiki/Persistent_data_structure#Path_copying
+ */
+
+package com.everdro1d.libs.structs;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+
+/**
+ * An immutable Trie where every change returns a new PersistentTrie.
+ * <p>Changes copy only the nodes on the path to the changed key, every other subtree is shared
+ * with the previous version. Old versions stay valid and unchanged, so a reader holding one
+ * never sees a half-applied update and never needs a lock.</p>
+ * <p>Use a {@link Holder} to share the current version between threads. Writers publish a new
+ * version with a single atomic write, readers just take the current one.</p>
+ * <p><strong>Example:</strong></p>
+ * <blockquote><pre>
+ * PersistentTrie.Holder&lt;String&gt; commands = new PersistentTrie.Holder&lt;&gt;();
+ *
+ * // writer
+ * commands.update(trie -&gt; trie.insert("-debug", "Enable debug logging"));
+ *
+ * // any reader, e.g. on the EDT
+ * PersistentTrie&lt;String&gt; snapshot = commands.get();
+ * snapshot.listKeysMatching("-d");
+ * </pre></blockquote>
+ *
+ * @param <T> the type of value stored in the PersistentTrie
+ * @see Trie
+ */
+public final class PersistentTrie<T> {
+
+    private static final class Node<T> {
+        private static final char[] NO_KEYS = new char[0];
+
+        final boolean isEndOfWord;
+        final T value;
+
+        /**
+         * Characters of the children, sorted, parallel to {@link #children}.
+         */
+        final char[] keys;
+        final Node<T>[] children;
+
+        private Node(boolean isEndOfWord, T value, char[] keys, Node<T>[] children) {
+            this.isEndOfWord = isEndOfWord;
+            this.value = value;
+            this.keys = keys;
+            this.children = children;
+        }
+
+        private Node<T> getChild(char c) {
+            int index = Arrays.binarySearch(keys, c);
+            return index >= 0 ? children[index] : null;
+        }
+
+        private Node<T> withValue(boolean isEndOfWord, T value) {
+            return new Node<>(isEndOfWord, value, keys, children);
+        }
+
+        /**
+         * Copies the node with the child for the given character replaced, added, or removed if child is null.
+         */
+        private Node<T> withChild(char c, Node<T> child) {
+            int index = Arrays.binarySearch(keys, c);
+
+            if (index >= 0) {
+                if (child != null) {
+                    Node<T>[] newChildren = children.clone();
+                    newChildren[index] = child;
+                    return new Node<>(isEndOfWord, value, keys, newChildren);
+                }
+
+                char[] newKeys = new char[keys.length - 1];
+                Node<T>[] newChildren = newNodeArray(keys.length - 1);
+                System.arraycopy(keys, 0, newKeys, 0, index);
+                System.arraycopy(children, 0, newChildren, 0, index);
+                System.arraycopy(keys, index + 1, newKeys, index, keys.length - index - 1);
+                System.arraycopy(children, index + 1, newChildren, index, keys.length - index - 1);
+                return new Node<>(isEndOfWord, value, newKeys, newChildren);
+            }
+
+            if (child == null) return this;
+
+            index = -(index + 1);
+            char[] newKeys = new char[keys.length + 1];
+            Node<T>[] newChildren = newNodeArray(keys.length + 1);
+            System.arraycopy(keys, 0, newKeys, 0, index);
+            System.arraycopy(children, 0, newChildren, 0, index);
+            newKeys[index] = c;
+            newChildren[index] = child;
+            System.arraycopy(keys, index, newKeys, index + 1, keys.length - index);
+            System.arraycopy(children, index, newChildren, index + 1, keys.length - index);
+            return new Node<>(isEndOfWord, value, newKeys, newChildren);
+        }
+
+        private boolean isDeadEnd() {
+            return !isEndOfWord && keys.length == 0;
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private static <T> Node<T>[] newNodeArray(int length) {
+            return (Node<T>[]) new Node[length];
+        }
+    }
+
+    @SuppressWarnings("rawtypes")
+    private static final PersistentTrie EMPTY =
+            new PersistentTrie<>(new Node<>(false, null, Node.NO_KEYS, Node.newNodeArray(0)), 0);
+
+    private final Node<T> root;
+    private final int size;
+
+    private PersistentTrie(Node<T> root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    /**
+     * Gets the empty PersistentTrie.
+     * @param <T> the type of value stored in the PersistentTrie
+     * @return a PersistentTrie without any keys
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> PersistentTrie<T> empty() {
+        return (PersistentTrie<T>) EMPTY;
+    }
+
+    /**
+     * Returns a PersistentTrie that also contains the given key, without a value.
+     * @param key key to insert
+     * @return the new PersistentTrie, this one is unchanged
+     */
+    public PersistentTrie<T> insert(String key) {
+        return insert(key, null);
+    }
+
+    /**
+     * Returns a PersistentTrie that also contains the given key-value pair.
+     * If the key already exists, its value is replaced in the new PersistentTrie.
+     * @param key key to insert
+     * @param value value to associate with the key
+     * @return the new PersistentTrie, this one is unchanged
+     */
+    public PersistentTrie<T> insert(String key, T value) {
+        boolean added = !contains(key);
+        return new PersistentTrie<>(insertHelper(root, key, 0, value), added ? size + 1 : size);
+    }
+
+    /**
+     * Returns a PersistentTrie that also contains all the key-value pairs in the map.
+     * @param map map of key-value pairs to insert
+     * @return the new PersistentTrie, this one is unchanged
+     */
+    public PersistentTrie<T> insert(Map<String, T> map) {
+        PersistentTrie<T> trie = this;
+        for (Map.Entry<String, T> entry : map.entrySet()) {
+            trie = trie.insert(entry.getKey(), entry.getValue());
+        }
+        return trie;
+    }
+
+    /**
+     * Returns a PersistentTrie without the given key.
+     * @param key key to remove
+     * @return the new PersistentTrie, or this one if the key did not exist
+     */
+    public PersistentTrie<T> remove(String key) {
+        if (!contains(key)) return this;
+
+        Node<T> newRoot = removeHelper(root, key, 0);
+        return new PersistentTrie<>(newRoot != null ? newRoot : PersistentTrie.<T>empty().root, size - 1);
+    }
+
+    /**
+     * Checks if the given key exists in the tree.
+     * @param key key to check for
+     * @return true if the key exists
+     */
+    public boolean contains(String key) {
+        Node<T> node = findNode(key);
+        return node != null && node.isEndOfWord;
+    }
+
+    /**
+     * Checks if any keys in the tree start with the given prefix.
+     * @param prefix prefix to check for
+     * @return true if any key starts with or matches the prefix
+     */
+    public boolean startsWith(String prefix) {
+        return findNode(prefix) != null;
+    }
+
+    /**
+     * Get the value of a key in the PersistentTrie.
+     * @param key the key to search for
+     * @return the value associated with the key, or null if the key does not exist
+     */
+    public T get(String key) {
+        Node<T> node = findNode(key);
+        return node != null && node.isEndOfWord ? node.value : null;
+    }
+
+    /**
+     * Gets the number of keys in the PersistentTrie.
+     * @return number of keys
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks if the PersistentTrie is empty.
+     * @return true if there are no keys, else false.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * List the keys in a PersistentTrie.
+     * @return A list of all the keys in the PersistentTrie
+     */
+    public List<String> listKeys() {
+        return listKeysMatching("");
+    }
+
+    /**
+     * List the keys in a PersistentTrie that match the prefix.
+     *
+     * @param prefix prefix to match
+     * @return List of all matching keys in the PersistentTrie
+     *
+     * @see #listKeysMatching(String, int)
+     */
+    public List<String> listKeysMatching(String prefix) {
+        return listKeysMatching(prefix, -1);
+    }
+
+    /**
+     * List the keys in a PersistentTrie that match the prefix with a limit on the number of matches.
+     * Keys are visited in lexicographic order.
+     *
+     * @param prefix prefix to match
+     * @param maxMatches maximum number of matches to return
+     * @return List of all matching keys in the PersistentTrie
+     *
+     * @see #listKeysMatching(String)
+     */
+    public List<String> listKeysMatching(String prefix, int maxMatches) {
+        List<String> list = new ArrayList<>();
+        Node<T> node = findNode(prefix);
+
+        if (node != null) {
+            listKeysHelper(node, list, new StringBuilder(prefix), maxMatches);
+        }
+        return list;
+    }
+
+    // ---
+    private Node<T> findNode(String key) {
+        Node<T> currentNode = root;
+
+        for (int i = 0; i < key.length() && currentNode != null; i++) {
+            currentNode = currentNode.getChild(key.charAt(i));
+        }
+
+        return currentNode;
+    }
+
+    private Node<T> insertHelper(Node<T> node, String key, int index, T value) {
+        if (index == key.length()) {
+            return node.withValue(true, value);
+        }
+
+        char c = key.charAt(index);
+        Node<T> child = node.getChild(c);
+        if (child == null) {
+            child = PersistentTrie.<T>empty().root;
+        }
+        return node.withChild(c, insertHelper(child, key, index + 1, value));
+    }
+
+    /**
+     * Copies the path to the key without it.
+     * @return the new node, or null if the node is no longer needed
+     */
+    private Node<T> removeHelper(Node<T> node, String key, int index) {
+        Node<T> newNode;
+
+        if (index == key.length()) {
+            newNode = node.withValue(false, null);
+        } else {
+            char c = key.charAt(index);
+            newNode = node.withChild(c, removeHelper(node.getChild(c), key, index + 1));
+        }
+
+        return newNode.isDeadEnd() ? null : newNode;
+    }
+
+    private void listKeysHelper(Node<T> node, List<String> list, StringBuilder stringAssembler, int maxMatches) {
+        if (maxMatches != -1 && list.size() >= maxMatches) return;
+
+        if (node.isEndOfWord) list.add(stringAssembler.toString());
+
+        for (int i = 0; i < node.keys.length; i++) {
+            listKeysHelper(node.children[i], list, stringAssembler.append(node.keys[i]), maxMatches);
+            stringAssembler.setLength(stringAssembler.length() - 1);
+        }
+    }
+    // ---
+
+    /**
+     * Publishes the current version of a {@link PersistentTrie} to any number of threads.
+     * <p>{@link #get()} is a single volatile read, so readers never block. Writers compute the
+     * new version from the current one and swap it in atomically, retrying if another writer
+     * got there first.</p>
+     *
+     * @param <T> the type of value stored in the PersistentTrie
+     */
+    public static final class Holder<T> {
+        private final AtomicReference<PersistentTrie<T>> current;
+
+        /**
+         * Creates a Holder of an empty PersistentTrie.
+         */
+        public Holder() {
+            this(PersistentTrie.empty());
+        }
+
+        /**
+         * Creates a Holder of the given PersistentTrie.
+         * @param initial the first version to publish
+         */
+        public Holder(PersistentTrie<T> initial) {
+            current = new AtomicReference<>(Objects.requireNonNull(initial));
+        }
+
+        /**
+         * Gets the current version. It never changes, later updates publish new versions.
+         * @return the current PersistentTrie
+         */
+        public PersistentTrie<T> get() {
+            return current.get();
+        }
+
+        /**
+         * Publishes a new version computed from the current one.
+         * <p>The function may be called more than once if other threads update at the same time,
+         * so it should have no side effects.</p>
+         * @param function computes the new version from the current one, e.g. {@code trie -> trie.insert(key, value)}
+         * @return the version that was published
+         */
+        public PersistentTrie<T> update(UnaryOperator<PersistentTrie<T>> function) {
+            return current.updateAndGet(function);
+        }
+
+        /**
+         * Publishes the given version, replacing the current one.
+         * @param trie the new version
+         */
+        public void set(PersistentTrie<T> trie) {
+            current.set(Objects.requireNonNull(trie));
+        }
+    }
+}
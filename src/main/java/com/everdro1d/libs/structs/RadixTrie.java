@@ -0,0 +1,516 @@
+// dro1dDev - created: 2026-10-16
+
+/* Reference materials:
+ * https://en.wikipedia.org/wiki/Radix_tree
+ * https://www.geeksforgeeks.org/compressed-tries/
+ */
+
+package com.everdro1d.libs.structs;
+
+import java.util.*;
+
+/**
+ * A path-compressed (radix / Patricia) variant of {@link Trie}.
+ * <p>Instead of one node per character, every edge is labeled with a string segment,
+ * and a node only exists where keys branch or end. Keys with long shared prefixes such as
+ * file paths or locale keys ({@code BasicSettingsWindow.Defaults.x}) are stored in a
+ * handful of nodes, saving memory and a pointer hop for every character of the key.</p>
+ * <p>Edges are split when an inserted key diverges in the middle of a label, and merged back
+ * together when a removal leaves a node that neither ends a key nor branches.</p>
+ * <p>The public API matches {@link Trie}.</p>
+ *
+ * @param <T> the type of value stored in the RadixTrie
+ * @see Trie
+ */
+public class RadixTrie<T> {
+
+    private static class RadixNode<T> {
+        /**
+         * Denotes whether this node is the end of a key in the RadixTrie.
+         */
+        boolean isEndOfWord;
+
+        /**
+         * The string segment on the edge leading into this node.
+         */
+        String label;
+
+        T value;
+
+        /**
+         * First character of each child's label, sorted. Parallel to {@link #children}.
+         */
+        char[] firstChars;
+
+        RadixNode<T>[] children;
+
+        int childCount;
+
+        RadixNode(String label) {
+            this.label = label;
+        }
+
+        /**
+         * Checks whether the node has any children.
+         * @return false if node has any children, true otherwise
+         */
+        private boolean isEmpty() {
+            return childCount == 0;
+        }
+
+        /**
+         * Finds the child whose label starts with the given character.
+         * @param c first character of the label
+         * @return the child node, or null if there is none
+         */
+        private RadixNode<T> getChild(char c) {
+            int index = indexOf(c);
+            return index >= 0 ? children[index] : null;
+        }
+
+        private int indexOf(char c) {
+            return childCount == 0 ? -1 : Arrays.binarySearch(firstChars, 0, childCount, c);
+        }
+
+        /**
+         * Adds a child node, or replaces the child whose label starts with the same character.
+         * @param child node to add
+         */
+        private void putChild(RadixNode<T> child) {
+            char c = child.label.charAt(0);
+            int index = indexOf(c);
+            if (index >= 0) {
+                children[index] = child;
+                return;
+            }
+
+            index = -(index + 1);
+            if (childCount == 0) {
+                firstChars = new char[2];
+                children = newNodeArray(2);
+            } else if (childCount == firstChars.length) {
+                firstChars = Arrays.copyOf(firstChars, childCount * 2);
+                children = Arrays.copyOf(children, childCount * 2);
+            }
+            System.arraycopy(firstChars, index, firstChars, index + 1, childCount - index);
+            System.arraycopy(children, index, children, index + 1, childCount - index);
+            firstChars[index] = c;
+            children[index] = child;
+            childCount++;
+        }
+
+        private void removeChild(char c) {
+            int index = indexOf(c);
+            if (index < 0) return;
+
+            System.arraycopy(firstChars, index + 1, firstChars, index, childCount - index - 1);
+            System.arraycopy(children, index + 1, children, index, childCount - index - 1);
+            children[--childCount] = null;
+            if (childCount == 0) {
+                firstChars = null;
+                children = null;
+            }
+        }
+
+        /**
+         * Absorbs the only child of this node, concatenating the labels.
+         */
+        private void mergeWithOnlyChild() {
+            RadixNode<T> child = children[0];
+            label = label + child.label;
+            isEndOfWord = child.isEndOfWord;
+            value = child.value;
+            firstChars = child.firstChars;
+            children = child.children;
+            childCount = child.childCount;
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private static <T> RadixNode<T>[] newNodeArray(int length) {
+            return (RadixNode<T>[]) new RadixNode[length];
+        }
+    }
+
+    /**
+     * Root node of the RadixTrie, its label is always empty.
+     */
+    RadixNode<T> root;
+
+    /**
+     * Creates a new RadixTrie without any values.
+     */
+    public RadixTrie() {
+        root = new RadixNode<>("");
+    }
+
+    /**
+     * Creates a new RadixTrie containing the keys given in the list.
+     * @param list list of key the tree should be init with
+     */
+    public RadixTrie(List<String> list) {
+        root = new RadixNode<>("");
+        insert(list);
+    }
+
+    /**
+     * Creates a new RadixTrie containing the key-value pairs given in the map.
+     * @param map map of key-value pairs the tree should be init with
+     */
+    public RadixTrie(Map<String, T> map) {
+        root = new RadixNode<>("");
+        insert(map);
+    }
+
+    /**
+     * Inserts the given key into the RadixTrie, splitting edges where necessary.
+     * @param key key to insert
+     */
+    public void insert(String key) {
+        insert(key, null);
+    }
+
+    /**
+     * Inserts the given key-value pair into the RadixTrie, splitting edges where necessary.
+     * @param key key to insert
+     * @param value value to associate with the key
+     */
+    public void insert(String key, T value) {
+        RadixNode<T> currentNode = root;
+        int index = 0;
+
+        while (index < key.length()) {
+            RadixNode<T> childNode = currentNode.getChild(key.charAt(index));
+
+            if (childNode == null) {
+                RadixNode<T> leaf = new RadixNode<>(key.substring(index));
+                leaf.isEndOfWord = true;
+                leaf.value = value;
+                currentNode.putChild(leaf);
+                return;
+            }
+
+            String label = childNode.label;
+            int common = commonPrefixLength(label, key, index);
+
+            if (common < label.length()) {
+                // key diverges inside the label, split the edge at that point
+                RadixNode<T> splitNode = new RadixNode<>(label.substring(0, common));
+                childNode.label = label.substring(common);
+                splitNode.putChild(childNode);
+                currentNode.putChild(splitNode);
+                childNode = splitNode;
+            }
+
+            currentNode = childNode;
+            index += common;
+        }
+
+        currentNode.isEndOfWord = true;
+        currentNode.value = value;
+    }
+
+    /**
+     * Inserts the list of keys into the RadixTrie, splitting edges where necessary.
+     * @param list the list of keys to insert
+     */
+    public void insert(List<String> list) {
+        for (String key : list) {
+            insert(key);
+        }
+    }
+
+    /**
+     * Inserts a map of key-value pairs into the RadixTrie, splitting edges where necessary.
+     * @param map the map of key-value pairs to insert
+     */
+    public void insert(Map<String, T> map) {
+        for (Map.Entry<String, T> entry : map.entrySet()) {
+            insert(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Checks if the given key exists in the tree.
+     * @param key key to check for
+     * @return true if the key ends exactly on a node that is EOW.
+     */
+    public boolean contains(String key) {
+        RadixNode<T> node = findNode(key);
+        return node != null && node.isEndOfWord;
+    }
+
+    /**
+     * Checks if any of the given keys exist in the tree.
+     * @param list the list of keys to check for
+     * @return true if any key in the list exists in the RadixTrie.
+     */
+    public boolean containsAny(List<String> list) {
+        for (String key : list) {
+            if (contains(key)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Checks if all the given keys exist in the tree.
+     * @param list the list of keys to check for
+     * @return true if all keys in the list exist in the RadixTrie.
+     */
+    public boolean containsAll(List<String> list) {
+        for (String key : list) {
+            if (!contains(key)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Checks if any keys in the tree start with the given prefix.
+     * @param prefix prefix to check for
+     * @return true if any key starts with or matches the prefix
+     */
+    public boolean startsWith(String prefix) {
+        RadixNode<T> currentNode = root;
+        int index = 0;
+
+        while (index < prefix.length()) {
+            RadixNode<T> childNode = currentNode.getChild(prefix.charAt(index));
+            if (childNode == null) {
+                return false;
+            }
+
+            int common = commonPrefixLength(childNode.label, prefix, index);
+            if (common < childNode.label.length()) {
+                // prefix may end in the middle of the label
+                return index + common == prefix.length();
+            }
+
+            currentNode = childNode;
+            index += common;
+        }
+
+        return true;
+    }
+
+    // ---
+    /**
+     * Finds the node at which the given key ends exactly.
+     * @param key key to search for
+     * @return the node, or null if the key does not end on a node
+     */
+    private RadixNode<T> findNode(String key) {
+        RadixNode<T> currentNode = root;
+        int index = 0;
+
+        while (index < key.length()) {
+            currentNode = currentNode.getChild(key.charAt(index));
+
+            if (currentNode == null || !key.startsWith(currentNode.label, index)) {
+                return null;
+            }
+
+            index += currentNode.label.length();
+        }
+
+        return currentNode;
+    }
+
+    private static int commonPrefixLength(String label, String key, int keyOffset) {
+        int max = Math.min(label.length(), key.length() - keyOffset);
+        int i = 0;
+        while (i < max && label.charAt(i) == key.charAt(keyOffset + i)) {
+            i++;
+        }
+        return i;
+    }
+    // ---
+
+    /**
+     * Checks if the RadixTrie is empty.
+     * @return true if the root node has no children, else false.
+     */
+    public boolean isEmpty() {
+        return root.isEmpty() && !root.isEndOfWord;
+    }
+
+    /**
+     * Clears all the keys from the RadixTrie.
+     */
+    public void clear() {
+        root = new RadixNode<>("");
+    }
+
+    /**
+     * Removes the given key from the RadixTrie, merging edges that no longer branch.
+     * @param key key to remove
+     * @return true if the key was removed, false otherwise (including key does not exist)
+     */
+    public boolean remove(String key) {
+        return removeHelper(null, root, key, 0);
+    }
+
+    /**
+     * Removes all keys in a given list from the RadixTrie
+     * @param list list of keys to remove
+     * @return true if none of the given keys exist in the RadixTrie, false otherwise
+     */
+    public boolean removeAll(List<String> list) {
+        for (String key : list) {
+            remove(key);
+        }
+
+        return !containsAny(list);
+    }
+
+    // ---
+    /**
+     * Helper method for remove. Recursively removes the key and restores the compressed shape on the way up.
+     * @param parentNode parent of the current node, null for the root
+     * @param currentNode current node in the RadixTrie
+     * @param key key to remove
+     * @param index index in the key just past the current node's label
+     * @return true if the key was removed, false otherwise
+     */
+    private boolean removeHelper(RadixNode<T> parentNode, RadixNode<T> currentNode, String key, int index) {
+        if (index == key.length()) {
+            if (!currentNode.isEndOfWord) {
+                return false; // key does not exist
+            }
+            currentNode.isEndOfWord = false;
+            currentNode.value = null;
+
+        } else {
+            RadixNode<T> childNode = currentNode.getChild(key.charAt(index));
+            if (childNode == null || !key.startsWith(childNode.label, index)) {
+                return false; // key does not exist
+            }
+
+            if (!removeHelper(currentNode, childNode, key, index + childNode.label.length())) {
+                return false;
+            }
+        }
+
+        if (parentNode != null && !currentNode.isEndOfWord) {
+            if (currentNode.isEmpty()) {
+                parentNode.removeChild(currentNode.label.charAt(0));
+            } else if (currentNode.childCount == 1) {
+                currentNode.mergeWithOnlyChild();
+            }
+        }
+
+        return true;
+    }
+    // ---
+
+    /**
+     * List the keys in a RadixTrie.
+     * @return A list of all the keys in the RadixTrie
+     */
+    public List<String> listKeys() {
+        return listKeysMatching("");
+    }
+
+    /**
+     * List the keys in a RadixTrie that match the prefix.
+     *
+     * @param prefix prefix to match
+     * @return List of all matching keys in the RadixTrie
+     *
+     * @see #listKeysMatching(String, int)
+     */
+    public List<String> listKeysMatching(String prefix) {
+        return listKeysMatching(prefix, -1);
+    }
+
+    /**
+     * List the keys in a RadixTrie that match the prefix with a limit on the number of matches.
+     * Keys are visited in lexicographic order.
+     *
+     * @param prefix prefix to match
+     * @param maxMatches maximum number of matches to return
+     * @return List of all matching keys in the RadixTrie
+     *
+     * @see #listKeysMatching(String)
+     */
+    public List<String> listKeysMatching(String prefix, int maxMatches) {
+        List<String> list = new ArrayList<>();
+        StringBuilder stringAssembler = new StringBuilder();
+        RadixNode<T> currentNode = root;
+        int index = 0;
+
+        while (index < prefix.length()) {
+            currentNode = currentNode.getChild(prefix.charAt(index));
+            if (currentNode == null) {
+                return list;
+            }
+
+            int common = commonPrefixLength(currentNode.label, prefix, index);
+            if (common < currentNode.label.length() && index + common < prefix.length()) {
+                return list; // diverges inside the label
+            }
+
+            // the whole label is appended, even when the prefix ends inside it
+            stringAssembler.append(currentNode.label);
+            index += common;
+        }
+
+        listKeysHelper(currentNode, list, stringAssembler, maxMatches);
+        return list;
+    }
+
+    // ---
+    private void listKeysHelper(
+            RadixNode<T> currentNode, List<String> list,
+            StringBuilder stringAssembler, int maxMatches
+    ) {
+        if (maxMatches != -1 && list.size() >= maxMatches) return;
+
+        if (currentNode.isEndOfWord) list.add(stringAssembler.toString());
+
+        for (int i = 0; i < currentNode.childCount; i++) {
+            RadixNode<T> childNode = currentNode.children[i];
+            int length = stringAssembler.length();
+            // branch into child nodes and append the whole edge label
+            listKeysHelper(
+                    childNode, list, stringAssembler.append(childNode.label),
+                    maxMatches
+            );
+            // reset to childless state before probing next child
+            stringAssembler.setLength(length);
+        }
+    }
+    // ---
+
+    /**
+     * Get the value of a key in the RadixTrie.
+     * @param key the key to search for
+     * @return the value associated with the key
+     */
+    public T get(String key) {
+        RadixNode<T> node = findNode(key);
+        return (node != null && node.isEndOfWord) ? node.value : null;
+    }
+
+    /**
+     * Set the value for an existing key in the RadixTrie.
+     * @param key key to search for
+     * @param value value to set as
+     * @return true if value was set, false otherwise (including value does not exist)
+     */
+    public boolean set(String key, T value) {
+        RadixNode<T> node = findNode(key);
+
+        if (node == null || !node.isEndOfWord) {
+            return false;
+        }
+
+        node.value = value;
+        return true;
+    }
+
+}
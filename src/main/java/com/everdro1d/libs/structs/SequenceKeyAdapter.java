@@ -0,0 +1,200 @@
+// dro1dDev - created: 2026-10-16
+
+package com.everdro1d.libs.structs;
+
+import java.util.*;
+
+/**
+ * Splits keys of any type into a sequence of {@code int} elements for a {@link SequenceTrie}.
+ * <p>Elements are plain ints, so walking a key never boxes anything. Children in a SequenceTrie
+ * are ordered by element value, which decides the order keys are listed in.</p>
+ * <p><strong>Example implementation for {@code long[]} keys of 32-bit values:</strong></p>
+ * <blockquote><pre>
+ * SequenceKeyAdapter&lt;long[]&gt; adapter = new SequenceKeyAdapter&lt;&gt;() {
+ *     public int length(long[] key) { return key.length; }
+ *     public int elementAt(long[] key, int index) { return (int) key[index]; }
+ *     public long[] build(int[] elements, int length) {
+ *         long[] key = new long[length];
+ *         for (int i = 0; i &lt; length; i++) key[i] = elements[i];
+ *         return key;
+ *     }
+ * };
+ * </pre></blockquote>
+ *
+ * @param <K> the type of key
+ * @see SequenceTrie
+ */
+public interface SequenceKeyAdapter<K> {
+    /**
+     * Gets the number of elements in a key.
+     * @param key the key
+     * @return number of elements
+     */
+    int length(K key);
+
+    /**
+     * Gets an element of a key, used when looking keys up.
+     * <p>Adapters that hand out elements on demand may return an element that no inserted key
+     * contains for parts they have never seen, see {@link #insertElementAt(Object, int)}.</p>
+     * @param key the key
+     * @param index position of the element, from 0 to {@link #length(Object)} - 1
+     * @return the element
+     */
+    int elementAt(K key, int index);
+
+    /**
+     * Gets an element of a key that is being inserted. Adapters that hand out elements on demand,
+     * like {@link #segments()}, register new ones here, so looking up a key never changes the adapter.
+     * @param key the key
+     * @param index position of the element, from 0 to {@link #length(Object)} - 1
+     * @return the element
+     */
+    default int insertElementAt(K key, int index) {
+        return elementAt(key, index);
+    }
+
+    /**
+     * Builds a key back from its elements, used when listing keys.
+     * @param elements the elements, only the first {@code length} are part of the key
+     * @param length number of elements
+     * @return the key
+     */
+    K build(int[] elements, int length);
+
+    /**
+     * Adapter for byte arrays, e.g. UTF-8 encoded wire data. Bytes are unsigned, so keys are
+     * listed in the same order as the strings they encode.
+     * @return the adapter
+     */
+    static SequenceKeyAdapter<byte[]> bytes() {
+        return new SequenceKeyAdapter<>() {
+            @Override
+            public int length(byte[] key) {
+                return key.length;
+            }
+
+            @Override
+            public int elementAt(byte[] key, int index) {
+                return key[index] & 0xFF;
+            }
+
+            @Override
+            public byte[] build(int[] elements, int length) {
+                byte[] key = new byte[length];
+                for (int i = 0; i < length; i++) {
+                    key[i] = (byte) elements[i];
+                }
+                return key;
+            }
+        };
+    }
+
+    /**
+     * Adapter for int arrays, e.g. token ids.
+     * @return the adapter
+     */
+    static SequenceKeyAdapter<int[]> ints() {
+        return new SequenceKeyAdapter<>() {
+            @Override
+            public int length(int[] key) {
+                return key.length;
+            }
+
+            @Override
+            public int elementAt(int[] key, int index) {
+                return key[index];
+            }
+
+            @Override
+            public int[] build(int[] elements, int length) {
+                return Arrays.copyOf(elements, length);
+            }
+        };
+    }
+
+    /**
+     * Adapter for strings, split into chars like {@link Trie} does.
+     * @return the adapter
+     */
+    static SequenceKeyAdapter<String> chars() {
+        return new SequenceKeyAdapter<>() {
+            @Override
+            public int length(String key) {
+                return key.length();
+            }
+
+            @Override
+            public int elementAt(String key, int index) {
+                return key.charAt(index);
+            }
+
+            @Override
+            public String build(int[] elements, int length) {
+                char[] key = new char[length];
+                for (int i = 0; i < length; i++) {
+                    key[i] = (char) elements[i];
+                }
+                return new String(key);
+            }
+        };
+    }
+
+    /**
+     * Adapter for keys made of whole segments, e.g. the names of a file path.
+     * <p>Each distinct segment is given an id the first time it is inserted, so a path is walked one
+     * segment at a time instead of one char at a time. Ids are kept for as long as the adapter,
+     * so create one adapter per SequenceTrie. Segments are ordered by when they were first inserted,
+     * not alphabetically.</p>
+     * <p>The adapter is not thread-safe. It only changes on insert, so like the SequenceTrie itself
+     * it can be read from several threads as long as nothing is inserted meanwhile.</p>
+     * <p><strong>Example:</strong></p>
+     * <blockquote><pre>
+     * SequenceTrie&lt;List&lt;String&gt;, Long&gt; sizes = new SequenceTrie&lt;&gt;(SequenceKeyAdapter.segments());
+     * sizes.insert(List.of("usr", "lib", "libc.so"), 4096L);
+     * sizes.listKeysMatching(List.of("usr"));
+     * </pre></blockquote>
+     * @return a new adapter with its own segment ids
+     */
+    static SequenceKeyAdapter<List<String>> segments() {
+        return new SequenceKeyAdapter<>() {
+            /**
+             * Id of segments that were never inserted, ids start at 0 so it matches no child.
+             */
+            private static final int ABSENT = -1;
+
+            private final Map<String, Integer> ids = new HashMap<>();
+            private final List<String> segments = new ArrayList<>();
+
+            @Override
+            public int length(List<String> key) {
+                return key.size();
+            }
+
+            @Override
+            public int elementAt(List<String> key, int index) {
+                return ids.getOrDefault(key.get(index), ABSENT);
+            }
+
+            @Override
+            public int insertElementAt(List<String> key, int index) {
+                String segment = key.get(index);
+                Integer id = ids.get(segment);
+                if (id == null) {
+                    id = segments.size();
+                    ids.put(segment, id);
+                    segments.add(segment);
+                }
+                return id;
+            }
+
+            @Override
+            public List<String> build(int[] elements, int length) {
+                String[] key = new String[length];
+                for (int i = 0; i < length; i++) {
+                    key[i] = segments.get(elements[i]);
+                }
+                return List.of(key);
+            }
+        };
+    }
+}
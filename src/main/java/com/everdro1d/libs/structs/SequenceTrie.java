@@ -0,0 +1,277 @@
+// dro1dDev - created: 2026-10-16
+
+package com.everdro1d.libs.structs;
+
+import java.util.*;
+
+/**
+ * A Trie over keys of any type, split into {@code int} elements by a {@link SequenceKeyAdapter}.
+ * <p>This is the same prefix index as {@link Trie}, which remains the specialization for
+ * {@code String} keys, but for keys like UTF-8 bytes, token ids or path segments. Elements are
+ * stored as primitive ints in sorted arrays, nothing is boxed while walking a key.</p>
+ * <p><strong>Example:</strong></p>
+ * <blockquote><pre>
+ * SequenceTrie&lt;byte[], String&gt; trie = new SequenceTrie&lt;&gt;(SequenceKeyAdapter.bytes());
+ * trie.insert("GET /settings".getBytes(StandardCharsets.UTF_8), "settings");
+ * trie.startsWith("GET ".getBytes(StandardCharsets.UTF_8)); // true
+ * </pre></blockquote>
+ *
+ * @param <K> the type of key
+ * @param <T> the type of value stored in the SequenceTrie
+ * @see SequenceKeyAdapter
+ * @see Trie
+ */
+public class SequenceTrie<K, T> {
+
+    private static class Node<T> {
+        private static final int[] NO_ELEMENTS = new int[0];
+
+        boolean isEndOfWord;
+        T value;
+
+        /**
+         * Elements of the children, sorted, parallel to {@link #children}.
+         */
+        int[] elements = NO_ELEMENTS;
+        Node<T>[] children;
+        int childCount;
+
+        private Node<T> getChild(int element) {
+            int index = Arrays.binarySearch(elements, 0, childCount, element);
+            return index >= 0 ? children[index] : null;
+        }
+
+        private Node<T> getOrCreateChild(int element) {
+            int index = Arrays.binarySearch(elements, 0, childCount, element);
+            if (index >= 0) return children[index];
+
+            index = -(index + 1);
+            if (childCount == elements.length) {
+                int capacity = Math.max(2, childCount * 2);
+                elements = Arrays.copyOf(elements, capacity);
+                children = children == null ? newNodeArray(capacity) : Arrays.copyOf(children, capacity);
+            }
+            System.arraycopy(elements, index, elements, index + 1, childCount - index);
+            System.arraycopy(children, index, children, index + 1, childCount - index);
+
+            Node<T> child = new Node<>();
+            elements[index] = element;
+            children[index] = child;
+            childCount++;
+            return child;
+        }
+
+        private void removeChild(int element) {
+            int index = Arrays.binarySearch(elements, 0, childCount, element);
+            if (index < 0) return;
+
+            System.arraycopy(elements, index + 1, elements, index, childCount - index - 1);
+            System.arraycopy(children, index + 1, children, index, childCount - index - 1);
+            children[--childCount] = null;
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private static <T> Node<T>[] newNodeArray(int length) {
+            return (Node<T>[]) new Node[length];
+        }
+    }
+
+    private final SequenceKeyAdapter<K> adapter;
+    private final Node<T> root = new Node<>();
+    private int size;
+
+    /**
+     * Creates a new SequenceTrie without any values.
+     * @param adapter splits the keys into elements, see {@link SequenceKeyAdapter} for the provided ones
+     */
+    public SequenceTrie(SequenceKeyAdapter<K> adapter) {
+        this.adapter = Objects.requireNonNull(adapter);
+    }
+
+    /**
+     * Inserts the given key into the SequenceTrie, creating nodes where necessary.
+     * @param key key to insert
+     */
+    public void insert(K key) {
+        insert(key, null);
+    }
+
+    /**
+     * Inserts the given key-value pair into the SequenceTrie, creating nodes where necessary.
+     * @param key key to insert
+     * @param value value to associate with the key
+     */
+    public void insert(K key, T value) {
+        Node<T> currentNode = root;
+        int length = adapter.length(key);
+
+        for (int i = 0; i < length; i++) {
+            currentNode = currentNode.getOrCreateChild(adapter.insertElementAt(key, i));
+        }
+        if (!currentNode.isEndOfWord) size++;
+        currentNode.isEndOfWord = true;
+        currentNode.value = value;
+    }
+
+    /**
+     * Checks if the given key exists in the tree.
+     * @param key key to check for
+     * @return true if the key exists
+     */
+    public boolean contains(K key) {
+        Node<T> node = findNode(key);
+        return node != null && node.isEndOfWord;
+    }
+
+    /**
+     * Checks if any keys in the tree start with the given prefix.
+     * @param prefix prefix to check for
+     * @return true if any key starts with or matches the prefix
+     */
+    public boolean startsWith(K prefix) {
+        return findNode(prefix) != null;
+    }
+
+    /**
+     * Get the value of a key in the SequenceTrie.
+     * @param key the key to search for
+     * @return the value associated with the key, or null if the key does not exist
+     */
+    public T get(K key) {
+        Node<T> node = findNode(key);
+        return node != null && node.isEndOfWord ? node.value : null;
+    }
+
+    /**
+     * Removes a key from the SequenceTrie, along with the nodes that no longer lead to any key.
+     * @param key the key to remove
+     * @return true if the key was removed, false if it did not exist
+     */
+    public boolean remove(K key) {
+        int length = adapter.length(key);
+        List<Node<T>> path = new ArrayList<>(length + 1);
+        int[] elements = new int[length];
+        Node<T> currentNode = root;
+        path.add(currentNode);
+
+        for (int i = 0; i < length; i++) {
+            elements[i] = adapter.elementAt(key, i);
+            currentNode = currentNode.getChild(elements[i]);
+            if (currentNode == null) return false;
+            path.add(currentNode);
+        }
+        if (!currentNode.isEndOfWord) return false;
+
+        currentNode.isEndOfWord = false;
+        currentNode.value = null;
+        size--;
+
+        for (int depth = length; depth > 0; depth--) {
+            Node<T> node = path.get(depth);
+            if (node.isEndOfWord || node.childCount > 0) break;
+            path.get(depth - 1).removeChild(elements[depth - 1]);
+        }
+        return true;
+    }
+
+    /**
+     * Gets the number of keys in the SequenceTrie.
+     * @return number of keys
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks if the SequenceTrie is empty.
+     * @return true if there are no keys, else false.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes all keys from the SequenceTrie.
+     */
+    public void clear() {
+        root.isEndOfWord = false;
+        root.value = null;
+        root.elements = Node.NO_ELEMENTS;
+        root.children = null;
+        root.childCount = 0;
+        size = 0;
+    }
+
+    /**
+     * List the keys in a SequenceTrie.
+     * @return A list of all the keys in the SequenceTrie, ordered by their elements
+     */
+    public List<K> listKeys() {
+        return listKeysMatching(adapter.build(new int[0], 0));
+    }
+
+    /**
+     * List the keys in a SequenceTrie that match the prefix.
+     *
+     * @param prefix prefix to match
+     * @return List of all matching keys in the SequenceTrie
+     *
+     * @see #listKeysMatching(Object, int)
+     */
+    public List<K> listKeysMatching(K prefix) {
+        return listKeysMatching(prefix, -1);
+    }
+
+    /**
+     * List the keys in a SequenceTrie that match the prefix with a limit on the number of matches.
+     * Keys are ordered by their elements.
+     *
+     * @param prefix prefix to match
+     * @param maxMatches maximum number of matches to return
+     * @return List of all matching keys in the SequenceTrie
+     *
+     * @see #listKeysMatching(Object)
+     */
+    public List<K> listKeysMatching(K prefix, int maxMatches) {
+        List<K> list = new ArrayList<>();
+        Node<T> node = findNode(prefix);
+
+        if (node != null) {
+            int length = adapter.length(prefix);
+            int[] elements = new int[Math.max(16, length * 2)];
+            for (int i = 0; i < length; i++) {
+                elements[i] = adapter.elementAt(prefix, i);
+            }
+            listKeysHelper(node, list, elements, length, maxMatches);
+        }
+        return list;
+    }
+
+    // ---
+    private int[] listKeysHelper(Node<T> currentNode, List<K> list, int[] elements, int length, int maxMatches) {
+        if (maxMatches != -1 && list.size() >= maxMatches) return elements;
+
+        if (currentNode.isEndOfWord) list.add(adapter.build(elements, length));
+
+        for (int i = 0; i < currentNode.childCount; i++) {
+            if (length == elements.length) {
+                elements = Arrays.copyOf(elements, length * 2);
+            }
+            elements[length] = currentNode.elements[i];
+            elements = listKeysHelper(currentNode.children[i], list, elements, length + 1, maxMatches);
+        }
+        return elements;
+    }
+
+    private Node<T> findNode(K key) {
+        Node<T> currentNode = root;
+        int length = adapter.length(key);
+
+        for (int i = 0; i < length && currentNode != null; i++) {
+            currentNode = currentNode.getChild(adapter.elementAt(key, i));
+        }
+
+        return currentNode;
+    }
+    // ---
+}
@@ -13,6 +13,10 @@
 package com.everdro1d.libs.structs;
 
 import java.util.*;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * <h2>Definition</h2>
@@ -54,6 +58,11 @@ import java.util.*;
 public class Trie<T> {
 
     private static class TrieNode<T> {
+        /**
+         * Largest number of children kept in sorted arrays, wider nodes switch to a hash table.
+         */
+        private static final int ARRAY_MAX = 8;
+
         /**
          * Denotes whether this node is the end of a key in the Trie.
          */
@@ -64,35 +73,289 @@ public class Trie<T> {
          */
         char character;
 
+        T value;
+
         /**
-         * char map of this node's child nodes.
+         * Weight of the key ending at this node, used to rank keys in {@link Trie#topK(String, int)}.
          */
-        HashMap<Character, TrieNode<T>> child;
+        long weight;
 
-        T value;
+        /**
+         * Highest weight of any key in this node's subtree, including this node.
+         */
+        long maxWeight;
+
+        /**
+         * Number of keys in this node's subtree, including this node.
+         */
+        int keyCount;
+
+        /**
+         * Number of child nodes. This also decides where the children are stored:
+         * <ul>
+         *     <li>{@code 1}: inline in {@link #singleChild}</li>
+         *     <li>{@code 2} to {@link #ARRAY_MAX}: {@link #keys} and {@link #nodes} are parallel arrays sorted by char</li>
+         *     <li>more: {@link #nodes} is an open-addressing table (linear probing) keyed by each child's
+         *         {@link #character}, and {@link #keys} holds the present chars in sorted order</li>
+         * </ul>
+         */
+        int childCount;
+
+        TrieNode<T> singleChild;
+
+        char[] keys;
+
+        TrieNode<T>[] nodes;
 
         TrieNode(char character) {
             isEndOfWord = false;
-            child = new HashMap<>();
             this.character = character;
             this.value = null;
         }
 
-        TrieNode() {
-            child = new HashMap<>();
-        }
+        TrieNode() {}
 
         /**
          * Checks whether the node has any children.
          * @return false if node has any children, true otherwise
          */
         private boolean isEmpty() {
-            return child.isEmpty();
+            return childCount == 0;
+        }
+
+        /**
+         * Finds the child node for the given character.
+         * @param c character of the child
+         * @return the child node, or null if there is none
+         */
+        private TrieNode<T> getChild(char c) {
+            if (childCount == 0) return null;
+
+            if (childCount == 1) {
+                return singleChild.character == c ? singleChild : null;
+            }
+
+            if (childCount <= ARRAY_MAX) {
+                char[] k = keys;
+                for (int i = 0; i < childCount; i++) {
+                    if (k[i] == c) return nodes[i];
+                }
+                return null;
+            }
+
+            TrieNode<T>[] table = nodes;
+            int mask = table.length - 1;
+            for (int i = slot(c, table.length); ; i = (i + 1) & mask) {
+                TrieNode<T> node = table[i];
+                if (node == null || node.character == c) return node;
+            }
+        }
+
+        /**
+         * Gets the child node at the given position, children are ordered by their character.
+         * @param index position of the child, from 0 to {@link #childCount} - 1
+         * @return the child node
+         */
+        private TrieNode<T> childAt(int index) {
+            if (childCount == 1) return singleChild;
+            if (childCount <= ARRAY_MAX) return nodes[index];
+            return getChild(keys[index]);
+        }
+
+        /**
+         * Finds the position of the first child whose character is not less than the given one.
+         * @param c character to compare with
+         * @return position of the child in character order, or {@link #childCount} if all children are less
+         */
+        private int lowerBound(char c) {
+            if (childCount == 0) return 0;
+            if (childCount == 1) return singleChild.character >= c ? 0 : 1;
+
+            int index = Arrays.binarySearch(keys, 0, childCount, c);
+            return index >= 0 ? index : -(index + 1);
+        }
+
+        /**
+         * Finds the child node for the given character, creating it if it does not exist.
+         * @param c character of the child
+         * @return the existing or new child node
+         */
+        private TrieNode<T> getOrCreateChild(char c) {
+            TrieNode<T> child = getChild(c);
+            if (child == null) {
+                child = new TrieNode<>(c);
+                addChild(child);
+            }
+            return child;
+        }
+
+        /**
+         * Adds a child node. The node must not already have a child with the same character.
+         * @param child node to add
+         */
+        private void addChild(TrieNode<T> child) {
+            char c = child.character;
+
+            if (childCount == 0) {
+                singleChild = child;
+
+            } else if (childCount == 1) {
+                keys = new char[2];
+                nodes = newNodeArray(2);
+                boolean before = c < singleChild.character;
+                keys[before ? 1 : 0] = singleChild.character;
+                nodes[before ? 1 : 0] = singleChild;
+                keys[before ? 0 : 1] = c;
+                nodes[before ? 0 : 1] = child;
+                singleChild = null;
+
+            } else if (childCount < ARRAY_MAX) {
+                int index = -(Arrays.binarySearch(keys, 0, childCount, c) + 1);
+                if (childCount == keys.length) {
+                    keys = Arrays.copyOf(keys, childCount * 2);
+                    nodes = Arrays.copyOf(nodes, childCount * 2);
+                }
+                System.arraycopy(keys, index, keys, index + 1, childCount - index);
+                System.arraycopy(nodes, index, nodes, index + 1, childCount - index);
+                keys[index] = c;
+                nodes[index] = child;
+
+            } else {
+                if (childCount == ARRAY_MAX) {
+                    // switch from the sorted arrays to the hash table
+                    TrieNode<T>[] children = nodes;
+                    nodes = newNodeArray(tableSizeFor(ARRAY_MAX + 1));
+                    for (int i = 0; i < childCount; i++) {
+                        tablePut(nodes, children[i]);
+                    }
+                } else if ((childCount + 1) * 2 > nodes.length) {
+                    TrieNode<T>[] old = nodes;
+                    nodes = newNodeArray(old.length * 2);
+                    for (TrieNode<T> node : old) {
+                        if (node != null) tablePut(nodes, node);
+                    }
+                }
+                tablePut(nodes, child);
+
+                int index = -(Arrays.binarySearch(keys, 0, childCount, c) + 1);
+                if (childCount == keys.length) {
+                    keys = Arrays.copyOf(keys, childCount * 2);
+                }
+                System.arraycopy(keys, index, keys, index + 1, childCount - index);
+                keys[index] = c;
+            }
+
+            childCount++;
+        }
+
+        /**
+         * Removes the child node for the given character.
+         * @param c character of the child
+         * @return true if a child was removed, false if there was none
+         */
+        private boolean removeChild(char c) {
+            if (getChild(c) == null) return false;
+
+            if (childCount == 1) {
+                singleChild = null;
+
+            } else if (childCount == 2) {
+                singleChild = nodes[keys[0] == c ? 1 : 0];
+                keys = null;
+                nodes = null;
+
+            } else if (childCount <= ARRAY_MAX) {
+                int index = Arrays.binarySearch(keys, 0, childCount, c);
+                System.arraycopy(keys, index + 1, keys, index, childCount - index - 1);
+                System.arraycopy(nodes, index + 1, nodes, index, childCount - index - 1);
+                nodes[childCount - 1] = null;
+
+            } else {
+                int index = Arrays.binarySearch(keys, 0, childCount, c);
+                System.arraycopy(keys, index + 1, keys, index, childCount - index - 1);
+
+                if (childCount - 1 == ARRAY_MAX) {
+                    // shrink back to the sorted arrays
+                    TrieNode<T>[] children = newNodeArray(ARRAY_MAX);
+                    for (int i = 0; i < ARRAY_MAX; i++) {
+                        children[i] = getChild(keys[i]);
+                    }
+                    nodes = children;
+                    keys = Arrays.copyOf(keys, ARRAY_MAX);
+                } else {
+                    tableRemove(nodes, c);
+                }
+            }
+
+            childCount--;
+            return true;
         }
 
-        private Collection<TrieNode<T>> getChildren() {
-            return child.values();
+        /**
+         * Recalculates {@link #maxWeight} from this node's own weight and its children.
+         */
+        private void updateMaxWeight() {
+            long max = isEndOfWord ? weight : 0;
+            for (int i = 0; i < childCount; i++) {
+                max = Math.max(max, childAt(i).maxWeight);
+            }
+            maxWeight = max;
+        }
+
+        /**
+         * Removes all child nodes.
+         */
+        private void clearChildren() {
+            childCount = 0;
+            singleChild = null;
+            keys = null;
+            nodes = null;
+        }
+
+        // ---
+        private static int slot(char c, int tableLength) {
+            // fibonacci hashing, takes the top bits of the product
+            return (c * 0x9E3779B9) >>> (Integer.numberOfLeadingZeros(tableLength) + 1);
+        }
+
+        private static int tableSizeFor(int count) {
+            return Integer.highestOneBit(count * 2 - 1) << 1;
+        }
+
+        private static <T> void tablePut(TrieNode<T>[] table, TrieNode<T> node) {
+            int mask = table.length - 1;
+            int i = slot(node.character, table.length);
+            while (table[i] != null) {
+                i = (i + 1) & mask;
+            }
+            table[i] = node;
+        }
+
+        private static <T> void tableRemove(TrieNode<T>[] table, char c) {
+            int mask = table.length - 1;
+            int i = slot(c, table.length);
+            while (table[i].character != c) {
+                i = (i + 1) & mask;
+            }
+            table[i] = null;
+
+            // shift back any entries of the probe sequence that would now be unreachable
+            for (int j = (i + 1) & mask; table[j] != null; j = (j + 1) & mask) {
+                int home = slot(table[j].character, table.length);
+                boolean reachable = (i <= j) ? (i < home && home <= j) : (i < home || home <= j);
+                if (!reachable) {
+                    table[i] = table[j];
+                    table[j] = null;
+                    i = j;
+                }
+            }
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private static <T> TrieNode<T>[] newNodeArray(int length) {
+            return (TrieNode<T>[]) new TrieNode[length];
         }
+        // ---
     }
 
     /**
@@ -100,6 +363,11 @@ public class Trie<T> {
      */
     TrieNode<T> root;
 
+    /**
+     * Number of times keys were added or removed, lets iterators detect concurrent modification.
+     */
+    int modCount;
+
     /**
      * Creates a new Trie without any values.
      */
@@ -113,7 +381,9 @@ public class Trie<T> {
      */
     public Trie(List<String> list) {
         root = new TrieNode<>();
-        insert(list);
+        String[] keys = list.toArray(new String[0]);
+        Arrays.parallelSort(keys);
+        loadSorted(keys, null);
     }
 
     /**
@@ -122,7 +392,66 @@ public class Trie<T> {
      */
     public Trie(Map<String, T> map) {
         root = new TrieNode<>();
-        insert(map);
+        List<Map.Entry<String, T>> entries = new ArrayList<>(map.entrySet());
+        if (!(map instanceof SortedMap<String, T> sortedMap && sortedMap.comparator() == null)) {
+            entries.sort(Map.Entry.comparingByKey());
+        }
+
+        String[] keys = new String[entries.size()];
+        Object[] values = new Object[entries.size()];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = entries.get(i).getKey();
+            values[i] = entries.get(i).getValue();
+        }
+        loadSorted(keys, values);
+    }
+
+    /**
+     * Creates a new Trie from keys that are already sorted, in one pass.
+     * <p>Each key only creates the nodes after the prefix it shares with the previous key,
+     * so nothing is searched for. Keys must be in {@link String#compareTo(String)} order,
+     * duplicates are allowed. Use {@link #Trie(List)} if the keys are not sorted.</p>
+     * <p><strong>Example:</strong></p>
+     * <blockquote><pre>
+     * Trie&lt;Void&gt; trie = Trie.fromSortedKeys(Files.lines(sortedWordList)::iterator);
+     * </pre></blockquote>
+     * @param sortedKeys keys in ascending order
+     * @param <T> the type of value stored in the Trie
+     * @return a new Trie containing the keys
+     * @throws IllegalArgumentException if the keys are not sorted
+     */
+    public static <T> Trie<T> fromSortedKeys(Iterable<String> sortedKeys) {
+        Trie<T> trie = new Trie<>();
+        SortedLoader<T> loader = new SortedLoader<>(trie.root, 0);
+        for (String key : sortedKeys) {
+            loader.add(key, null);
+        }
+        trie.modCount = loader.count;
+        return trie;
+    }
+
+    /**
+     * Creates a new Trie from key-value pairs that are already sorted by key, in one pass.
+     * <p>Keys must be in {@link String#compareTo(String)} order. If a key appears more than once
+     * the last value is kept. Use {@link #Trie(Map)} if the keys are not sorted.</p>
+     * <p><strong>Example:</strong></p>
+     * <blockquote><pre>
+     * TreeMap&lt;String, String&gt; localeMap = ...;
+     * Trie&lt;String&gt; trie = Trie.fromSortedEntries(localeMap.entrySet());
+     * </pre></blockquote>
+     * @param sortedEntries key-value pairs in ascending order of key
+     * @param <T> the type of value stored in the Trie
+     * @return a new Trie containing the key-value pairs
+     * @throws IllegalArgumentException if the keys are not sorted
+     */
+    public static <T> Trie<T> fromSortedEntries(Iterable<? extends Map.Entry<String, ? extends T>> sortedEntries) {
+        Trie<T> trie = new Trie<>();
+        SortedLoader<T> loader = new SortedLoader<>(trie.root, 0);
+        for (Map.Entry<String, ? extends T> entry : sortedEntries) {
+            loader.add(entry.getKey(), entry.getValue());
+        }
+        trie.modCount = loader.count;
+        return trie;
     }
 
     /**
@@ -142,12 +471,48 @@ public class Trie<T> {
         TrieNode<T> currentNode = root;
 
         for (char character : key.toCharArray()) {
-            currentNode = currentNode.child.computeIfAbsent(
-                    character, k -> new TrieNode<>(character)
-            );
+            currentNode = currentNode.getOrCreateChild(character);
+        }
+        if (!currentNode.isEndOfWord) {
+            modCount++;
+            currentNode.isEndOfWord = true;
+            adjustKeyCounts(key, 1);
+        }
+        currentNode.value = value;
+    }
+
+    /**
+     * Inserts the given key-value pair into the Trie with a weight, creating nodes where necessary.
+     * <p>The weight ranks the key in {@link #topK(String, int)}. Keys inserted without
+     * a weight have a weight of 0, and re-inserting them without a weight keeps their weight.</p>
+     * @param key key to insert
+     * @param value value to associate with the key
+     * @param weight weight of the key, must not be negative
+     * @throws IllegalArgumentException if the weight is negative
+     * @see #setWeight(String, long)
+     */
+    public void insert(String key, T value, long weight) {
+        checkWeight(weight);
+        TrieNode<T> currentNode = root;
+        currentNode.maxWeight = Math.max(currentNode.maxWeight, weight);
+
+        for (int i = 0; i < key.length(); i++) {
+            currentNode = currentNode.getOrCreateChild(key.charAt(i));
+            currentNode.maxWeight = Math.max(currentNode.maxWeight, weight);
+        }
+
+        boolean lowered = currentNode.isEndOfWord && weight < currentNode.weight;
+        if (!currentNode.isEndOfWord) {
+            modCount++;
+            currentNode.isEndOfWord = true;
+            adjustKeyCounts(key, 1);
         }
-        currentNode.isEndOfWord = true;
         currentNode.value = value;
+        currentNode.weight = weight;
+
+        if (lowered) {
+            refreshMaxWeight(root, key, 0);
+        }
     }
 
     /**
@@ -155,9 +520,7 @@ public class Trie<T> {
      * @param list the list of keys to insert
      */
     public void insert(List<String> list) {
-        for (String key : list) {
-            insert(key);
-        }
+        insertBatch(list, null);
     }
 
     /**
@@ -165,10 +528,172 @@ public class Trie<T> {
      * @param map the map of key-value pairs to insert
      */
     public void insert(Map<String, T> map) {
+        List<String> keys = new ArrayList<>(map.size());
+        List<T> values = new ArrayList<>(map.size());
         for (Map.Entry<String, T> entry : map.entrySet()) {
-            insert(entry.getKey(), entry.getValue());
+            keys.add(entry.getKey());
+            values.add(entry.getValue());
+        }
+        insertBatch(keys, values);
+    }
+
+    /**
+     * Inserts a batch of keys, walking the Trie once in sorted order.
+     * <p>Each key continues from the node where it stops sharing a prefix with the previous
+     * key instead of starting at the root, so batches of related keys touch each node once.</p>
+     * @param keys keys to insert
+     * @param values value of each key, or null to insert the keys without values
+     * @return a bitset where bit {@code i} is set if {@code keys.get(i)} was not in the Trie before
+     * @throws IllegalArgumentException if values is not null and has a different size than keys
+     */
+    public BitSet insertBatch(List<String> keys, List<? extends T> values) {
+        if (values != null && values.size() != keys.size()) {
+            throw new IllegalArgumentException("Expected " + keys.size() + " values, got " + values.size());
+        }
+
+        String[] array = keys.toArray(new String[0]);
+        Object[] valueArray = values != null ? values.toArray() : null;
+        BitSet added = new BitSet(array.length);
+        BatchWalk walk = new BatchWalk();
+
+        for (int i : sortedOrder(array)) {
+            walk.walk(array[i], true);
+            TrieNode<T> currentNode = walk.node();
+
+            if (!currentNode.isEndOfWord) {
+                modCount++;
+                added.set(i);
+                walk.adjustKeyCounts(1);
+            }
+            currentNode.isEndOfWord = true;
+            @SuppressWarnings("unchecked") T value = valueArray != null ? (T) valueArray[i] : null;
+            currentNode.value = value;
+        }
+        return added;
+    }
+
+    // ---
+    /**
+     * Number of keys from which an empty Trie is loaded in parallel, one subtree per first character.
+     */
+    private static final int PARALLEL_LOAD_THRESHOLD = 1 << 16;
+
+    /**
+     * Loads sorted keys into this Trie, which must be empty.
+     * @param keys keys in ascending order
+     * @param values value of each key, or null for no values
+     */
+    @SuppressWarnings("unchecked")
+    private void loadSorted(String[] keys, Object[] values) {
+        if (keys.length < PARALLEL_LOAD_THRESHOLD) {
+            SortedLoader<T> loader = new SortedLoader<>(root, 0);
+            for (int i = 0; i < keys.length; i++) {
+                loader.add(keys[i], values != null ? (T) values[i] : null);
+            }
+            modCount = loader.count;
+            return;
+        }
+
+        // the empty key sorts first and belongs to the root
+        int start = 0;
+        while (start < keys.length && keys[start].isEmpty()) {
+            if (!root.isEndOfWord) {
+                modCount++;
+                root.keyCount++;
+            }
+            root.isEndOfWord = true;
+            root.value = values != null ? (T) values[start] : null;
+            start++;
+        }
+
+        // keys with the same first character are next to each other, build each of those subtrees on its own
+        List<int[]> ranges = new ArrayList<>();
+        for (int from = start, to; from < keys.length; from = to) {
+            char first = keys[from].charAt(0);
+            to = from + 1;
+            while (to < keys.length && keys[to].charAt(0) == first) to++;
+            ranges.add(new int[] {from, to});
+        }
+
+        List<SortedLoader<T>> loaders = ranges.parallelStream().map(range -> {
+            SortedLoader<T> loader = new SortedLoader<>(new TrieNode<>(keys[range[0]].charAt(0)), 1);
+            for (int i = range[0]; i < range[1]; i++) {
+                loader.add(keys[i], values != null ? (T) values[i] : null);
+            }
+            return loader;
+        }).toList();
+
+        for (SortedLoader<T> loader : loaders) {
+            root.addChild(loader.path[0]);
+            root.keyCount += loader.count;
+            modCount += loader.count;
+        }
+    }
+
+    /**
+     * Builds a subtree from sorted keys. It keeps the path to the previous key, so each key
+     * starts from the node where it stops sharing a prefix with the previous one.
+     */
+    private static final class SortedLoader<T> {
+        /**
+         * Length of the prefix that all keys share, the base node of the subtree ends it.
+         */
+        private final int baseDepth;
+
+        /**
+         * Nodes along the previous key, {@code path[0]} is the base node.
+         */
+        private TrieNode<T>[] path;
+
+        private String previous;
+
+        /**
+         * Number of distinct keys added.
+         */
+        private int count;
+
+        private SortedLoader(TrieNode<T> base, int baseDepth) {
+            this.baseDepth = baseDepth;
+            this.path = TrieNode.newNodeArray(16);
+            this.path[0] = base;
+        }
+
+        private void add(String key, T value) {
+            int common = baseDepth;
+            if (previous != null) {
+                int limit = Math.min(previous.length(), key.length());
+                while (common < limit && previous.charAt(common) == key.charAt(common)) common++;
+
+                if (common < previous.length() && (common == key.length() || key.charAt(common) < previous.charAt(common))) {
+                    throw new IllegalArgumentException("Keys are not sorted: \"" + key + "\" comes after \"" + previous + "\"");
+                }
+            }
+
+            if (key.length() - baseDepth >= path.length) {
+                path = Arrays.copyOf(path, Math.max(path.length * 2, key.length() - baseDepth + 1));
+            }
+
+            // every character after the shared prefix is larger than the existing children, so it is always new
+            TrieNode<T> currentNode = path[common - baseDepth];
+            for (int i = common; i < key.length(); i++) {
+                TrieNode<T> child = new TrieNode<>(key.charAt(i));
+                currentNode.addChild(child);
+                currentNode = child;
+                path[i + 1 - baseDepth] = currentNode;
+            }
+
+            if (!currentNode.isEndOfWord) {
+                count++;
+                for (int i = 0; i <= key.length() - baseDepth; i++) {
+                    path[i].keyCount++;
+                }
+            }
+            currentNode.isEndOfWord = true;
+            currentNode.value = value;
+            previous = key;
         }
     }
+    // ---
 
     /**
      * Checks if the given key exists in the tree.
@@ -200,16 +725,32 @@ public class Trie<T> {
      * @return true if all keys in the list exists in the Trie and the last node of each key is EOW.
      */
     public boolean containsAll(List<String> list) {
-        int contains = 0;
-        int shouldContain = list.size();
+        return containsBatch(list).cardinality() == list.size();
+    }
 
-        for (String key : list) {
-            if (contains(key)) {
-                contains++;
+    /**
+     * Checks a batch of keys, walking the Trie once in sorted order.
+     * <p>Each key continues from the node where it stops sharing a prefix with the previous
+     * key instead of starting at the root.</p>
+     * <p><strong>Example:</strong></p>
+     * <blockquote><pre>
+     * BitSet found = trie.containsBatch(List.of("apple", "banana", "app"));
+     * found.get(1); // whether "banana" is in the Trie
+     * </pre></blockquote>
+     * @param keys keys to check for
+     * @return a bitset where bit {@code i} is set if {@code keys.get(i)} is in the Trie
+     */
+    public BitSet containsBatch(List<String> keys) {
+        String[] array = keys.toArray(new String[0]);
+        BitSet found = new BitSet(array.length);
+        BatchWalk walk = new BatchWalk();
+
+        for (int i : sortedOrder(array)) {
+            if (walk.walk(array[i], false) && walk.node().isEndOfWord) {
+                found.set(i);
             }
         }
-
-        return contains == shouldContain;
+        return found;
     }
 
     /**
@@ -221,19 +762,53 @@ public class Trie<T> {
         return search(prefix, false);
     }
 
+    /**
+     * Finds the longest key that the input starts with, in a single walk along the input.
+     * <p><strong>Example:</strong></p>
+     * <blockquote><pre>
+     * trie.insert(List.of("--out", "--output"));
+     * trie.longestPrefixOf("--output=file.txt"); // "--output"
+     * trie.longestPrefixOf("--outline"); // "--out"
+     * </pre></blockquote>
+     * @param input string to match keys against
+     * @return the longest key that is a prefix of the input or equal to it, or null if there is none
+     */
+    public String longestPrefixOf(String input) {
+        TrieNode<T> currentNode = root;
+        int longest = currentNode.isEndOfWord ? 0 : -1;
+
+        for (int i = 0; i < input.length(); i++) {
+            currentNode = currentNode.getChild(input.charAt(i));
+            if (currentNode == null) break;
+            if (currentNode.isEndOfWord) longest = i + 1;
+        }
+
+        return longest >= 0 ? input.substring(0, longest) : null;
+    }
+
     // ---
     private boolean search(String key, boolean exact) {
+        TrieNode<T> currentNode = findNode(key);
+        return currentNode != null && (!exact || currentNode.isEndOfWord);
+    }
+
+    /**
+     * Walks the Trie along the given key.
+     * @param key key to follow
+     * @return the node the key ends on, or null if the path does not exist
+     */
+    private TrieNode<T> findNode(String key) {
         TrieNode<T> currentNode = root;
 
-        for (char character : key.toCharArray()) {
-            currentNode = currentNode.child.get(character);
+        for (int i = 0; i < key.length(); i++) {
+            currentNode = currentNode.getChild(key.charAt(i));
 
             if (currentNode == null) {
-                return false;
+                return null;
             }
         }
 
-        return !exact || currentNode.isEndOfWord;
+        return currentNode;
     }
     // ---
 
@@ -249,7 +824,10 @@ public class Trie<T> {
      * Clears the children of the root node.
      */
     public void clear() {
-        root.child.clear();
+        root.clearChildren();
+        modCount++;
+        root.maxWeight = root.isEndOfWord ? root.weight : 0;
+        root.keyCount = root.isEndOfWord ? 1 : 0;
     }
 
     /**
@@ -258,81 +836,298 @@ public class Trie<T> {
      * @return true if the key was removed, false otherwise (including key does not exist)
      */
     public boolean remove(String key) {
-        return removeHelper(root, key, 0);
+        int expectedModCount = modCount;
+        removeHelper(root, key, 0);
+        if (modCount == expectedModCount) {
+            return false;
+        }
+        adjustKeyCounts(key, -1);
+        return true;
     }
 
     /**
      * Removes all keys in a given list from the Trie
      * @param list list of keys to remove
-     * @return true if none of the given keys exist in the Trie, false otherwise
+     * @return true if none of the given keys exist in the Trie, which always holds after the removal
+     * @see #removeBatch(List)
      */
     public boolean removeAll(List<String> list) {
-        for (String key : list) {
-            if (contains(key)) {
-                remove(key);
-            }
-        }
-
-        return !containsAny(list);
+        removeBatch(list);
+        return true;
     }
 
-    // ---
     /**
-     * Helper method for remove. Recursively removes the key from the Trie.
-     * @param currentNode current node in the Trie
-     * @param key key to remove
-     * @param index current index in the key
-     * @return true if the current node should be deleted, false otherwise
+     * Removes a batch of keys, walking the Trie once in sorted order.
+     * <p>Each key continues from the node where it stops sharing a prefix with the previous
+     * key instead of starting at the root. Nodes that no longer lead to any key are pruned.</p>
+     * @param keys keys to remove
+     * @return a bitset where bit {@code i} is set if {@code keys.get(i)} was in the Trie and got removed
      */
-    private boolean removeHelper(TrieNode<T> currentNode, String key, int index) {
-        if (index == key.length()) {
-            if (!currentNode.isEndOfWord) {
-                return false; // key does not exist
-            }
+    public BitSet removeBatch(List<String> keys) {
+        String[] array = keys.toArray(new String[0]);
+        BitSet removed = new BitSet(array.length);
+        BatchWalk walk = new BatchWalk();
+
+        for (int i : sortedOrder(array)) {
+            if (!walk.walk(array[i], false) || !walk.node().isEndOfWord) continue;
+
+            TrieNode<T> currentNode = walk.node();
             currentNode.isEndOfWord = false;
-            // If node has no children, it can be deleted
-            return currentNode.isEmpty();
+            currentNode.value = null;
+            currentNode.weight = 0;
+            modCount++;
+            removed.set(i);
+
+            walk.adjustKeyCounts(-1);
+            walk.prune();
         }
+        return removed;
+    }
 
-        char character = key.charAt(index);
-        TrieNode<T> childNode = currentNode.child.get(character);
-        if (childNode == null) {
-            return false; // key does not exist
+    // ---
+    /**
+     * Gets the positions of the keys in sorted order, without sorting if they already are.
+     */
+    private static int[] sortedOrder(String[] keys) {
+        int[] order = new int[keys.length];
+        boolean sorted = true;
+        for (int i = 0; i < keys.length; i++) {
+            order[i] = i;
+            if (i > 0 && keys[i - 1].compareTo(keys[i]) > 0) sorted = false;
         }
+        if (sorted) return order;
 
-        boolean shouldDeleteChild = removeHelper(childNode, key, index + 1);
+        // stable like Arrays.sort, so duplicate keys keep their order, without boxing the indices
+        mergeSortOrder(keys, order, new int[keys.length], 0, keys.length);
+        return order;
+    }
 
-        if (shouldDeleteChild) {
-            currentNode.child.remove(character);
+    private static void mergeSortOrder(String[] keys, int[] order, int[] buffer, int from, int to) {
+        if (to - from <= 16) {
+            for (int i = from + 1; i < to; i++) {
+                int index = order[i];
+                int j = i - 1;
+                while (j >= from && keys[order[j]].compareTo(keys[index]) > 0) {
+                    order[j + 1] = order[j];
+                    j--;
+                }
+                order[j + 1] = index;
+            }
+            return;
         }
 
-        // Return true if current node is not end of another word and has no children
-        return !currentNode.isEndOfWord && currentNode.isEmpty();
-    }
-    // ---
+        int mid = (from + to) >>> 1;
+        mergeSortOrder(keys, order, buffer, from, mid);
+        mergeSortOrder(keys, order, buffer, mid, to);
+        if (keys[order[mid - 1]].compareTo(keys[order[mid]]) <= 0) return;
 
-    /**
-     * List the keys in a Trie.
-     * @return A list of all the keys in the Trie
-     */
-    public List<String> listKeys() {
-        return listKeysMatching("");
+        System.arraycopy(order, from, buffer, from, to - from);
+        int i = from, j = mid, k = from;
+        while (i < mid && j < to) {
+            order[k++] = keys[buffer[j]].compareTo(keys[buffer[i]]) < 0 ? buffer[j++] : buffer[i++];
+        }
+        // what is left of the second half is already in place
+        while (i < mid) {
+            order[k++] = buffer[i++];
+        }
     }
 
     /**
-     * List the keys in a Trie that match the prefix.
-     *
-     * @param prefix prefix to match
-     * @return List of all matching keys in the Trie
-     *
-     * @see #listKeysMatching(String, int)
+     * Walks to keys given in sorted order, keeping the path to the previous key so that
+     * each walk starts where the key stops sharing a prefix with it.
      */
-    public List<String> listKeysMatching(String prefix) {
-        return listKeysMatching(prefix, -1);
-    }
+    private final class BatchWalk {
+        private TrieNode<T>[] path = TrieNode.newNodeArray(16);
 
-    /**
-     * List the keys in a Trie that match the prefix with a limit on the number of matches.
+        /**
+         * Number of characters of the previous key that have a node in {@link #path}.
+         */
+        private int reached;
+
+        private String previous = "";
+
+        BatchWalk() {
+            path[0] = root;
+        }
+
+        /**
+         * Walks to the node of the key.
+         * @param key key to walk to
+         * @param create whether to create missing nodes
+         * @return true if the node of the key exists, see {@link #node()}
+         */
+        boolean walk(String key, boolean create) {
+            int depth = 0;
+            int limit = Math.min(reached, key.length());
+            while (depth < limit && previous.charAt(depth) == key.charAt(depth)) depth++;
+
+            if (key.length() >= path.length) {
+                path = Arrays.copyOf(path, Math.max(path.length * 2, key.length() + 1));
+            }
+
+            TrieNode<T> currentNode = path[depth];
+            for (; depth < key.length(); depth++) {
+                char c = key.charAt(depth);
+                currentNode = create ? currentNode.getOrCreateChild(c) : currentNode.getChild(c);
+                if (currentNode == null) break;
+                path[depth + 1] = currentNode;
+            }
+
+            previous = key;
+            reached = depth;
+            return depth == key.length();
+        }
+
+        /**
+         * Gets the node the last successful walk ended on.
+         */
+        TrieNode<T> node() {
+            return path[reached];
+        }
+
+        /**
+         * Adds to the key counts of the nodes on the current path.
+         */
+        void adjustKeyCounts(int delta) {
+            for (int depth = 0; depth <= reached; depth++) {
+                path[depth].keyCount += delta;
+            }
+        }
+
+        /**
+         * Removes the nodes at the end of the current path that no longer lead to any key,
+         * and refreshes the cached weights along it.
+         */
+        void prune() {
+            while (reached > 0 && !path[reached].isEndOfWord && path[reached].isEmpty()) {
+                path[reached - 1].removeChild(path[reached].character);
+                reached--;
+            }
+
+            // only weighted tries need the cached maximum refreshed
+            for (int depth = reached; depth >= 0; depth--) {
+                if (path[depth].maxWeight > 0) path[depth].updateMaxWeight();
+            }
+        }
+    }
+
+    /**
+     * Helper method for remove. Recursively removes the key from the Trie.
+     * @param currentNode current node in the Trie
+     * @param key key to remove
+     * @param index current index in the key
+     * @return true if the current node should be deleted, false otherwise
+     */
+    private boolean removeHelper(TrieNode<T> currentNode, String key, int index) {
+        if (index == key.length()) {
+            if (!currentNode.isEndOfWord) {
+                return false; // key does not exist
+            }
+            currentNode.isEndOfWord = false;
+            currentNode.value = null;
+            modCount++;
+            currentNode.weight = 0;
+            if (currentNode.maxWeight > 0) currentNode.updateMaxWeight();
+            // If node has no children, it can be deleted
+            return currentNode.isEmpty();
+        }
+
+        char character = key.charAt(index);
+        TrieNode<T> childNode = currentNode.getChild(character);
+        if (childNode == null) {
+            return false; // key does not exist
+        }
+
+        boolean shouldDeleteChild = removeHelper(childNode, key, index + 1);
+
+        if (shouldDeleteChild) {
+            currentNode.removeChild(character);
+        }
+
+        // only weighted tries need the cached maximum refreshed
+        if (currentNode.maxWeight > 0) {
+            currentNode.updateMaxWeight();
+        }
+
+        // Return true if current node is not end of another word and has no children
+        return !currentNode.isEndOfWord && currentNode.isEmpty();
+    }
+    // ---
+
+    /**
+     * Removes every key that starts with the prefix, including the prefix itself if it is a key.
+     * <p>The node of the prefix is detached with its whole subtree in one step, and ancestors that
+     * no longer lead to any key are pruned, the same as {@link #remove(String)} does. Only the path
+     * of the prefix is walked, not the keys below it.</p>
+     * <p><strong>Example:</strong></p>
+     * <blockquote><pre>
+     * localeKeys.removePrefix("BasicSettingsWindow."); // drops the whole window's keys
+     * </pre></blockquote>
+     * @param prefix prefix of the keys to remove
+     * @return number of keys removed
+     */
+    public int removePrefix(String prefix) {
+        TrieNode<T>[] path = TrieNode.newNodeArray(prefix.length() + 1);
+        path[0] = root;
+        for (int i = 0; i < prefix.length(); i++) {
+            path[i + 1] = path[i].getChild(prefix.charAt(i));
+            if (path[i + 1] == null) {
+                return 0;
+            }
+        }
+
+        int removed = path[prefix.length()].keyCount;
+        if (removed == 0) {
+            return 0;
+        }
+
+        int depth = prefix.length();
+        if (depth == 0) {
+            root.clearChildren();
+            root.isEndOfWord = false;
+            root.value = null;
+            root.weight = 0;
+        } else {
+            // detach the subtree, then any ancestors left without a key
+            do {
+                path[depth - 1].removeChild(prefix.charAt(depth - 1));
+                depth--;
+            } while (depth > 0 && !path[depth].isEndOfWord && path[depth].isEmpty());
+        }
+
+        for (int i = depth; i >= 0; i--) {
+            path[i].keyCount -= removed;
+            // only weighted tries need the cached maximum refreshed
+            if (path[i].maxWeight > 0) {
+                path[i].updateMaxWeight();
+            }
+        }
+        modCount++;
+        return removed;
+    }
+
+    /**
+     * List the keys in a Trie.
+     * @return A list of all the keys in the Trie
+     */
+    public List<String> listKeys() {
+        return listKeysMatching("");
+    }
+
+    /**
+     * List the keys in a Trie that match the prefix.
+     *
+     * @param prefix prefix to match
+     * @return List of all matching keys in the Trie
+     *
+     * @see #listKeysMatching(String, int)
+     */
+    public List<String> listKeysMatching(String prefix) {
+        return listKeysMatching(prefix, -1);
+    }
+
+    /**
+     * List the keys in a Trie that match the prefix with a limit on the number of matches.
      * Matches prefer the shortest keys first.
      *
      * @param prefix prefix to match
@@ -343,11 +1138,11 @@ public class Trie<T> {
      */
     public List<String> listKeysMatching(String prefix, int maxMatches) {
         List<String> list = new ArrayList<>();
-        StringBuffer stringAssembler = new StringBuffer();
+        StringBuilder stringAssembler = new StringBuilder();
         TrieNode<T> currentNode = root;
 
         for (char character : prefix.toCharArray()) {
-            currentNode = currentNode.child.get(character);
+            currentNode = currentNode.getChild(character);
 
             if (currentNode == null) {
                 return list;
@@ -360,10 +1155,102 @@ public class Trie<T> {
         return list;
     }
 
+    /**
+     * Counts the keys that start with the prefix, without visiting them.
+     * <p>Every node keeps the number of keys in its subtree, so this is O(m), where m is the length of the prefix.</p>
+     * @param prefix prefix to match
+     * @return number of matching keys
+     */
+    public int countWithPrefix(String prefix) {
+        TrieNode<T> currentNode = findNode(prefix);
+        return currentNode != null ? currentNode.keyCount : 0;
+    }
+
+    /**
+     * Gets the key at a position among the keys that start with the prefix, in lexicographic order.
+     * <p>This skips whole subtrees using their key counts, so it is O(m × fan-out), where m is the
+     * length of the result, however large the index is. Useful for paging through autocomplete results.</p>
+     * <p><strong>Example:</strong></p>
+     * <blockquote><pre>
+     * // third page of 20 results
+     * for (int i = 40; i &lt; Math.min(60, trie.countWithPrefix("Basic")); i++) {
+     *     trie.keyAt("Basic", i);
+     * }
+     * </pre></blockquote>
+     * @param prefix prefix to match, use {@code ""} for the whole Trie
+     * @param index position of the key, from 0 to {@link #countWithPrefix(String)} - 1
+     * @return the key at that position
+     * @throws IndexOutOfBoundsException if the index is negative or not less than the number of matching keys
+     * @see #indexOf(String)
+     */
+    public String keyAt(String prefix, int index) {
+        TrieNode<T> currentNode = findNode(prefix);
+        int count = currentNode != null ? currentNode.keyCount : 0;
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for " + count + " keys");
+        }
+
+        StringBuilder stringAssembler = new StringBuilder(prefix);
+        while (true) {
+            if (currentNode.isEndOfWord) {
+                if (index == 0) return stringAssembler.toString();
+                index--;
+            }
+
+            for (int i = 0; i < currentNode.childCount; i++) {
+                TrieNode<T> childNode = currentNode.childAt(i);
+                if (index < childNode.keyCount) {
+                    currentNode = childNode;
+                    stringAssembler.append(childNode.character);
+                    break;
+                }
+                index -= childNode.keyCount;
+            }
+        }
+    }
+
+    /**
+     * Gets the position of a key among all the keys of the Trie, in lexicographic order.
+     * <p>This is the inverse of {@link #keyAt(String, int) keyAt("", index)}, and is O(m × fan-out),
+     * where m is the length of the key.</p>
+     * @param key the key to search for
+     * @return position of the key, or -1 if the key does not exist
+     * @see #keyAt(String, int)
+     */
+    public int indexOf(String key) {
+        return contains(key) ? countBelow(key) : -1;
+    }
+
+    /**
+     * Counts the keys that come before the given string in lexicographic order, in O(m × fan-out).
+     * @param key string to compare with, it does not need to be a key
+     * @return number of keys less than it
+     */
+    int countBelow(String key) {
+        TrieNode<T> currentNode = root;
+        int count = 0;
+
+        for (int i = 0; i < key.length(); i++) {
+            char character = key.charAt(i);
+            // keys ending here, and keys under smaller siblings, come first
+            if (currentNode.isEndOfWord) count++;
+
+            int childIndex = currentNode.lowerBound(character);
+            for (int j = 0; j < childIndex; j++) {
+                count += currentNode.childAt(j).keyCount;
+            }
+
+            currentNode = currentNode.getChild(character);
+            if (currentNode == null) return count;
+        }
+
+        return count;
+    }
+
     // ---
     private void listKeysHelper(
             TrieNode<T> currentNode, List<String> list,
-            StringBuffer stringAssembler, int maxMatches
+            StringBuilder stringAssembler, int maxMatches
     ) {
         if (currentNode.isEndOfWord) list.add(stringAssembler.toString());
 
@@ -371,7 +1258,8 @@ public class Trie<T> {
             return;
         }
 
-        for (TrieNode<T> childNode : currentNode.getChildren()) {
+        for (int i = 0; i < currentNode.childCount; i++) {
+            TrieNode<T> childNode = currentNode.childAt(i);
             // branch into child nodes and append
             listKeysHelper(
                     childNode, list, stringAssembler.append(childNode.character),
@@ -384,41 +1272,1398 @@ public class Trie<T> {
     // ---
 
     /**
-     * Get the value of a key in the Trie.
-     * @param key the key to search for
-     * @return the value associated with the key
+     * Streams all the key-value pairs in the Trie, in lexicographic order of the keys.
+     * @return a lazy stream of entries
+     * @see #entries(String)
      */
-    public T get(String key) {
-        TrieNode<T> currentNode = root;
-        for (char character : key.toCharArray()) {
-            currentNode = currentNode.child.get(character);
-            if (currentNode == null) return null;
-        }
-        return currentNode.isEndOfWord ? currentNode.value : null;
+    public Stream<Map.Entry<String, T>> entries() {
+        return entries("");
     }
 
     /**
-     * Set the value for an existing key in the Trie.
-     * @param key key to search for
-     * @param value value to set as
-     * @return true if value was set, false otherwise (including value does not exist)
+     * Streams the key-value pairs whose keys start with the prefix, in lexicographic order of the keys.
+     * <p>Entries are produced lazily while the stream is consumed, so taking only the first few
+     * does not visit the rest of the Trie. The stream can be made {@link Stream#parallel() parallel},
+     * it splits the work by subtree.</p>
+     * <p>The Trie must not be modified while the stream is consumed, doing so fails with a
+     * {@link ConcurrentModificationException}.</p>
+     * <p><strong>Example:</strong></p>
+     * <blockquote><pre>
+     * trie.entries("Basic").limit(5).forEach(entry -&gt;
+     *         System.out.println(entry.getKey() + " = " + entry.getValue())
+     * );
+     * </pre></blockquote>
+     * @param prefix prefix to match
+     * @return a lazy stream of matching entries
+     * @see #entryIterator(String)
      */
-    public boolean set(String key, T value) {
-        TrieNode<T> currentNode = root;
+    public Stream<Map.Entry<String, T>> entries(String prefix) {
+        return StreamSupport.stream(new EntrySpliterator(findNode(prefix), prefix), false);
+    }
 
-        for (char character : key.toCharArray()) {
-            currentNode = currentNode.child.get(character);
+    /**
+     * Streams the keys that start with the prefix, in lexicographic order.
+     * @param prefix prefix to match
+     * @return a lazy stream of matching keys
+     * @see #entries(String)
+     */
+    public Stream<String> keys(String prefix) {
+        return entries(prefix).map(Map.Entry::getKey);
+    }
 
-            if (currentNode == null) {
-                return false;
+    /**
+     * Iterates over the key-value pairs whose keys start with the prefix, in lexicographic order of the keys.
+     * <p>The traversal uses an explicit stack instead of recursion, and only builds
+     * the key of an entry once it is reached.</p>
+     * @param prefix prefix to match
+     * @return an iterator of matching entries, it does not support {@link Iterator#remove()}
+     * @see #entries(String)
+     */
+    public Iterator<Map.Entry<String, T>> entryIterator(String prefix) {
+        return new EntryIterator(findNode(prefix), prefix);
+    }
+
+    /**
+     * Creates a {@link Cursor} at the root of the Trie, for searching one keystroke at a time.
+     * @return a new cursor with an empty prefix
+     * @see Cursor
+     */
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    /**
+     * A position in the Trie that follows a prefix as it is typed.
+     * <p>The cursor keeps the nodes along its prefix, so {@link #advance(char)} and {@link #back()}
+     * only move one node instead of walking the whole prefix from the root again, and
+     * {@link #completions(int)} lists from the current node directly. Characters that lead
+     * outside the Trie are still tracked, so going back from them works as expected.</p>
+     * <p>If the Trie changes, the cursor walks its prefix again on its next use.
+     * Cursors are cheap to {@link #copy()}, e.g. one per text field.</p>
+     * <p><strong>Example:</strong></p>
+     * <blockquote><pre>
+     * Trie&lt;String&gt;.Cursor cursor = trie.cursor();
+     * searchField.addKeyListener(new KeyAdapter() {
+     *     public void keyTyped(KeyEvent e) {
+     *         if (e.getKeyChar() == '\b') cursor.back(); else cursor.advance(e.getKeyChar());
+     *         suggestions.setListData(cursor.completions(10).toArray(new String[0]));
+     *     }
+     * });
+     * </pre></blockquote>
+     */
+    public final class Cursor {
+        private TrieNode<T>[] nodes;
+        private char[] path;
+
+        /**
+         * Number of characters typed.
+         */
+        private int length;
+
+        /**
+         * Number of typed characters that have a node, {@code nodes[matched]} is the deepest one.
+         */
+        private int matched;
+
+        private int expectedModCount = modCount;
+
+        private Cursor() {
+            nodes = TrieNode.newNodeArray(17);
+            path = new char[16];
+            nodes[0] = root;
+        }
+
+        /**
+         * Adds a character to the prefix.
+         * @param c character to add
+         * @return true if any key starts with the new prefix
+         */
+        public boolean advance(char c) {
+            revalidate();
+            if (length == path.length) {
+                path = Arrays.copyOf(path, length * 2);
+                nodes = Arrays.copyOf(nodes, length * 2 + 1);
             }
+
+            path[length++] = c;
+            if (matched == length - 1) {
+                TrieNode<T> childNode = nodes[matched].getChild(c);
+                if (childNode != null) {
+                    nodes[++matched] = childNode;
+                }
+            }
+            return matched == length;
         }
 
-        if (currentNode.isEndOfWord) {
-            currentNode.value = value;
+        /**
+         * Removes the last character of the prefix.
+         * @return false if the prefix was already empty, true otherwise
+         */
+        public boolean back() {
+            if (length == 0) return false;
+            revalidate();
+
+            length--;
+            if (matched > length) {
+                nodes[matched] = null;
+                matched = length;
+            }
+            return true;
         }
 
-        return currentNode.isEndOfWord;
+        /**
+         * Clears the prefix, moving the cursor back to the root.
+         */
+        public void reset() {
+            Arrays.fill(nodes, 1, matched + 1, null);
+            length = 0;
+            matched = 0;
+            expectedModCount = modCount;
+        }
+
+        /**
+         * Gets the current prefix.
+         * @return the characters typed so far
+         */
+        public String prefix() {
+            return new String(path, 0, length);
+        }
+
+        /**
+         * Checks if any keys start with the current prefix.
+         * @return true if any key starts with or matches the prefix
+         */
+        public boolean exists() {
+            revalidate();
+            return matched == length;
+        }
+
+        /**
+         * Checks if the current prefix is itself a key.
+         * @return true if the prefix is a key in the Trie
+         */
+        public boolean isKey() {
+            return exists() && nodes[matched].isEndOfWord;
+        }
+
+        /**
+         * Gets the value of the current prefix.
+         * @return the value if the prefix is a key, null otherwise
+         */
+        public T value() {
+            return isKey() ? nodes[matched].value : null;
+        }
+
+        /**
+         * Counts the keys that start with the current prefix.
+         * @return number of matching keys
+         */
+        public int completionCount() {
+            return exists() ? nodes[matched].keyCount : 0;
+        }
+
+        /**
+         * Lists the keys that start with the current prefix.
+         * @return all matching keys, in lexicographic order
+         * @see #completions(int)
+         */
+        public List<String> completions() {
+            return completions(-1);
+        }
+
+        /**
+         * Lists the keys that start with the current prefix, with a limit on the number of matches.
+         * @param maxMatches maximum number of matches to return
+         * @return matching keys, in lexicographic order
+         */
+        public List<String> completions(int maxMatches) {
+            List<String> list = new ArrayList<>();
+            if (exists()) {
+                listKeysHelper(nodes[matched], list, new StringBuilder(length + 16).append(path, 0, length), maxMatches);
+            }
+            return list;
+        }
+
+        /**
+         * Creates an independent cursor at the same position.
+         * @return a copy of this cursor
+         */
+        public Cursor copy() {
+            Cursor copy = new Cursor();
+            copy.nodes = nodes.clone();
+            copy.path = path.clone();
+            copy.length = length;
+            copy.matched = matched;
+            copy.expectedModCount = expectedModCount;
+            return copy;
+        }
+
+        @Override
+        public String toString() {
+            return "Cursor[" + prefix() + "]";
+        }
+
+        // ---
+        /**
+         * Walks the prefix again if the Trie changed, since nodes along it may have been removed or added.
+         */
+        private void revalidate() {
+            if (expectedModCount == modCount) return;
+
+            Arrays.fill(nodes, 1, nodes.length, null);
+            matched = 0;
+            while (matched < length) {
+                TrieNode<T> childNode = nodes[matched].getChild(path[matched]);
+                if (childNode == null) break;
+                nodes[++matched] = childNode;
+            }
+            expectedModCount = modCount;
+        }
+        // ---
+    }
+
+    /**
+     * Gets a live view of the keys that start with the prefix, with the prefix cut off.
+     * <p>Nothing is copied: reads start at the node of the prefix, and writes go to this Trie with the
+     * prefix put back in front of the key. The view follows changes made through either side.</p>
+     * <p><strong>Example:</strong></p>
+     * <blockquote><pre>
+     * Trie&lt;String&gt;.SubTrie window = localeKeys.subTrie("BasicSettingsWindow.");
+     * window.insert("title", "Settings"); // adds "BasicSettingsWindow.title"
+     * window.listKeys(); // [title, ...]
+     * window.clear(); // same as localeKeys.removePrefix("BasicSettingsWindow.")
+     * </pre></blockquote>
+     * @param prefix prefix of the keys in the view
+     * @return a view of the keys below the prefix
+     * @see SubTrie
+     */
+    public SubTrie subTrie(String prefix) {
+        return new SubTrie(prefix);
+    }
+
+    /**
+     * A live view of the keys of a Trie below a prefix, see {@link #subTrie(String)}.
+     * <p>Keys passed to and returned by the view do not include the prefix.</p>
+     */
+    public final class SubTrie {
+        private final String prefix;
+
+        /**
+         * Node of the prefix, or null if no key starts with it.
+         */
+        private TrieNode<T> node;
+
+        private int expectedModCount;
+
+        private SubTrie(String prefix) {
+            this.prefix = prefix;
+            this.node = findNode(prefix);
+            this.expectedModCount = modCount;
+        }
+
+        /**
+         * Gets the prefix of the view.
+         * @return the prefix, as given to {@link #subTrie(String)}
+         */
+        public String prefix() {
+            return prefix;
+        }
+
+        /**
+         * Checks if the given key exists below the prefix.
+         * @param key key to check for, without the prefix
+         * @return true if the key exists
+         */
+        public boolean contains(String key) {
+            TrieNode<T> currentNode = find(key);
+            return currentNode != null && currentNode.isEndOfWord;
+        }
+
+        /**
+         * Checks if any keys below the prefix start with the given one.
+         * @param prefix prefix to check for, without the prefix of the view
+         * @return true if any key starts with or matches the prefix
+         */
+        public boolean startsWith(String prefix) {
+            return find(prefix) != null;
+        }
+
+        /**
+         * Get the value of a key below the prefix.
+         * @param key the key to search for, without the prefix
+         * @return the value associated with the key, or null if the key does not exist
+         */
+        public T get(String key) {
+            TrieNode<T> currentNode = find(key);
+            return (currentNode != null && currentNode.isEndOfWord) ? currentNode.value : null;
+        }
+
+        /**
+         * Set the value for an existing key below the prefix.
+         * @param key key to search for, without the prefix
+         * @param value value to set as
+         * @return true if value was set, false otherwise (including value does not exist)
+         */
+        public boolean set(String key, T value) {
+            return Trie.this.set(prefix + key, value);
+        }
+
+        /**
+         * Inserts the given key below the prefix.
+         * @param key key to insert, without the prefix
+         */
+        public void insert(String key) {
+            Trie.this.insert(prefix + key);
+        }
+
+        /**
+         * Inserts the given key-value pair below the prefix.
+         * @param key key to insert, without the prefix
+         * @param value value to associate with the key
+         */
+        public void insert(String key, T value) {
+            Trie.this.insert(prefix + key, value);
+        }
+
+        /**
+         * Removes the given key below the prefix.
+         * @param key key to remove, without the prefix
+         * @return true if the key was removed, false otherwise (including key does not exist)
+         */
+        public boolean remove(String key) {
+            return Trie.this.remove(prefix + key);
+        }
+
+        /**
+         * Gets the number of keys below the prefix, including the prefix itself if it is a key.
+         * @return number of keys
+         */
+        public int size() {
+            TrieNode<T> currentNode = node();
+            return currentNode != null ? currentNode.keyCount : 0;
+        }
+
+        /**
+         * Checks if the view is empty.
+         * @return true if no keys start with the prefix, else false.
+         */
+        public boolean isEmpty() {
+            return size() == 0;
+        }
+
+        /**
+         * Removes all keys in the view from the Trie.
+         * @see Trie#removePrefix(String)
+         */
+        public void clear() {
+            removePrefix(prefix);
+        }
+
+        /**
+         * List the keys below the prefix.
+         * @return A list of all the keys in the view, without the prefix
+         */
+        public List<String> listKeys() {
+            return listKeysMatching("");
+        }
+
+        /**
+         * List the keys below the prefix that match the given one.
+         * @param prefix prefix to match, without the prefix of the view
+         * @return List of all matching keys, without the prefix of the view
+         * @see #listKeysMatching(String, int)
+         */
+        public List<String> listKeysMatching(String prefix) {
+            return listKeysMatching(prefix, -1);
+        }
+
+        /**
+         * List the keys below the prefix that match the given one, with a limit on the number of matches.
+         * @param prefix prefix to match, without the prefix of the view
+         * @param maxMatches maximum number of matches to return
+         * @return List of all matching keys, without the prefix of the view
+         * @see #listKeysMatching(String)
+         */
+        public List<String> listKeysMatching(String prefix, int maxMatches) {
+            List<String> list = new ArrayList<>();
+            TrieNode<T> currentNode = find(prefix);
+            if (currentNode != null) {
+                listKeysHelper(currentNode, list, new StringBuilder(prefix), maxMatches);
+            }
+            return list;
+        }
+
+        /**
+         * Gets a view of the keys below a longer prefix.
+         * @param prefix prefix to add to the prefix of this view
+         * @return a view of the keys below both prefixes
+         */
+        public SubTrie subTrie(String prefix) {
+            return Trie.this.subTrie(this.prefix + prefix);
+        }
+
+        @Override
+        public String toString() {
+            return "SubTrie[" + prefix + "]";
+        }
+
+        // ---
+        /**
+         * Gets the node of the prefix, walking it again if the Trie changed since the last time.
+         */
+        private TrieNode<T> node() {
+            if (expectedModCount != modCount) {
+                node = findNode(prefix);
+                expectedModCount = modCount;
+            }
+            return node;
+        }
+
+        private TrieNode<T> find(String key) {
+            TrieNode<T> currentNode = node();
+
+            for (int i = 0; i < key.length() && currentNode != null; i++) {
+                currentNode = currentNode.getChild(key.charAt(i));
+            }
+
+            return currentNode;
+        }
+        // ---
+    }
+
+    /**
+     * Gets a {@link NavigableMap} view of the Trie, sorted in lexicographic order of the keys.
+     * <p>The view is backed by the Trie, so changes to either are visible in the other.
+     * Seeking to a key, e.g. with {@code ceilingKey} or {@code tailMap}, walks down one path
+     * of the Trie, and iterating a range visits only the keys in it, so large key sets can be
+     * paged through without copying them.</p>
+     * <p><strong>Example:</strong></p>
+     * <blockquote><pre>
+     * NavigableMap&lt;String, String&gt; map = trie.asNavigableMap();
+     * map.subMap("BasicSettingsWindow.", "BasicSettingsWindow.Defaults").keySet();
+     * map.ceilingKey("Main"); // first key at or after "Main"
+     * </pre></blockquote>
+     * @return a live, sorted map view of the Trie
+     * @see #prefixMap(String)
+     */
+    public NavigableMap<String, T> asNavigableMap() {
+        return new TrieNavigableMap<>(this, null, false, null, false, false, null);
+    }
+
+    /**
+     * Gets a {@link NavigableMap} view of the keys that start with the prefix.
+     * <p>Like {@link #asNavigableMap()}, the view is backed by the Trie. Inserting a key that
+     * does not start with the prefix through the view throws {@link IllegalArgumentException}.</p>
+     * @param prefix prefix to match
+     * @return a live, sorted map view of the matching keys
+     * @see #asNavigableMap()
+     */
+    public NavigableMap<String, T> prefixMap(String prefix) {
+        // the smallest string after every string starting with the prefix
+        int end = prefix.length();
+        while (end > 0 && prefix.charAt(end - 1) == Character.MAX_VALUE) end--;
+        String upper = end == 0 ? null : prefix.substring(0, end - 1) + (char) (prefix.charAt(end - 1) + 1);
+
+        return new TrieNavigableMap<>(this, prefix, true, upper, false, false, prefix);
+    }
+
+    /**
+     * Iterates over the whole Trie in lexicographic order, starting at the given key.
+     * @param from key to start from, it does not need to exist
+     * @param inclusive whether {@code from} itself is included if it is a key
+     * @return an iterator of the entries after {@code from}
+     */
+    Iterator<Map.Entry<String, T>> entryIteratorFrom(String from, boolean inclusive) {
+        return new EntryIterator(from, inclusive);
+    }
+
+    /**
+     * Finds the smallest key after (or at) the given one.
+     * @param key key to compare with, it does not need to exist
+     * @param inclusive whether the key itself can be returned
+     * @return the key, or null if there is none
+     */
+    String ceilingKey(String key, boolean inclusive) {
+        Iterator<Map.Entry<String, T>> iterator = entryIteratorFrom(key, inclusive);
+        return iterator.hasNext() ? iterator.next().getKey() : null;
+    }
+
+    /**
+     * Finds the largest key before (or at) the given one.
+     * @param key key to compare with, it does not need to exist
+     * @param inclusive whether the key itself can be returned
+     * @return the key, or null if there is none
+     */
+    String floorKey(String key, boolean inclusive) {
+        List<TrieNode<T>> path = new ArrayList<>();
+        TrieNode<T> currentNode = root;
+        path.add(currentNode);
+
+        for (int i = 0; i < key.length(); i++) {
+            currentNode = currentNode.getChild(key.charAt(i));
+            if (currentNode == null) break;
+            path.add(currentNode);
+        }
+
+        int depth = path.size() - 1;
+        if (depth == key.length()) {
+            if (inclusive && path.get(depth).isEndOfWord) return key;
+            depth--; // everything below the key itself is after it
+        }
+
+        // back up until there is a smaller sibling subtree, or a key that is a prefix of this one
+        for (; depth >= 0; depth--) {
+            TrieNode<T> node = path.get(depth);
+            int childIndex = node.lowerBound(key.charAt(depth));
+
+            if (childIndex > 0) {
+                StringBuilder stringAssembler = new StringBuilder(key.substring(0, depth));
+                TrieNode<T> child = node.childAt(childIndex - 1);
+                stringAssembler.append(child.character);
+                return lastKeyHelper(child, stringAssembler);
+            }
+            if (node.isEndOfWord) {
+                return key.substring(0, depth);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Finds the largest key in the Trie.
+     * @return the key, or null if the Trie is empty
+     */
+    String lastKey() {
+        return lastKeyHelper(root, new StringBuilder());
+    }
+
+    // ---
+    /**
+     * Follows the last child down to a leaf, which always ends the largest key of the subtree.
+     */
+    private String lastKeyHelper(TrieNode<T> currentNode, StringBuilder stringAssembler) {
+        while (!currentNode.isEmpty()) {
+            currentNode = currentNode.childAt(currentNode.childCount - 1);
+            stringAssembler.append(currentNode.character);
+        }
+        return currentNode.isEndOfWord ? stringAssembler.toString() : null;
+    }
+    // ---
+
+    // ---
+    /**
+     * Depth first iterator over a subtree, keeping the path in arrays instead of on the call stack.
+     */
+    private final class EntryIterator implements Iterator<Map.Entry<String, T>> {
+        private final int expectedModCount = modCount;
+        private final int prefixLength;
+
+        private TrieNode<T>[] nodeStack;
+        private int[] childIndexStack;
+        private int depth;
+        private char[] path;
+
+        private Map.Entry<String, T> next;
+
+        EntryIterator(TrieNode<T> startNode, String prefix) {
+            prefixLength = prefix.length();
+            if (startNode == null) return;
+
+            nodeStack = TrieNode.newNodeArray(16);
+            childIndexStack = new int[16];
+            path = Arrays.copyOf(prefix.toCharArray(), prefixLength + 16);
+
+            nodeStack[0] = startNode;
+            depth = 1;
+            if (startNode.isEndOfWord) {
+                next = entry(startNode);
+            } else {
+                advance();
+            }
+        }
+
+        /**
+         * Creates an iterator over the whole Trie, positioned at the first key after (or at) the given one.
+         * @param from key to start from, it does not need to exist
+         * @param inclusive whether {@code from} itself is included if it is a key
+         */
+        EntryIterator(String from, boolean inclusive) {
+            prefixLength = 0;
+            nodeStack = TrieNode.newNodeArray(16);
+            childIndexStack = new int[16];
+            path = new char[16];
+
+            nodeStack[0] = root;
+            depth = 1;
+
+            for (int i = 0; i < from.length(); i++) {
+                TrieNode<T> currentNode = nodeStack[depth - 1];
+                char c = from.charAt(i);
+                int childIndex = currentNode.lowerBound(c);
+
+                if (childIndex == currentNode.childCount || currentNode.childAt(childIndex).character != c) {
+                    // every key left in this subtree is past from
+                    childIndexStack[depth - 1] = childIndex;
+                    advance();
+                    return;
+                }
+
+                // keys on the way down are prefixes of from, so they come before it
+                childIndexStack[depth - 1] = childIndex + 1;
+                push(currentNode.childAt(childIndex));
+            }
+
+            TrieNode<T> lastNode = nodeStack[depth - 1];
+            if (inclusive && lastNode.isEndOfWord) {
+                next = entry(lastNode);
+            } else {
+                advance();
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Map.Entry<String, T> next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+
+            Map.Entry<String, T> entry = next;
+            advance();
+            return entry;
+        }
+
+        private void advance() {
+            next = null;
+
+            while (depth > 0) {
+                TrieNode<T> currentNode = nodeStack[depth - 1];
+                int childIndex = childIndexStack[depth - 1];
+
+                if (childIndex == currentNode.childCount) {
+                    depth--; // subtree done
+                    continue;
+                }
+                childIndexStack[depth - 1] = childIndex + 1;
+
+                TrieNode<T> childNode = currentNode.childAt(childIndex);
+                push(childNode);
+
+                if (childNode.isEndOfWord) {
+                    next = entry(childNode);
+                    return;
+                }
+            }
+        }
+
+        private void push(TrieNode<T> node) {
+            if (depth == nodeStack.length) {
+                nodeStack = Arrays.copyOf(nodeStack, depth * 2);
+                childIndexStack = Arrays.copyOf(childIndexStack, depth * 2);
+            }
+            int pathLength = prefixLength + depth - 1;
+            if (pathLength == path.length) {
+                path = Arrays.copyOf(path, pathLength * 2);
+            }
+
+            nodeStack[depth] = node;
+            childIndexStack[depth] = 0;
+            path[pathLength] = node.character;
+            depth++;
+        }
+
+        private Map.Entry<String, T> entry(TrieNode<T> node) {
+            return new AbstractMap.SimpleImmutableEntry<>(
+                    new String(path, 0, prefixLength + depth - 1), node.value
+            );
+        }
+    }
+
+    /**
+     * Spliterator over a subtree that splits by handing out whole child subtrees.
+     * <p>It holds an ordered queue of pending work, each item being a subtree or the single key
+     * of a node, and iterates the current subtree with an {@link EntryIterator}. Splitting gives
+     * away the first half of the work, expanding a lone subtree into its children when needed.</p>
+     */
+    private final class EntrySpliterator implements Spliterator<Map.Entry<String, T>> {
+        private final int expectedModCount = modCount;
+
+        /**
+         * An item of pending work, a whole subtree, or only the node's own key once it has been
+         * expanded into its children.
+         */
+        private record Frame<V>(TrieNode<V> node, String prefix, boolean expanded) {}
+
+        private final ArrayDeque<Frame<T>> pending = new ArrayDeque<>();
+        private EntryIterator current;
+
+        /**
+         * Keys left in {@link #current} and {@link #pending}, known from the key counts of the nodes.
+         */
+        private long remaining;
+
+        EntrySpliterator(TrieNode<T> startNode, String prefix) {
+            if (startNode != null) {
+                pending.add(new Frame<>(startNode, prefix, false));
+                remaining = startNode.keyCount;
+            }
+        }
+
+        private EntrySpliterator(EntryIterator current, Collection<Frame<T>> pending, long remaining) {
+            this.current = current;
+            this.pending.addAll(pending);
+            this.remaining = remaining;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Map.Entry<String, T>> action) {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+
+            while (true) {
+                if (current != null && current.hasNext()) {
+                    remaining--;
+                    action.accept(current.next());
+                    return true;
+                }
+                current = null;
+
+                Frame<T> frame = pending.pollFirst();
+                if (frame == null) {
+                    return false;
+                }
+
+                if (frame.expanded()) {
+                    remaining--;
+                    action.accept(new AbstractMap.SimpleImmutableEntry<>(frame.prefix(), frame.node().value));
+                    return true;
+                }
+                current = new EntryIterator(frame.node(), frame.prefix());
+            }
+        }
+
+        @Override
+        public Spliterator<Map.Entry<String, T>> trySplit() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+
+            // replace a lone subtree by its own key and its children, until there is something to share
+            while (current == null && pending.size() == 1 && !pending.peekFirst().expanded()) {
+                Frame<T> frame = pending.pollFirst();
+                TrieNode<T> node = frame.node();
+
+                if (node.isEndOfWord) {
+                    pending.add(new Frame<>(node, frame.prefix(), true));
+                }
+                for (int i = 0; i < node.childCount; i++) {
+                    TrieNode<T> childNode = node.childAt(i);
+                    pending.add(new Frame<>(childNode, frame.prefix() + childNode.character, false));
+                }
+            }
+
+            int share = (pending.size() + (current != null ? 1 : 0)) / 2;
+            if (share == 0 || pending.isEmpty()) {
+                return null;
+            }
+
+            // the split off part has to come first in encounter order
+            List<Frame<T>> prefixItems = new ArrayList<>();
+            long splitRemaining = remaining;
+            for (int i = (current != null ? 1 : 0); i < share; i++) {
+                prefixItems.add(pending.pollFirst());
+            }
+            for (Frame<T> frame : pending) {
+                splitRemaining -= frame.expanded() ? 1 : frame.node().keyCount;
+            }
+
+            EntrySpliterator split = new EntrySpliterator(current, prefixItems, splitRemaining);
+            remaining -= splitRemaining;
+            current = null;
+            return split;
+        }
+
+        @Override
+        public long estimateSize() {
+            return remaining;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | DISTINCT | NONNULL | SIZED | SUBSIZED;
+        }
+    }
+    // ---
+
+    /**
+     * Get the value of a key in the Trie.
+     * @param key the key to search for
+     * @return the value associated with the key
+     */
+    public T get(String key) {
+        TrieNode<T> currentNode = findNode(key);
+        return (currentNode != null && currentNode.isEndOfWord) ? currentNode.value : null;
+    }
+
+    /**
+     * Set the value for an existing key in the Trie.
+     * @param key key to search for
+     * @param value value to set as
+     * @return true if value was set, false otherwise (including value does not exist)
+     */
+    public boolean set(String key, T value) {
+        TrieNode<T> currentNode = findNode(key);
+
+        if (currentNode == null) {
+            return false;
+        }
+
+        if (currentNode.isEndOfWord) {
+            currentNode.value = value;
+        }
+
+        return currentNode.isEndOfWord;
+    }
+
+    /**
+     * Get the weight of a key in the Trie.
+     * @param key the key to search for
+     * @return the weight of the key, or -1 if the key does not exist
+     * @see #insert(String, Object, long)
+     */
+    public long getWeight(String key) {
+        TrieNode<T> currentNode = findNode(key);
+        return (currentNode != null && currentNode.isEndOfWord) ? currentNode.weight : -1;
+    }
+
+    /**
+     * Set the weight for an existing key in the Trie.
+     * @param key key to search for
+     * @param weight weight to set as, must not be negative
+     * @return true if the weight was set, false otherwise (including key does not exist)
+     * @throws IllegalArgumentException if the weight is negative
+     * @see #topK(String, int)
+     */
+    public boolean setWeight(String key, long weight) {
+        checkWeight(weight);
+        if (!contains(key)) {
+            return false;
+        }
+
+        insert(key, get(key), weight);
+        return true;
+    }
+
+    /**
+     * Lists the keys with the highest weights that start with the prefix, highest weight first.
+     * Keys with the same weight are listed in lexicographic order.
+     * <p>This is a best-first search guided by the highest weight cached in every node,
+     * so only the branches that can still contain one of the top keys are visited,
+     * no matter how many keys share the prefix.</p>
+     * <p><strong>Example:</strong></p>
+     * <blockquote><pre>
+     * trie.insert("apple", null, 10);
+     * trie.insert("apricot", null, 30);
+     * trie.insert("app", null, 20);
+     * trie.topK("ap", 2); // [apricot, app]
+     * </pre></blockquote>
+     * @param prefix prefix to match
+     * @param k maximum number of keys to return
+     * @return List of up to k matching keys, ordered by weight
+     * @see #insert(String, Object, long)
+     */
+    public List<String> topK(String prefix, int k) {
+        List<String> list = new ArrayList<>();
+        TrieNode<T> startNode = findNode(prefix);
+        if (startNode == null || k <= 0) {
+            return list;
+        }
+
+        PriorityQueue<RankedEntry<T>> queue = new PriorityQueue<>();
+        queue.add(new RankedEntry<>(startNode, prefix, startNode.maxWeight, false));
+
+        while (!queue.isEmpty() && list.size() < k) {
+            RankedEntry<T> entry = queue.poll();
+
+            if (entry.isKey) {
+                list.add(entry.key);
+                continue;
+            }
+
+            TrieNode<T> currentNode = entry.node;
+            if (currentNode.isEndOfWord) {
+                queue.add(new RankedEntry<>(currentNode, entry.key, currentNode.weight, true));
+            }
+            for (int i = 0; i < currentNode.childCount; i++) {
+                TrieNode<T> childNode = currentNode.childAt(i);
+                queue.add(new RankedEntry<>(
+                        childNode, entry.key + childNode.character, childNode.maxWeight, false
+                ));
+            }
+        }
+
+        return list;
+    }
+
+    /**
+     * Finds the keys within the given Levenshtein distance of the query, for "did you mean" suggestions.
+     *
+     * @param query the string to compare keys to
+     * @param maxEdits maximum number of single character insertions, deletions or substitutions
+     * @return List of matching keys, closest first
+     *
+     * @see #searchWithinDistance(String, int, boolean)
+     */
+    public List<String> searchWithinDistance(String query, int maxEdits) {
+        return searchWithinDistance(query, maxEdits, false);
+    }
+
+    /**
+     * Finds the keys within the given edit distance of the query, for "did you mean" suggestions.
+     * <p>One row of the edit distance table is computed per level of the Trie, and shared by
+     * every key below that node. A branch is abandoned as soon as every value in its row exceeds
+     * {@code maxEdits}, so only the part of the Trie close to the query is visited.</p>
+     * <p><strong>Example:</strong></p>
+     * <blockquote><pre>
+     * trie.insert(List.of("--help", "--debug", "--hello"));
+     * trie.searchWithinDistance("--hlep", 2, true); // [--help]
+     * </pre></blockquote>
+     *
+     * @param query the string to compare keys to
+     * @param maxEdits maximum number of edits
+     * @param transpositions true to also count swapping two adjacent characters as one edit
+     *                       (Damerau-Levenshtein, optimal string alignment), false for Levenshtein
+     * @return List of matching keys, ordered by distance and then lexicographically
+     *
+     * @see #searchWithinDistance(String, int)
+     */
+    public List<String> searchWithinDistance(String query, int maxEdits, boolean transpositions) {
+        if (maxEdits < 0) {
+            return new ArrayList<>();
+        }
+        DistanceMatches matches = new DistanceMatches();
+
+        // keys longer than the query by more than maxEdits can never match, rows are added as
+        // the search gets deeper, so a huge maxEdits is bounded by the height of the Trie instead
+        long maxDepth = (long) query.length() + maxEdits;
+        List<int[]> rows = new ArrayList<>();
+        rows.add(new int[query.length() + 1]);
+        for (int j = 0; j <= query.length(); j++) {
+            rows.get(0)[j] = j;
+        }
+
+        if (root.isEndOfWord && query.length() <= maxEdits) {
+            matches.add("", query.length());
+        }
+
+        StringBuilder stringAssembler = new StringBuilder();
+        for (int i = 0; i < root.childCount; i++) {
+            distanceSearchHelper(
+                    root.childAt(i), 1, query, maxEdits, maxDepth, transpositions,
+                    rows, stringAssembler, matches
+            );
+        }
+
+        return matches.sortedKeys();
+    }
+
+    // ---
+    private void distanceSearchHelper(
+            TrieNode<T> currentNode, int depth, String query, int maxEdits, long maxDepth, boolean transpositions,
+            List<int[]> rows, StringBuilder stringAssembler, DistanceMatches matches
+    ) {
+        char character = currentNode.character;
+        stringAssembler.append(character);
+
+        if (depth == rows.size()) {
+            rows.add(new int[query.length() + 1]);
+        }
+        int[] row = rows.get(depth);
+        int[] previousRow = rows.get(depth - 1);
+        int queryLength = query.length();
+
+        row[0] = depth;
+        int rowMin = depth;
+
+        for (int j = 1; j <= queryLength; j++) {
+            int cost = query.charAt(j - 1) == character ? 0 : 1;
+            int distance = Math.min(
+                    Math.min(previousRow[j] + 1, row[j - 1] + 1),
+                    previousRow[j - 1] + cost
+            );
+
+            if (transpositions && depth > 1 && j > 1
+                    && query.charAt(j - 1) == stringAssembler.charAt(depth - 2)
+                    && query.charAt(j - 2) == character
+            ) {
+                distance = Math.min(distance, rows.get(depth - 2)[j - 2] + 1);
+            }
+
+            row[j] = distance;
+            rowMin = Math.min(rowMin, distance);
+        }
+
+        if (currentNode.isEndOfWord && row[queryLength] <= maxEdits) {
+            matches.add(stringAssembler.toString(), row[queryLength]);
+        }
+
+        // no extension of this branch can get back under the limit
+        if (rowMin <= maxEdits && depth < maxDepth) {
+            for (int i = 0; i < currentNode.childCount; i++) {
+                distanceSearchHelper(
+                        currentNode.childAt(i), depth + 1, query, maxEdits, maxDepth, transpositions,
+                        rows, stringAssembler, matches
+                );
+            }
+        }
+
+        stringAssembler.setLength(depth - 1);
+    }
+
+    /**
+     * Keys found by {@link #searchWithinDistance(String, int, boolean)} with their distances,
+     * kept in a primitive array so sorting them does not box.
+     */
+    private static final class DistanceMatches {
+        final List<String> keys = new ArrayList<>();
+        int[] distances = new int[16];
+
+        void add(String key, int distance) {
+            int size = keys.size();
+            if (size == distances.length) {
+                distances = Arrays.copyOf(distances, size * 2);
+            }
+            distances[size] = distance;
+            keys.add(key);
+        }
+
+        /**
+         * Gets the keys ordered by distance. They were found in lexicographic order, and packing
+         * the index below the distance keeps that order for equal distances.
+         */
+        List<String> sortedKeys() {
+            long[] packed = new long[keys.size()];
+            for (int i = 0; i < packed.length; i++) {
+                packed[i] = ((long) distances[i] << 32) | i;
+            }
+            Arrays.sort(packed);
+
+            List<String> sorted = new ArrayList<>(packed.length);
+            for (long entry : packed) {
+                sorted.add(keys.get((int) entry));
+            }
+            return sorted;
+        }
+    }
+    // ---
+
+    // ---
+    /**
+     * Queue entry of {@link #topK(String, int)}, either a single key or a whole subtree.
+     */
+    private static final class RankedEntry<T> implements Comparable<RankedEntry<T>> {
+        final TrieNode<T> node;
+        final String key;
+        final long weight;
+        final boolean isKey;
+
+        RankedEntry(TrieNode<T> node, String key, long weight, boolean isKey) {
+            this.node = node;
+            this.key = key;
+            this.weight = weight;
+            this.isKey = isKey;
+        }
+
+        @Override
+        public int compareTo(RankedEntry<T> other) {
+            if (weight != other.weight) {
+                return Long.compare(other.weight, weight);
+            }
+            // a subtree may hold keys that sort before a single key, unless its path already sorts after it
+            int byKey = key.compareTo(other.key);
+            if (byKey != 0) {
+                return byKey;
+            }
+            return Boolean.compare(other.isKey, isKey);
+        }
+    }
+
+    /**
+     * Adds to the key counts of the nodes along the key, as far as they exist.
+     */
+    private void adjustKeyCounts(String key, int delta) {
+        TrieNode<T> currentNode = root;
+        currentNode.keyCount += delta;
+
+        for (int i = 0; i < key.length(); i++) {
+            currentNode = currentNode.getChild(key.charAt(i));
+            if (currentNode == null) return;
+            currentNode.keyCount += delta;
+        }
+    }
+
+    private static void checkWeight(long weight) {
+        if (weight < 0) {
+            throw new IllegalArgumentException("Weight must not be negative: " + weight);
+        }
+    }
+
+    /**
+     * Recalculates the cached highest weights along the path of the key, bottom up.
+     */
+    private void refreshMaxWeight(TrieNode<T> currentNode, String key, int index) {
+        if (index < key.length()) {
+            TrieNode<T> childNode = currentNode.getChild(key.charAt(index));
+            if (childNode != null) {
+                refreshMaxWeight(childNode, key, index + 1);
+            }
+        }
+        currentNode.updateMaxWeight();
+    }
+    // ---
+
+    /**
+     * Creates a new Trie with the keys of this Trie and the other one.
+     * <p>Both tries are walked in lockstep, a subtree only one of them has is copied as a whole
+     * without looking up its keys again. Neither Trie is changed.</p>
+     * <p><strong>Example:</strong></p>
+     * <blockquote><pre>
+     * Trie&lt;CommandInterface&gt; all = builtInCommands.union(pluginCommands);
+     * </pre></blockquote>
+     * @param other the other Trie
+     * @return a new Trie with the keys of both; for keys in both, the value and weight of this Trie are kept
+     * @see #merge(Trie, BinaryOperator)
+     */
+    public Trie<T> union(Trie<? extends T> other) {
+        return combine(other, UNION);
+    }
+
+    /**
+     * Creates a new Trie with the keys that are in both this Trie and the other one.
+     * <p>Only the branches both tries share are walked, the cost depends on the overlap
+     * and not on the size of either Trie.</p>
+     * @param other the other Trie
+     * @return a new Trie with the values and weights of this Trie
+     */
+    public Trie<T> intersect(Trie<?> other) {
+        return combine(other, INTERSECT);
+    }
+
+    /**
+     * Creates a new Trie with the keys of this Trie that are not in the other one.
+     * <p>A subtree the other Trie does not have is copied as a whole.</p>
+     * <p><strong>Example:</strong></p>
+     * <blockquote><pre>
+     * Trie&lt;String&gt; untranslated = defaultLocaleKeys.difference(overrideKeys);
+     * </pre></blockquote>
+     * @param other the other Trie
+     * @return a new Trie with the values and weights of this Trie
+     */
+    public Trie<T> difference(Trie<?> other) {
+        return combine(other, DIFFERENCE);
+    }
+
+    /**
+     * Adds the keys of the other Trie to this one, walking both in lockstep.
+     * <p>A subtree this Trie does not have yet is copied as a whole. The other Trie is not changed.</p>
+     * <p><strong>Example:</strong></p>
+     * <blockquote><pre>
+     * localeKeys.merge(overrideKeys, (defaultText, overrideText) -&gt; overrideText);
+     * </pre></blockquote>
+     * @param other the Trie to add the keys of
+     * @param resolver gets the value of this Trie and of the other Trie for keys that are in both,
+     *                 and returns the value to keep. The weight of this Trie is kept.
+     * @return true if any keys were added, false otherwise
+     */
+    public boolean merge(Trie<? extends T> other, BinaryOperator<T> resolver) {
+        Objects.requireNonNull(resolver);
+        int added = mergeHelper(root, other.root, resolver);
+        if (added > 0) {
+            modCount++;
+        }
+        return added > 0;
+    }
+
+    // ---
+    private static final int UNION = 0;
+    private static final int INTERSECT = 1;
+    private static final int DIFFERENCE = 2;
+
+    private <U> Trie<T> combine(Trie<U> other, int operation) {
+        Trie<T> result = new Trie<>();
+        TrieNode<T> node = combineHelper(root, other.root, operation);
+        if (node != null) {
+            result.root = node;
+        }
+        return result;
+    }
+
+    /**
+     * Builds the combined node of two nodes with the same path, either may be null.
+     * @return the new node, or null if it would not lead to any key
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> TrieNode<T> combineHelper(TrieNode<? extends T> a, TrieNode<?> b, int operation) {
+        if (b == null) {
+            return operation == INTERSECT ? null : copySubtree(a);
+        }
+        if (a == null) {
+            // b's values are only ever used by union, where they extend T
+            return operation == UNION ? copySubtree((TrieNode<? extends T>) b) : null;
+        }
+
+        TrieNode<T> node = new TrieNode<>(a.character);
+        boolean isEndOfWord = switch (operation) {
+            case UNION -> a.isEndOfWord || b.isEndOfWord;
+            case INTERSECT -> a.isEndOfWord && b.isEndOfWord;
+            default -> a.isEndOfWord && !b.isEndOfWord;
+        };
+        if (isEndOfWord) {
+            TrieNode<? extends T> source = a.isEndOfWord ? a : (TrieNode<? extends T>) b;
+            node.isEndOfWord = true;
+            node.value = source.value;
+            node.weight = source.weight;
+        }
+
+        // children of both are in character order, walk them like a merge
+        int i = 0;
+        int j = 0;
+        while (i < a.childCount || j < b.childCount) {
+            TrieNode<? extends T> childA = i < a.childCount ? a.childAt(i) : null;
+            TrieNode<?> childB = j < b.childCount ? b.childAt(j) : null;
+
+            if (childB == null || (childA != null && childA.character < childB.character)) {
+                childB = null;
+                i++;
+            } else if (childA == null || childB.character < childA.character) {
+                childA = null;
+                j++;
+            } else {
+                i++;
+                j++;
+            }
+
+            TrieNode<T> child = combineHelper(childA, childB, operation);
+            if (child != null) {
+                node.addChild(child);
+            }
+        }
+
+        if (!node.isEndOfWord && node.isEmpty()) {
+            return null;
+        }
+        updateCounts(node);
+        return node;
+    }
+
+    /**
+     * Adds the keys below {@code other} to {@code currentNode}.
+     * @return number of keys added
+     */
+    private static <T> int mergeHelper(TrieNode<T> currentNode, TrieNode<? extends T> other, BinaryOperator<T> resolver) {
+        int added = 0;
+
+        if (other.isEndOfWord) {
+            if (currentNode.isEndOfWord) {
+                currentNode.value = resolver.apply(currentNode.value, other.value);
+            } else {
+                currentNode.isEndOfWord = true;
+                currentNode.value = other.value;
+                currentNode.weight = other.weight;
+                added++;
+            }
+        }
+
+        for (int i = 0; i < other.childCount; i++) {
+            TrieNode<? extends T> otherChild = other.childAt(i);
+            TrieNode<T> child = currentNode.getChild(otherChild.character);
+
+            if (child == null) {
+                currentNode.addChild(copySubtree(otherChild));
+                added += otherChild.keyCount;
+            } else {
+                added += mergeHelper(child, otherChild, resolver);
+            }
+        }
+
+        updateCounts(currentNode);
+        return added;
+    }
+
+    private static <T> TrieNode<T> copySubtree(TrieNode<? extends T> source) {
+        TrieNode<T> node = new TrieNode<>(source.character);
+        node.isEndOfWord = source.isEndOfWord;
+        node.value = source.value;
+        node.weight = source.weight;
+        node.maxWeight = source.maxWeight;
+        node.keyCount = source.keyCount;
+
+        for (int i = 0; i < source.childCount; i++) {
+            node.addChild(copySubtree(source.childAt(i)));
+        }
+        return node;
+    }
+
+    /**
+     * Recalculates the key count and highest weight of a node from its own key and its children.
+     */
+    private static <T> void updateCounts(TrieNode<T> node) {
+        int keyCount = node.isEndOfWord ? 1 : 0;
+        for (int i = 0; i < node.childCount; i++) {
+            keyCount += node.childAt(i).keyCount;
+        }
+        node.keyCount = keyCount;
+        node.updateMaxWeight();
+    }
+    // ---
+
+    /**
+     * Compiles the Trie into an immutable {@link FrozenTrie}.
+     * <p>The FrozenTrie is a snapshot, later changes to this Trie are not reflected in it.
+     * Use this for tries that are built once and then only queried, possibly from many threads.</p>
+     * @return a FrozenTrie containing the same key-value pairs
+     * @see FrozenTrie
+     */
+    public FrozenTrie<T> freeze() {
+        // level order: the children of every node end up next to each other
+        List<TrieNode<T>> order = new ArrayList<>();
+        order.add(root);
+        for (int i = 0; i < order.size(); i++) {
+            TrieNode<T> currentNode = order.get(i);
+            for (int j = 0; j < currentNode.childCount; j++) {
+                order.add(currentNode.childAt(j));
+            }
+        }
+
+        int nodeCount = order.size();
+        char[] labels = new char[nodeCount];
+        int[] childStart = new int[nodeCount + 1];
+        long[] terminal = new long[(nodeCount + 63) >>> 6];
+        List<Object> values = new ArrayList<>();
+
+        int nextChild = 1;
+        for (int i = 0; i < nodeCount; i++) {
+            TrieNode<T> currentNode = order.get(i);
+            labels[i] = currentNode.character;
+            childStart[i] = nextChild;
+            nextChild += currentNode.childCount;
+
+            if (currentNode.isEndOfWord) {
+                terminal[i >>> 6] |= 1L << i;
+                values.add(currentNode.value);
+            }
+        }
+        childStart[nodeCount] = nextChild;
+
+        return new FrozenTrie<>(labels, childStart, terminal, values.toArray());
     }
 
 }
@@ -0,0 +1,571 @@
+// dro1dDev - created: 2026-10-16
+
+package com.everdro1d.libs.structs;
+
+import java.util.*;
+
+/**
+ * A {@link NavigableMap} view of a range of a {@link Trie}, created with {@link Trie#asNavigableMap()}
+ * or {@link Trie#prefixMap(String)}.
+ * <p>The range is kept as bounds in ascending order, whether or not the view is descending.
+ * Ascending iteration walks the Trie with a single iterator, descending iteration seeks the
+ * previous key for each step.</p>
+ *
+ * @param <T> the type of value stored in the Trie
+ */
+final class TrieNavigableMap<T> extends AbstractMap<String, T> implements NavigableMap<String, T> {
+    private final Trie<T> trie;
+
+    /**
+     * Lowest and highest allowed keys, null if unbounded.
+     */
+    private final String lo, hi;
+    private final boolean loInclusive, hiInclusive;
+    private final boolean descending;
+
+    /**
+     * Prefix all keys in the range start with, if the view was created by {@link Trie#prefixMap(String)}, else null.
+     */
+    private final String prefix;
+
+    TrieNavigableMap(Trie<T> trie, String lo, boolean loInclusive, String hi, boolean hiInclusive, boolean descending, String prefix) {
+        this.trie = trie;
+        this.lo = lo;
+        this.loInclusive = loInclusive;
+        this.hi = hi;
+        this.hiInclusive = hiInclusive;
+        this.descending = descending;
+        this.prefix = prefix;
+    }
+
+    // ---
+    private boolean tooLow(String key) {
+        if (lo == null) return false;
+        int c = key.compareTo(lo);
+        return c < 0 || (c == 0 && !loInclusive);
+    }
+
+    private boolean tooHigh(String key) {
+        if (hi == null) return false;
+        int c = key.compareTo(hi);
+        return c > 0 || (c == 0 && !hiInclusive);
+    }
+
+    private boolean inRange(String key) {
+        return !tooLow(key) && !tooHigh(key);
+    }
+
+    private boolean inRange(String key, boolean inclusive) {
+        if (inclusive) return inRange(key);
+        return (lo == null || lo.compareTo(key) <= 0) && (hi == null || key.compareTo(hi) <= 0);
+    }
+
+    private String absLowest() {
+        String key = trie.ceilingKey(lo == null ? "" : lo, lo == null || loInclusive);
+        return key != null && !tooHigh(key) ? key : null;
+    }
+
+    private String absHighest() {
+        String key = hi == null ? trie.lastKey() : trie.floorKey(hi, hiInclusive);
+        return key != null && !tooLow(key) ? key : null;
+    }
+
+    private String absCeiling(String key, boolean inclusive) {
+        if (tooLow(key)) return absLowest();
+        String found = trie.ceilingKey(key, inclusive);
+        return found != null && !tooHigh(found) ? found : null;
+    }
+
+    private String absFloor(String key, boolean inclusive) {
+        if (tooHigh(key)) return absHighest();
+        String found = trie.floorKey(key, inclusive);
+        return found != null && !tooLow(found) ? found : null;
+    }
+
+    private Map.Entry<String, T> entryOf(String key) {
+        return key == null ? null : new AbstractMap.SimpleImmutableEntry<>(key, trie.get(key));
+    }
+
+    private static String keyOrThrow(String key) {
+        if (key == null) throw new NoSuchElementException();
+        return key;
+    }
+
+    private TrieNavigableMap<T> subView(String fromKey, boolean fromInclusive, String toKey, boolean toInclusive) {
+        if (fromKey != null && toKey != null && fromKey.compareTo(toKey) > 0) {
+            throw new IllegalArgumentException("fromKey > toKey");
+        }
+        if (fromKey != null && !inRange(fromKey, fromInclusive)) {
+            throw new IllegalArgumentException("fromKey out of range");
+        }
+        if (toKey != null && !inRange(toKey, toInclusive)) {
+            throw new IllegalArgumentException("toKey out of range");
+        }
+
+        return new TrieNavigableMap<>(
+                trie,
+                fromKey != null ? fromKey : lo, fromKey != null ? fromInclusive : loInclusive,
+                toKey != null ? toKey : hi, toKey != null ? toInclusive : hiInclusive,
+                descending, (fromKey == null && toKey == null) ? prefix : null
+        );
+    }
+    // ---
+
+    @Override
+    public T get(Object key) {
+        return key instanceof String s && inRange(s) ? trie.get(s) : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key instanceof String s && inRange(s) && trie.contains(s);
+    }
+
+    @Override
+    public T put(String key, T value) {
+        if (!inRange(key)) {
+            throw new IllegalArgumentException("key out of range");
+        }
+        T previous = trie.get(key);
+        trie.insert(key, value);
+        return previous;
+    }
+
+    @Override
+    public T remove(Object key) {
+        if (!containsKey(key)) return null;
+
+        String s = (String) key;
+        T previous = trie.get(s);
+        trie.remove(s);
+        return previous;
+    }
+
+    @Override
+    public void clear() {
+        if (lo == null && hi == null) {
+            trie.clear();
+        } else {
+            for (Iterator<Map.Entry<String, T>> iterator = new RangeIterator(); iterator.hasNext(); ) {
+                iterator.next();
+                iterator.remove();
+            }
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return absLowest() == null;
+    }
+
+    @Override
+    public int size() {
+        // a prefix is a single subtree, any other range is a difference of ranks
+        if (prefix != null) {
+            return trie.countWithPrefix(prefix);
+        }
+
+        int below = (lo == null) ? 0 : trie.countBelow(lo) + (!loInclusive && trie.contains(lo) ? 1 : 0);
+        int upTo = (hi == null) ? trie.countWithPrefix("") : trie.countBelow(hi) + (hiInclusive && trie.contains(hi) ? 1 : 0);
+        return Math.max(0, upTo - below);
+    }
+
+    @Override
+    public Set<Map.Entry<String, T>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Map.Entry<String, T>> iterator() {
+                return new RangeIterator();
+            }
+
+            @Override
+            public int size() {
+                return TrieNavigableMap.this.size();
+            }
+
+            @Override
+            public boolean isEmpty() {
+                return TrieNavigableMap.this.isEmpty();
+            }
+
+            @Override
+            public void clear() {
+                TrieNavigableMap.this.clear();
+            }
+        };
+    }
+
+    @Override
+    public Comparator<? super String> comparator() {
+        return descending ? Comparator.reverseOrder() : null;
+    }
+
+    @Override
+    public String firstKey() {
+        return keyOrThrow(descending ? absHighest() : absLowest());
+    }
+
+    @Override
+    public String lastKey() {
+        return keyOrThrow(descending ? absLowest() : absHighest());
+    }
+
+    @Override
+    public String lowerKey(String key) {
+        return descending ? absCeiling(key, false) : absFloor(key, false);
+    }
+
+    @Override
+    public String floorKey(String key) {
+        return descending ? absCeiling(key, true) : absFloor(key, true);
+    }
+
+    @Override
+    public String ceilingKey(String key) {
+        return descending ? absFloor(key, true) : absCeiling(key, true);
+    }
+
+    @Override
+    public String higherKey(String key) {
+        return descending ? absFloor(key, false) : absCeiling(key, false);
+    }
+
+    @Override
+    public Map.Entry<String, T> firstEntry() {
+        return entryOf(descending ? absHighest() : absLowest());
+    }
+
+    @Override
+    public Map.Entry<String, T> lastEntry() {
+        return entryOf(descending ? absLowest() : absHighest());
+    }
+
+    @Override
+    public Map.Entry<String, T> lowerEntry(String key) {
+        return entryOf(lowerKey(key));
+    }
+
+    @Override
+    public Map.Entry<String, T> floorEntry(String key) {
+        return entryOf(floorKey(key));
+    }
+
+    @Override
+    public Map.Entry<String, T> ceilingEntry(String key) {
+        return entryOf(ceilingKey(key));
+    }
+
+    @Override
+    public Map.Entry<String, T> higherEntry(String key) {
+        return entryOf(higherKey(key));
+    }
+
+    @Override
+    public Map.Entry<String, T> pollFirstEntry() {
+        Map.Entry<String, T> entry = firstEntry();
+        if (entry != null) trie.remove(entry.getKey());
+        return entry;
+    }
+
+    @Override
+    public Map.Entry<String, T> pollLastEntry() {
+        Map.Entry<String, T> entry = lastEntry();
+        if (entry != null) trie.remove(entry.getKey());
+        return entry;
+    }
+
+    @Override
+    public NavigableMap<String, T> descendingMap() {
+        return new TrieNavigableMap<>(trie, lo, loInclusive, hi, hiInclusive, !descending, prefix);
+    }
+
+    @Override
+    public NavigableSet<String> navigableKeySet() {
+        return new KeySet(this);
+    }
+
+    @Override
+    public Set<String> keySet() {
+        return navigableKeySet();
+    }
+
+    @Override
+    public NavigableSet<String> descendingKeySet() {
+        return new KeySet(descendingMap());
+    }
+
+    @Override
+    public NavigableMap<String, T> subMap(String fromKey, boolean fromInclusive, String toKey, boolean toInclusive) {
+        Objects.requireNonNull(fromKey);
+        Objects.requireNonNull(toKey);
+        return descending
+                ? subView(toKey, toInclusive, fromKey, fromInclusive)
+                : subView(fromKey, fromInclusive, toKey, toInclusive);
+    }
+
+    @Override
+    public NavigableMap<String, T> headMap(String toKey, boolean inclusive) {
+        Objects.requireNonNull(toKey);
+        return descending ? subView(toKey, inclusive, null, false) : subView(null, false, toKey, inclusive);
+    }
+
+    @Override
+    public NavigableMap<String, T> tailMap(String fromKey, boolean inclusive) {
+        Objects.requireNonNull(fromKey);
+        return descending ? subView(null, false, fromKey, inclusive) : subView(fromKey, inclusive, null, false);
+    }
+
+    @Override
+    public SortedMap<String, T> subMap(String fromKey, String toKey) {
+        return subMap(fromKey, true, toKey, false);
+    }
+
+    @Override
+    public SortedMap<String, T> headMap(String toKey) {
+        return headMap(toKey, false);
+    }
+
+    @Override
+    public SortedMap<String, T> tailMap(String fromKey) {
+        return tailMap(fromKey, true);
+    }
+
+    // ---
+    /**
+     * Iterates over the range in the order of the view. Entries support {@link Map.Entry#setValue(Object)}
+     * and the iterator supports {@link Iterator#remove()}.
+     */
+    private final class RangeIterator implements Iterator<Map.Entry<String, T>> {
+        private int expectedModCount = trie.modCount;
+
+        /**
+         * Underlying Trie iterator, only used when ascending.
+         */
+        private Iterator<Map.Entry<String, T>> ascending;
+
+        private Map.Entry<String, T> next;
+        private String lastReturned;
+
+        RangeIterator() {
+            if (descending) {
+                next = entry(absHighest());
+            } else {
+                ascending = trie.entryIteratorFrom(lo == null ? "" : lo, lo == null || loInclusive);
+                next = nextAscending();
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Map.Entry<String, T> next() {
+            if (trie.modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+
+            Map.Entry<String, T> entry = next;
+            lastReturned = entry.getKey();
+            next = descending ? entry(absFloor(lastReturned, false)) : nextAscending();
+            return entry;
+        }
+
+        @Override
+        public void remove() {
+            if (lastReturned == null) {
+                throw new IllegalStateException();
+            }
+            if (trie.modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+
+            trie.remove(lastReturned);
+            expectedModCount = trie.modCount;
+            lastReturned = null;
+
+            // the Trie iterator is now stale, continue after the entry it had already found
+            if (ascending != null && next != null) {
+                ascending = trie.entryIteratorFrom(next.getKey(), false);
+            }
+        }
+
+        private Map.Entry<String, T> nextAscending() {
+            if (!ascending.hasNext()) return null;
+            Map.Entry<String, T> entry = ascending.next();
+            return tooHigh(entry.getKey()) ? null : new Entry(entry.getKey(), entry.getValue());
+        }
+
+        private Map.Entry<String, T> entry(String key) {
+            return key == null ? null : new Entry(key, trie.get(key));
+        }
+    }
+
+    /**
+     * Entry whose value can be changed, writing through to the Trie.
+     */
+    private final class Entry extends AbstractMap.SimpleEntry<String, T> {
+        private static final long serialVersionUID = 1L;
+
+        Entry(String key, T value) {
+            super(key, value);
+        }
+
+        @Override
+        public T setValue(T value) {
+            trie.set(getKey(), value);
+            return super.setValue(value);
+        }
+    }
+
+    /**
+     * Sorted key set of a map view, delegating everything to the map.
+     */
+    private static final class KeySet extends AbstractSet<String> implements NavigableSet<String> {
+        private final NavigableMap<String, ?> map;
+
+        KeySet(NavigableMap<String, ?> map) {
+            this.map = map;
+        }
+
+        @Override
+        public Iterator<String> iterator() {
+            Iterator<? extends Map.Entry<String, ?>> entries = map.entrySet().iterator();
+            return new Iterator<>() {
+                @Override
+                public boolean hasNext() {
+                    return entries.hasNext();
+                }
+
+                @Override
+                public String next() {
+                    return entries.next().getKey();
+                }
+
+                @Override
+                public void remove() {
+                    entries.remove();
+                }
+            };
+        }
+
+        @Override
+        public Iterator<String> descendingIterator() {
+            return descendingSet().iterator();
+        }
+
+        @Override
+        public int size() {
+            return map.size();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return map.isEmpty();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return map.containsKey(o);
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            if (!map.containsKey(o)) return false;
+            map.remove(o);
+            return true;
+        }
+
+        @Override
+        public void clear() {
+            map.clear();
+        }
+
+        @Override
+        public Comparator<? super String> comparator() {
+            return map.comparator();
+        }
+
+        @Override
+        public String first() {
+            return map.firstKey();
+        }
+
+        @Override
+        public String last() {
+            return map.lastKey();
+        }
+
+        @Override
+        public String lower(String key) {
+            return map.lowerKey(key);
+        }
+
+        @Override
+        public String floor(String key) {
+            return map.floorKey(key);
+        }
+
+        @Override
+        public String ceiling(String key) {
+            return map.ceilingKey(key);
+        }
+
+        @Override
+        public String higher(String key) {
+            return map.higherKey(key);
+        }
+
+        @Override
+        public String pollFirst() {
+            Map.Entry<String, ?> entry = map.pollFirstEntry();
+            return entry == null ? null : entry.getKey();
+        }
+
+        @Override
+        public String pollLast() {
+            Map.Entry<String, ?> entry = map.pollLastEntry();
+            return entry == null ? null : entry.getKey();
+        }
+
+        @Override
+        public NavigableSet<String> descendingSet() {
+            return new KeySet(map.descendingMap());
+        }
+
+        @Override
+        public NavigableSet<String> subSet(String fromElement, boolean fromInclusive, String toElement, boolean toInclusive) {
+            return new KeySet(map.subMap(fromElement, fromInclusive, toElement, toInclusive));
+        }
+
+        @Override
+        public NavigableSet<String> headSet(String toElement, boolean inclusive) {
+            return new KeySet(map.headMap(toElement, inclusive));
+        }
+
+        @Override
+        public NavigableSet<String> tailSet(String fromElement, boolean inclusive) {
+            return new KeySet(map.tailMap(fromElement, inclusive));
+        }
+
+        @Override
+        public SortedSet<String> subSet(String fromElement, String toElement) {
+            return subSet(fromElement, true, toElement, false);
+        }
+
+        @Override
+        public SortedSet<String> headSet(String toElement) {
+            return headSet(toElement, false);
+        }
+
+        @Override
+        public SortedSet<String> tailSet(String fromElement) {
+            return tailSet(fromElement, true);
+        }
+    }
+    // ---
+}
@@ -0,0 +1,74 @@
+// dro1dDev - created: 2026-10-16
+
+package com.everdro1d.libs.structs;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Converts the values of a Trie to and from bytes, for storing tries on disk with {@link MappedTrie}.
+ * <p>{@code null} values are handled by the file format itself, codecs never see them.</p>
+ * <p><strong>Example implementation for {@code Integer} values:</strong></p>
+ * <blockquote><pre>
+ * TrieValueCodec&lt;Integer&gt; intCodec = new TrieValueCodec&lt;&gt;() {
+ *     &#64;Override
+ *     public byte[] encode(Integer value) {
+ *         return ByteBuffer.allocate(4).putInt(value).array();
+ *     }
+ *
+ *     &#64;Override
+ *     public Integer decode(ByteBuffer buffer) {
+ *         return buffer.getInt();
+ *     }
+ * };
+ * </pre></blockquote>
+ *
+ * @param <T> the type of value stored in the Trie
+ * @see MappedTrie
+ */
+public interface TrieValueCodec<T> {
+    /**
+     * Stores {@code String} values as UTF-8.
+     */
+    TrieValueCodec<String> STRING = new TrieValueCodec<>() {
+        @Override
+        public byte[] encode(String value) {
+            return value.getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public String decode(ByteBuffer buffer) {
+            return StandardCharsets.UTF_8.decode(buffer).toString();
+        }
+    };
+
+    /**
+     * Stores {@code Long} values as 8 bytes.
+     */
+    TrieValueCodec<Long> LONG = new TrieValueCodec<>() {
+        @Override
+        public byte[] encode(Long value) {
+            return ByteBuffer.allocate(Long.BYTES).putLong(value).array();
+        }
+
+        @Override
+        public Long decode(ByteBuffer buffer) {
+            return buffer.getLong();
+        }
+    };
+
+    /**
+     * Converts a value to bytes.
+     * @param value the value to encode, never {@code null}
+     * @return the encoded bytes
+     */
+    byte[] encode(T value);
+
+    /**
+     * Converts bytes back to a value.
+     * @param buffer read-only view of exactly the encoded bytes, positioned at the first one.
+     *               It may be backed directly by a memory-mapped file, so it should not be kept.
+     * @return the decoded value
+     */
+    T decode(ByteBuffer buffer);
+}
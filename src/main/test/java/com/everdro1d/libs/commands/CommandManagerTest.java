@@ -5,7 +5,14 @@ package com.everdro1d.libs.commands;
 import com.everdro1d.libs.commands.included.HelpCommand;
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -162,4 +169,259 @@ class CommandManagerTest {
 
         commandManager.executeCommand("--test", new String[]{"arg1", "arg2", "arg3"});
     }
-}
\ No newline at end of file
+
+    @Test
+    void testManagersAreIndependent() {
+        CommandManager first = new CommandManager();
+        CommandManager second = new CommandManager();
+
+        first.registerCommand("--first", "-f", new HelpCommand("First command"));
+
+        assertNotNull(first.getCommand("--first"));
+        assertNull(second.getCommand("--first"));
+        assertNull(second.getCommandStringMatchingAlias("-f"));
+        assertNotNull(second.getCommand("--help"));
+        assertNotSame(first.getCommand("--help"), second.getCommand("--help"));
+    }
+
+    @Test
+    void testSnapshotsAreImmutable() {
+        CommandManager commandManager = new CommandManager();
+        Map<String, CommandInterface> before = commandManager.getCommandMap();
+
+        commandManager.registerCommand("--test", new HelpCommand("Test command"));
+
+        assertFalse(before.containsKey("--test"));
+        assertTrue(commandManager.getCommandMap().containsKey("--test"));
+        assertThrows(UnsupportedOperationException.class, () -> before.put("--other", null));
+    }
+
+    @Test
+    void testRegisterWhileExecuting() throws InterruptedException {
+        CommandManager commandManager = new CommandManager();
+        AtomicInteger executed = new AtomicInteger();
+        commandManager.registerCommand("--count", new HelpCommand("Counts") {
+            @Override
+            public void execute(CommandManager commandManager) {
+                executed.incrementAndGet();
+            }
+        });
+
+        Thread loader = new Thread(() -> {
+            for (int i = 0; i < 500; i++) {
+                commandManager.registerCommand("--plugin" + i, "-p" + i, new HelpCommand("Plugin " + i));
+            }
+        });
+        loader.start();
+        for (int i = 0; i < 500; i++) {
+            commandManager.executeCommand("--count");
+        }
+        loader.join();
+
+        assertEquals(500, executed.get());
+        assertEquals(502, commandManager.getValidCommands().size());
+        assertEquals("--plugin499", commandManager.getCommandStringMatchingAlias("-p499"));
+    }
+
+    @Test
+    void testResolveCommandString() {
+        CommandManager commandManager = new CommandManager();
+        commandManager.registerCommand("--debug", "-d", new HelpCommand("Debug"));
+        commandManager.registerCommand("--dark-mode", new HelpCommand("Dark mode"));
+        commandManager.registerCommand("--output", new HelpCommand("Output"));
+
+        assertEquals("--help", commandManager.resolveCommandString("--help"));
+        assertEquals("--help", commandManager.resolveCommandString("-h"));
+        assertEquals("--help", commandManager.resolveCommandString("--hel"));
+        assertEquals("--debug", commandManager.resolveCommandString("--de"));
+        assertEquals("--debug", commandManager.resolveCommandString("--debug=verbose"));
+        assertEquals("--output", commandManager.resolveCommandString("--outp=file.txt"));
+        assertNull(commandManager.resolveCommandString("--d"));
+        assertNull(commandManager.resolveCommandString("--d=verbose"));
+        assertNull(commandManager.resolveCommandString("-"));
+        assertNull(commandManager.resolveCommandString("--"));
+
+        CommandManager.ResolvedCommand resolved = commandManager.resolveCommand("--outp=file.txt");
+        assertEquals("--output", resolved.commandString());
+        assertEquals("file.txt", resolved.inlineValue());
+        assertFalse(commandManager.resolveCommand("--d").isResolved());
+        assertTrue(commandManager.resolveCommand("--d").error().startsWith("Ambiguous command: [--d]"));
+        assertNull(commandManager.resolveCommandString("--unknown"));
+    }
+
+    @Test
+    void testExecuteCommandWithInlineValue() {
+        CommandManager commandManager = new CommandManager();
+        String[][] received = new String[1][];
+        commandManager.registerCommand("--output", new CommandInterface() {
+            @Override
+            public int getExpectedArguments() {
+                return 2;
+            }
+
+            @Override
+            public void execute(CommandManager commandManager) {
+                fail("This method should not be called for commands with arguments.");
+            }
+
+            @Override
+            public void execute(CommandManager commandManager, String[] args) {
+                received[0] = args;
+            }
+
+            @Override
+            public String getDescription() {
+                return "Test command with args";
+            }
+
+            @Override
+            public void setDescription(String description) {
+                // No-op
+            }
+        });
+
+        commandManager.executeCommand("--output=file.txt", new String[]{"utf-8"});
+        assertArrayEquals(new String[]{"file.txt", "utf-8"}, received[0]);
+
+        commandManager.executeCommand("--out", new String[]{"a=b", "c"});
+        assertArrayEquals(new String[]{"a=b", "c"}, received[0]);
+
+        commandManager.executeCommand("--outp=x=y", new String[]{"z"});
+        assertArrayEquals(new String[]{"x=y", "z"}, received[0]);
+    }
+
+    @Test
+    void testGetSuggestedCommands() throws IOException {
+        CommandManager commandManager = new CommandManager();
+        commandManager.registerCommand("--debug", new HelpCommand("Debug"));
+
+        assertEquals(List.of("--help"), commandManager.getSuggestedCommands("--hlep"));
+        assertEquals(List.of("--debug"), commandManager.getSuggestedCommands("--dbug"));
+        assertTrue(commandManager.getSuggestedCommands("--something").isEmpty());
+
+        // reports suggestions instead of running anything
+        List<CommandManager.ScriptResult> results = new ArrayList<>();
+        commandManager.executeScript(new StringReader("--hlep\n-\n"), true, results::add);
+        assertTrue(results.get(0).error().startsWith("Unknown command: [--hlep]"));
+        assertTrue(results.get(0).error().contains("Did you mean: --help"));
+        assertTrue(results.get(1).error().startsWith("Unknown command: [-]"));
+    }
+
+    @Test
+    void testExecuteScript() throws IOException {
+        CommandManager commandManager = new CommandManager();
+        List<String> received = new ArrayList<>();
+        commandManager.registerCommand("--echo", new CommandInterface() {
+            @Override
+            public int getExpectedArguments() {
+                return 2;
+            }
+
+            @Override
+            public void execute(CommandManager commandManager) {
+                fail("This method should not be called for commands with arguments.");
+            }
+
+            @Override
+            public void execute(CommandManager commandManager, String[] args) {
+                if (args[0].equals("boom")) throw new IllegalStateException("boom");
+                received.add(args[0] + "|" + args[1]);
+            }
+
+            @Override
+            public String getDescription() {
+                return "Test command with args";
+            }
+
+            @Override
+            public void setDescription(String description) {
+                // No-op
+            }
+        });
+
+        String script = String.join("\n",
+                "# comment line",
+                "--echo \"two words\" 'single \\ quote'",
+                "",
+                "--echo=inline -dash # trailing comment",
+                "--echo boom x",
+                "--unknown",
+                "--echo \"unclosed",
+                "--echo es\\ caped \"q\\\"uote\""
+        );
+
+        List<CommandManager.ScriptResult> results = new ArrayList<>();
+        int failures = commandManager.executeScript(new StringReader(script), true, results::add);
+
+        assertEquals(3, failures);
+        assertEquals(List.of("two words|single \\ quote", "inline|-dash", "es caped|q\"uote"), received);
+        assertEquals(List.of(2, 4, 5, 6, 7, 8), results.stream().map(CommandManager.ScriptResult::lineNumber).toList());
+        assertTrue(results.get(0).succeeded());
+        assertInstanceOf(IllegalStateException.class, results.get(2).exception());
+        assertFalse(results.get(3).succeeded());
+        assertNull(results.get(3).exception());
+        assertFalse(results.get(4).succeeded());
+    }
+
+    @Test
+    void testExecuteScriptWindowsPaths() throws IOException {
+        CommandManager commandManager = new CommandManager();
+        List<String> received = new ArrayList<>();
+        commandManager.registerCommand("--load", new CommandInterface() {
+            @Override
+            public int getExpectedArguments() {
+                return 1;
+            }
+
+            @Override
+            public void execute(CommandManager commandManager) {
+                fail("This method should not be called for commands with arguments.");
+            }
+
+            @Override
+            public void execute(CommandManager commandManager, String[] args) {
+                received.add(args[0]);
+            }
+
+            @Override
+            public String getDescription() {
+                return "Test command with args";
+            }
+
+            @Override
+            public void setDescription(String description) {
+                // No-op
+            }
+        });
+
+        Path script = Files.createTempFile("CommandManagerTest", ".txt");
+        try {
+            Files.writeString(script, String.join("\n",
+                    "--load \"C:\\Users\\me\\settings.json\"",
+                    "--load \"C:\\\\server\\share \\\"x\\\"\"",
+                    "--load 'C:\\Program Files\\app'"
+            ));
+            assertEquals(0, commandManager.executeScript(script, false));
+        } finally {
+            Files.deleteIfExists(script);
+        }
+
+        assertEquals(List.of(
+                "C:\\Users\\me\\settings.json",
+                "C:\\server\\share \"x\"",
+                "C:\\Program Files\\app"
+        ), received);
+    }
+
+    @Test
+    void testExecuteScriptStopsOnError() throws IOException {
+        CommandManager commandManager = new CommandManager();
+        List<CommandManager.ScriptResult> results = new ArrayList<>();
+
+        int failures = commandManager.executeScript(new StringReader("--missing\n--help\n"), false, results::add);
+
+        assertEquals(1, failures);
+        assertEquals(1, results.size());
+        assertEquals("--missing", results.get(0).line());
+    }
+}
@@ -6,7 +6,22 @@ import com.everdro1d.libs.commands.CommandInterface;
 import com.everdro1d.libs.commands.CommandManager;
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
 import java.net.http.HttpClient;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -156,6 +171,316 @@ class ApplicationCoreTest {
         ApplicationCore.checkCLIArgs(new String[]{"--test", "arg1", "arg2", "arg3"}, commandManager);
     }
 
+    @Test
+    void checkCLIArgs_IndependentCommandsRunConcurrently() {
+        CommandManager commandManager = new CommandManager();
+        // both commands must be waiting at the same time to get past the barrier
+        CyclicBarrier barrier = new CyclicBarrier(2);
+        Runnable awaitOther = () -> {
+            try {
+                barrier.await(5, TimeUnit.SECONDS);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        };
+        commandManager.registerCommand("--load-config", command(Set.of("config"), Set.of(), awaitOther));
+        commandManager.registerCommand("--warm-cache", command(Set.of("cache"), Set.of(), awaitOther));
+
+        ApplicationCore.checkCLIArgs(new String[]{"--load-config", "--warm-cache"}, commandManager);
+    }
+
+    @Test
+    void checkCLIArgs_ConflictsAndDependenciesKeepOrder() {
+        CommandManager commandManager = new CommandManager();
+        List<String> ran = Collections.synchronizedList(new ArrayList<>());
+        commandManager.registerCommand("--first", command(Set.of("config"), Set.of(), () -> ran.add("first")));
+        commandManager.registerCommand("--second", command(Set.of("config"), Set.of(), () -> ran.add("second")));
+        commandManager.registerCommand("--load", command(Set.of(), Set.of(), () -> ran.add("load")));
+        commandManager.registerCommand("--warm", command(Set.of(), Set.of("--load"), () -> ran.add("warm")));
+
+        ApplicationCore.checkCLIArgs(new String[]{"--warm", "--first", "--second", "--load"}, commandManager);
+
+        assertEquals(4, ran.size());
+        assertTrue(ran.indexOf("first") < ran.indexOf("second"));
+        assertTrue(ran.indexOf("load") < ran.indexOf("warm"));
+    }
+
+    @Test
+    void checkCLIArgs_DependentFirstInConflict() {
+        CommandManager commandManager = new CommandManager();
+        List<String> ran = Collections.synchronizedList(new ArrayList<>());
+        commandManager.registerCommand("--apply", command(Set.of("config"), Set.of("--load"), () -> ran.add("apply")));
+        commandManager.registerCommand("--load", command(Set.of("config"), Set.of(), () -> ran.add("load")));
+        commandManager.registerCommand("--warm", command(Set.of(), Set.of("--info"), () -> ran.add("warm")));
+        commandManager.registerCommand("--info", command(Set.of(CommandInterface.SERIAL), Set.of(), () -> ran.add("info")));
+
+        ApplicationCore.checkCLIArgs(new String[]{"--apply", "--load"}, commandManager);
+        assertEquals(List.of("load", "apply"), ran);
+
+        ran.clear();
+        ApplicationCore.checkCLIArgs(new String[]{"--warm", "--info"}, commandManager);
+        assertEquals(List.of("info", "warm"), ran);
+    }
+
+    @Test
+    void checkCLIArgs_SkippedDependencySkipsDependents() {
+        CommandManager commandManager = new CommandManager();
+        List<String> ran = Collections.synchronizedList(new ArrayList<>());
+        commandManager.registerCommand("--open", new CommandInterface() {
+            @Override
+            public int getExpectedArguments() {
+                return 1;
+            }
+
+            @Override
+            public void execute(CommandManager commandManager) {
+                fail("This method should not be called.");
+            }
+
+            @Override
+            public void execute(CommandManager commandManager, String[] args) {
+                fail("This method should not be called with missing arguments.");
+            }
+
+            @Override
+            public String getDescription() {
+                return "Opens a file.";
+            }
+
+            @Override
+            public void setDescription(String description) {
+                // No-op
+            }
+
+            @Override
+            public Set<String> getSideEffects() {
+                return Set.of("file");
+            }
+        });
+        commandManager.registerCommand("--print", command(Set.of(), Set.of("--open"), () -> ran.add("print")));
+        commandManager.registerCommand("--fine", command(Set.of(), Set.of(), () -> ran.add("fine")));
+
+        ApplicationCore.checkCLIArgs(new String[]{"--open", "--print", "--fine"}, commandManager);
+
+        assertEquals(List.of("fine"), ran);
+    }
+
+    @Test
+    void checkCLIArgs_ConcurrentCommandsKeepTheirResolution() {
+        CommandManager commandManager = new CommandManager();
+        List<String> ran = Collections.synchronizedList(new ArrayList<>());
+        // makes "--out" ambiguous once it has run
+        commandManager.registerCommand("--plugins", command(Set.of("plugins"), Set.of(), () -> {
+            commandManager.registerCommand("--outline", command(Set.of(), Set.of(), () -> ran.add("outline")));
+            ran.add("plugins");
+        }));
+        commandManager.registerCommand("--output", command(Set.of("out"), Set.of("--plugins"), () -> ran.add("output")));
+
+        ApplicationCore.checkCLIArgs(new String[]{"--plugins", "--out"}, commandManager);
+
+        assertEquals(List.of("plugins", "output"), ran);
+    }
+
+    @Test
+    void checkCLIArgs_SerialCommandsSeeNewCommands() {
+        CommandManager commandManager = new CommandManager();
+        List<String> opened = new ArrayList<>();
+        commandManager.registerCommand("--plugins", command(Set.of(CommandInterface.SERIAL), Set.of(), () ->
+                commandManager.registerCommand("--open", new CommandInterface() {
+                    @Override
+                    public int getExpectedArguments() {
+                        return 1;
+                    }
+
+                    @Override
+                    public void execute(CommandManager commandManager) {
+                        fail("This method should not be called.");
+                    }
+
+                    @Override
+                    public void execute(CommandManager commandManager, String[] args) {
+                        opened.add(args[0]);
+                    }
+
+                    @Override
+                    public String getDescription() {
+                        return "Opens a file.";
+                    }
+
+                    @Override
+                    public void setDescription(String description) {
+                        // No-op
+                    }
+                })
+        ));
+
+        ApplicationCore.checkCLIArgs(new String[]{"--plugins", "--open", "file.txt"}, commandManager);
+
+        assertEquals(List.of("file.txt"), opened);
+    }
+
+    @Test
+    void checkCLIArgs_FailuresAreAggregated() {
+        CommandManager commandManager = new CommandManager();
+        List<String> ran = Collections.synchronizedList(new ArrayList<>());
+        commandManager.registerCommand("--broken-a", command(Set.of("a"), Set.of(), () -> {
+            throw new IllegalStateException("a");
+        }));
+        commandManager.registerCommand("--broken-b", command(Set.of("b"), Set.of(), () -> {
+            throw new IllegalStateException("b");
+        }));
+        commandManager.registerCommand("--after-a", command(Set.of(), Set.of("--broken-a"), () -> ran.add("after-a")));
+        commandManager.registerCommand("--fine", command(Set.of(), Set.of(), () -> ran.add("fine")));
+
+        RuntimeException e = assertThrows(RuntimeException.class, () -> ApplicationCore.checkCLIArgs(
+                new String[]{"--broken-a", "--broken-b", "--after-a", "--fine"}, commandManager
+        ));
+        assertEquals(2, e.getSuppressed().length);
+        assertEquals(List.of("fine"), ran);
+    }
+
+    @Test
+    void checkCLIArgs_DependencyCycle() {
+        CommandManager commandManager = new CommandManager();
+        commandManager.registerCommand("--a", command(Set.of(), Set.of("--b"), () -> fail("Should not run.")));
+        commandManager.registerCommand("--b", command(Set.of(), Set.of("--a"), () -> fail("Should not run.")));
+
+        assertThrows(IllegalArgumentException.class, () ->
+                ApplicationCore.checkCLIArgs(new String[]{"--a", "--b"}, commandManager)
+        );
+    }
+
+    @Test
+    void startSingleInstance_ForwardsArgs() throws Exception {
+        Path socketPath = Files.createTempDirectory("single-instance").resolve("instance.sock");
+        CommandManager commandManager = new CommandManager();
+        BlockingQueue<String> opened = new ArrayBlockingQueue<>(4);
+        commandManager.registerCommand("--open", new CommandInterface() {
+            @Override
+            public int getExpectedArguments() {
+                return 1;
+            }
+
+            @Override
+            public void execute(CommandManager commandManager) {
+                fail("This method should not be called.");
+            }
+
+            @Override
+            public void execute(CommandManager commandManager, String[] args) {
+                opened.add(args[0]);
+            }
+
+            @Override
+            public String getDescription() {
+                return "Opens a file.";
+            }
+
+            @Override
+            public void setDescription(String description) {
+                // No-op
+            }
+        });
+
+        try {
+            assertTrue(ApplicationCore.startSingleInstance(socketPath, new String[0], commandManager));
+            assertFalse(ApplicationCore.startSingleInstance(socketPath, new String[]{"--open", "fïle 1.txt"}, new CommandManager()));
+            assertEquals("fïle 1.txt", opened.poll(5, TimeUnit.SECONDS));
+        } finally {
+            ApplicationCore.stopSingleInstance();
+        }
+        assertFalse(Files.exists(socketPath));
+    }
+
+    @Test
+    void startSingleInstance_TakesOverStaleSocket() throws Exception {
+        Path socketPath = Files.createTempDirectory("single-instance").resolve("instance.sock");
+        // a socket file without a listener, as left behind by a crashed instance
+        try (ServerSocketChannel crashed = ServerSocketChannel.open(StandardProtocolFamily.UNIX)) {
+            crashed.bind(UnixDomainSocketAddress.of(socketPath));
+        }
+        assertTrue(Files.exists(socketPath));
+
+        try {
+            assertTrue(ApplicationCore.startSingleInstance(socketPath, new String[0], new CommandManager()));
+            assertFalse(ApplicationCore.startSingleInstance(socketPath, new String[]{"--help"}, new CommandManager()));
+        } finally {
+            ApplicationCore.stopSingleInstance();
+        }
+    }
+
+    @Test
+    void startSingleInstance_SilentClientsDoNotBlock() throws Exception {
+        Path socketPath = Files.createTempDirectory("single-instance").resolve("instance.sock");
+        BlockingQueue<String> ran = new ArrayBlockingQueue<>(4);
+        CommandManager commandManager = new CommandManager();
+        commandManager.registerCommand("--ping", command(Set.of(CommandInterface.SERIAL), Set.of(), () -> ran.add("ping")));
+
+        try {
+            assertTrue(ApplicationCore.startSingleInstance(socketPath, new String[0], commandManager));
+            // connects but never sends anything
+            try (SocketChannel silent = SocketChannel.open(UnixDomainSocketAddress.of(socketPath))) {
+                assertTrue(silent.isConnected());
+                assertFalse(ApplicationCore.startSingleInstance(socketPath, new String[]{"--ping"}, new CommandManager()));
+                assertEquals("ping", ran.poll(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            ApplicationCore.stopSingleInstance();
+        }
+    }
+
+    @Test
+    void startSingleInstance_TimesOutWithoutAnswer() throws Exception {
+        Path socketPath = Files.createTempDirectory("single-instance").resolve("instance.sock");
+        // listens but never accepts, like a hung instance
+        try (ServerSocketChannel hung = ServerSocketChannel.open(StandardProtocolFamily.UNIX)) {
+            hung.bind(UnixDomainSocketAddress.of(socketPath));
+
+            assertThrows(IOException.class, () ->
+                    ApplicationCore.startSingleInstance(socketPath, new String[]{"--help"}, new CommandManager())
+            );
+        }
+    }
+
+    private static CommandInterface command(Set<String> sideEffects, Set<String> dependencies, Runnable action) {
+        return new CommandInterface() {
+            @Override
+            public int getExpectedArguments() {
+                return 0;
+            }
+
+            @Override
+            public void execute(CommandManager commandManager) {
+                action.run();
+            }
+
+            @Override
+            public void execute(CommandManager commandManager, String[] args) {
+                fail("This method should not be called.");
+            }
+
+            @Override
+            public String getDescription() {
+                return "Test command.";
+            }
+
+            @Override
+            public void setDescription(String description) {
+                // No-op
+            }
+
+            @Override
+            public Set<String> getSideEffects() {
+                return sideEffects;
+            }
+
+            @Override
+            public Set<String> getDependencies() {
+                return dependencies;
+            }
+        };
+    }
+
     @Test
     void getLatestVersion_ValidRedirect() throws Exception {
         HttpClient client = HttpClient.newHttpClient();
@@ -2,9 +2,11 @@
 
 package com.everdro1d.libs.core;
 
+import com.everdro1d.libs.structs.AhoCorasick;
 import org.junit.jupiter.api.Test;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -77,4 +79,11 @@ class UtilsTest {
         version = "1.0.0-alpha";
         assertFalse(Utils.validateVersion(version, expectedVersion));
     }
-}
\ No newline at end of file
+
+    @Test
+    void stringContainsAnyPrecompiled() {
+        AhoCorasick matcher = new AhoCorasick(List.of("a", "b", "ab", "c"));
+        assertTrue(Utils.stringContainsAny(matcher, "abc"));
+        assertFalse(Utils.stringContainsAny(new AhoCorasick(List.of("a", "b", "c")), "def"));
+    }
+}
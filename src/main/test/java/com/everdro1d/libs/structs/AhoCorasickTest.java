@@ -0,0 +1,90 @@
+// dro1dDev - created: 2026-10-16
+
+package com.everdro1d.libs.structs;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.*;
+
+class AhoCorasickTest {
+
+    @Test
+    void testFindAllOverlapping() {
+        AhoCorasick matcher = new AhoCorasick(List.of("he", "she", "his", "hers"));
+        List<AhoCorasick.Match> matches = matcher.findAll("ushers");
+
+        assertEquals(List.of(
+                new AhoCorasick.Match(1, 4, "she"),
+                new AhoCorasick.Match(2, 4, "he"),
+                new AhoCorasick.Match(2, 6, "hers")
+        ), matches);
+    }
+
+    @Test
+    void testContainsAny() {
+        AhoCorasick matcher = new AhoCorasick(List.of("ERROR", "Exception", "FATAL"));
+        assertTrue(matcher.containsAny("java.io.IOException: Broken pipe"));
+        assertTrue(matcher.containsAny("FATAL"));
+        assertFalse(matcher.containsAny("INFO: all good"));
+        assertFalse(matcher.containsAny(""));
+
+        assertEquals(List.of(new AhoCorasick.Match(0, 5, "FATAL"), new AhoCorasick.Match(18, 27, "Exception")),
+                matcher.findAll("FATAL: NullPointerException"));
+    }
+
+    @Test
+    void testFromTrieAndDuplicates() {
+        Trie<String> trie = new Trie<>(List.of("abc", "bc", "c"));
+        AhoCorasick matcher = new AhoCorasick(trie);
+        assertEquals(3, matcher.findAll("abc").size());
+
+        AhoCorasick duplicates = new AhoCorasick(List.of("a", "a", "b"));
+        assertEquals(List.of("a", "b"), duplicates.patterns());
+        assertEquals(2, duplicates.findAll("ab").size());
+    }
+
+    @Test
+    void testEmptyPattern() {
+        AhoCorasick matcher = new AhoCorasick(List.of(""));
+        assertTrue(matcher.containsAny(""));
+        assertEquals(3, matcher.findAll("ab").size());
+
+        assertFalse(new AhoCorasick(List.of()).containsAny("anything"));
+    }
+
+    @Test
+    void testMatchesBruteForce() {
+        Random random = new Random(12);
+        List<String> patterns = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            patterns.add(randomString(random, 1 + random.nextInt(4)));
+        }
+        AhoCorasick matcher = new AhoCorasick(patterns);
+
+        for (int t = 0; t < 50; t++) {
+            String text = randomString(random, 200);
+            Set<String> expected = new HashSet<>();
+            for (String pattern : new HashSet<>(patterns)) {
+                for (int i = text.indexOf(pattern); i >= 0; i = text.indexOf(pattern, i + 1)) {
+                    expected.add(pattern + "@" + i);
+                }
+            }
+
+            Set<String> actual = new HashSet<>();
+            for (AhoCorasick.Match match : matcher.findAll(text)) {
+                assertEquals(match.pattern(), text.substring(match.start(), match.end()));
+                actual.add(match.pattern() + "@" + match.start());
+            }
+            assertEquals(expected, actual);
+            assertEquals(!expected.isEmpty(), matcher.containsAny(text));
+        }
+    }
+
+    private static String randomString(Random random, int length) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            builder.append((char) ('a' + random.nextInt(4)));
+        }
+        return builder.toString();
+    }
+}
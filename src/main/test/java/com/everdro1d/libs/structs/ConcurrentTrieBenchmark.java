@@ -0,0 +1,117 @@
+// dro1dDev - created: 2026-10-16
+
+package com.everdro1d.libs.structs;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Compares the read throughput of {@link ConcurrentTrie} against a {@code synchronized} wrapper
+ * around {@link Trie}, with one writer thread continuously inserting and removing keys.
+ * <p>Run the {@code main} method, optionally passing the number of reader threads and the
+ * duration of each run in milliseconds.</p>
+ */
+public class ConcurrentTrieBenchmark {
+    private static final int KEY_COUNT = 200_000;
+
+    /**
+     * The common operations of both tries, so the same workload can drive either.
+     */
+    private interface TrieOps {
+        void insert(String key, Integer value);
+        boolean remove(String key);
+        boolean contains(String key);
+        Integer get(String key);
+        boolean startsWith(String prefix);
+    }
+
+    private static final class SynchronizedTrie implements TrieOps {
+        private final Trie<Integer> trie = new Trie<>();
+
+        public synchronized void insert(String key, Integer value) { trie.insert(key, value); }
+        public synchronized boolean remove(String key) { return trie.remove(key); }
+        public synchronized boolean contains(String key) { return trie.contains(key); }
+        public synchronized Integer get(String key) { return trie.get(key); }
+        public synchronized boolean startsWith(String prefix) { return trie.startsWith(prefix); }
+    }
+
+    private static final class ConcurrentOps implements TrieOps {
+        private final ConcurrentTrie<Integer> trie = new ConcurrentTrie<>();
+
+        public void insert(String key, Integer value) { trie.insert(key, value); }
+        public boolean remove(String key) { return trie.remove(key); }
+        public boolean contains(String key) { return trie.contains(key); }
+        public Integer get(String key) { return trie.get(key); }
+        public boolean startsWith(String prefix) { return trie.startsWith(prefix); }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int readers = args.length > 0 ? Integer.parseInt(args[0]) : Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        long durationMillis = args.length > 1 ? Long.parseLong(args[1]) : 3000;
+
+        String[] keys = new String[KEY_COUNT];
+        Random random = new Random(42);
+        for (int i = 0; i < KEY_COUNT; i++) {
+            keys[i] = "com.everdro1d." + Integer.toString(random.nextInt(Integer.MAX_VALUE), 36);
+        }
+
+        System.out.printf("readers: %d, writer: 1, duration: %d ms%n", readers, durationMillis);
+        for (int round = 0; round < 2; round++) { // first round is warmup
+            String label = round == 0 ? " (warmup)" : "";
+            run("synchronized Trie" + label, new SynchronizedTrie(), keys, readers, durationMillis);
+            run("ConcurrentTrie" + label, new ConcurrentOps(), keys, readers, durationMillis);
+        }
+    }
+
+    private static void run(String name, TrieOps trie, String[] keys, int readers, long durationMillis)
+            throws InterruptedException
+    {
+        for (int i = 0; i < keys.length; i++) {
+            trie.insert(keys[i], i);
+        }
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        LongAdder reads = new LongAdder();
+        LongAdder writes = new LongAdder();
+        CountDownLatch done = new CountDownLatch(readers + 1);
+
+        Thread writer = new Thread(() -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            long count = 0;
+            while (running.get()) {
+                int i = random.nextInt(keys.length);
+                // toggle the key, one write per iteration on either side
+                if (trie.contains(keys[i])) trie.remove(keys[i]); else trie.insert(keys[i], i);
+                count++;
+            }
+            writes.add(count);
+            done.countDown();
+        });
+
+        for (int r = 0; r < readers; r++) {
+            new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long count = 0;
+                while (running.get()) {
+                    String key = keys[random.nextInt(keys.length)];
+                    trie.get(key);
+                    trie.startsWith(key.substring(0, key.length() - 2));
+                    count += 2;
+                }
+                reads.add(count);
+                done.countDown();
+            }).start();
+        }
+        writer.start();
+
+        Thread.sleep(durationMillis);
+        running.set(false);
+        done.await();
+
+        double seconds = durationMillis / 1000.0;
+        System.out.printf("%-32s reads/s: %,14.0f   writes/s: %,12.0f%n",
+                name, reads.sum() / seconds, writes.sum() / seconds);
+    }
+}
@@ -0,0 +1,134 @@
+// dro1dDev - created: 2026-10-16
+
+package com.everdro1d.libs.structs;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+class ConcurrentTrieTest {
+
+    @Test
+    void testSingleThreadedBehavior() {
+        ConcurrentTrie<String> trie = new ConcurrentTrie<>();
+        trie.insert("apple", "fruit");
+        trie.insert("app", "prefix");
+        trie.insert("apricot");
+
+        assertTrue(trie.contains("apple"));
+        assertTrue(trie.contains("apricot"));
+        assertNull(trie.get("apricot"));
+        assertFalse(trie.contains("ap"));
+        assertTrue(trie.startsWith("ap"));
+        assertEquals(List.of("app", "apple", "apricot"), trie.listKeysMatching("ap"));
+
+        assertTrue(trie.set("app", "new"));
+        assertEquals("new", trie.get("app"));
+
+        assertTrue(trie.remove("apple"));
+        assertFalse(trie.remove("apple"));
+        assertTrue(trie.contains("app"));
+        assertFalse(trie.startsWith("appl"));
+
+        trie.clear();
+        assertTrue(trie.isEmpty());
+    }
+
+    @Test
+    void testConcurrentInsertsOfDisjointKeys() throws Exception {
+        ConcurrentTrie<Integer> trie = new ConcurrentTrie<>();
+        int threads = 8;
+        int keysPerThread = 2000;
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int offset = t;
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < keysPerThread; i++) {
+                    trie.insert("key" + (i * threads + offset), i);
+                }
+            }));
+        }
+        for (Future<?> future : futures) future.get();
+        executor.shutdown();
+
+        assertEquals(threads * keysPerThread, trie.listKeys().size());
+        for (int i = 0; i < threads * keysPerThread; i++) {
+            assertTrue(trie.contains("key" + i));
+        }
+    }
+
+    @Test
+    void testReadersDuringInsertAndRemove() throws Exception {
+        ConcurrentTrie<String> trie = new ConcurrentTrie<>();
+        trie.insert("stable", "always");
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicBoolean failed = new AtomicBoolean(false);
+
+        Thread writer = new Thread(() -> {
+            Random random = new Random(1);
+            while (running.get()) {
+                String key = "st" + random.nextInt(200);
+                if (random.nextBoolean()) trie.insert(key, key);
+                else trie.remove(key);
+            }
+        });
+
+        List<Thread> readers = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            readers.add(new Thread(() -> {
+                while (running.get()) {
+                    if (!"always".equals(trie.get("stable")) || !trie.startsWith("sta")) {
+                        failed.set(true);
+                    }
+                    for (String key : trie.listKeysMatching("st1")) {
+                        if (!key.startsWith("st1")) failed.set(true);
+                    }
+                }
+            }));
+        }
+
+        writer.start();
+        readers.forEach(Thread::start);
+        Thread.sleep(300);
+        running.set(false);
+        writer.join();
+        for (Thread reader : readers) reader.join();
+
+        assertFalse(failed.get());
+    }
+
+    @Test
+    void testConcurrentInsertAndRemoveOfSameKeys() throws Exception {
+        ConcurrentTrie<Integer> trie = new ConcurrentTrie<>();
+        int threads = 6;
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int seed = t;
+            futures.add(executor.submit(() -> {
+                Random random = new Random(seed);
+                for (int i = 0; i < 20_000; i++) {
+                    String key = Integer.toString(random.nextInt(64), 2);
+                    if (random.nextBoolean()) trie.insert(key, i);
+                    else trie.remove(key);
+                }
+            }));
+        }
+        for (Future<?> future : futures) future.get();
+        executor.shutdown();
+
+        // every key that is listed must be reachable, and removing them all must leave an empty tree
+        List<String> keys = trie.listKeys();
+        for (String key : keys) {
+            assertTrue(trie.contains(key));
+            assertTrue(trie.remove(key));
+        }
+        assertTrue(trie.isEmpty());
+    }
+}
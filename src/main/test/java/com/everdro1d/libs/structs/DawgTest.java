@@ -0,0 +1,76 @@
+// dro1dDev - created: 2026-10-16
+
+package com.everdro1d.libs.structs;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.*;
+
+class DawgTest {
+
+    @Test
+    void testContainsAndStartsWith() {
+        Dawg dawg = new Dawg(List.of("tap", "taps", "top", "tops", "app"));
+        assertEquals(5, dawg.size());
+        assertTrue(dawg.contains("tops"));
+        assertTrue(dawg.contains("app"));
+        assertFalse(dawg.contains("to"));
+        assertFalse(dawg.contains("apps"));
+        assertTrue(dawg.startsWith("ta"));
+        assertFalse(dawg.startsWith("tx"));
+
+        assertEquals(List.of("app", "tap", "taps", "top", "tops"), dawg.listKeys());
+        assertEquals(List.of("tap", "taps"), dawg.listKeysMatching("ta"));
+        assertEquals(List.of("tap"), dawg.listKeysMatching("t", 1));
+    }
+
+    @Test
+    void testSharesSuffixes() {
+        // a trie needs 9 nodes here, the "p" / "ps" endings are shared in the graph
+        Dawg dawg = Dawg.fromSorted(List.of("tap", "taps", "top", "tops"));
+        assertEquals(5, dawg.nodeCount());
+
+        List<String> paths = new ArrayList<>();
+        for (String name : List.of("main", "locale", "window", "theme", "user")) {
+            paths.add(name + "_settings.json");
+            paths.add(name + "_settings.xml");
+        }
+        Dawg settings = new Dawg(paths);
+        assertEquals(paths.size(), settings.size());
+        int trieNodes = new Trie<>(paths).freeze().labels.length;
+        assertTrue(settings.nodeCount() * 2 < trieNodes);
+        assertTrue(settings.contains("theme_settings.xml"));
+    }
+
+    @Test
+    void testEmptyAndUnsorted() {
+        Dawg empty = new Dawg(List.of());
+        assertTrue(empty.isEmpty());
+        assertFalse(empty.contains(""));
+        assertTrue(empty.listKeys().isEmpty());
+
+        Dawg withEmptyKey = Dawg.fromSorted(List.of("", "", "a"));
+        assertEquals(2, withEmptyKey.size());
+        assertTrue(withEmptyKey.contains(""));
+
+        assertThrows(IllegalArgumentException.class, () -> Dawg.fromSorted(List.of("b", "a")));
+        assertThrows(IllegalArgumentException.class, () -> Dawg.fromSorted(List.of("ab", "a")));
+    }
+
+    @Test
+    void testMatchesTrie() {
+        Random random = new Random(16);
+        Trie<Void> trie = new Trie<>();
+        for (int i = 0; i < 20_000; i++) {
+            trie.insert(Integer.toString(random.nextInt(1_000_000), 7));
+        }
+
+        Dawg dawg = new Dawg(trie);
+        assertEquals(trie.listKeys(), dawg.listKeys());
+        for (int i = 0; i < 2000; i++) {
+            String key = Integer.toString(random.nextInt(1_000_000), 7);
+            assertEquals(trie.contains(key), dawg.contains(key));
+            assertEquals(trie.startsWith(key.substring(0, 3)), dawg.startsWith(key.substring(0, 3)));
+        }
+    }
+}
@@ -0,0 +1,90 @@
+// dro1dDev - created: 2026-10-16
+
+package com.everdro1d.libs.structs;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.*;
+
+class FrozenTrieTest {
+
+    private static FrozenTrie<String> sampleFrozenTrie() {
+        Trie<String> trie = new Trie<>();
+        trie.insert("apple", "fruit");
+        trie.insert("app", "prefix");
+        trie.insert("apricot", "fruit");
+        trie.insert("car", "vehicle");
+        return trie.freeze();
+    }
+
+    @Test
+    void testContainsAndGet() {
+        FrozenTrie<String> frozen = sampleFrozenTrie();
+        assertEquals(4, frozen.size());
+        assertTrue(frozen.contains("apple"));
+        assertTrue(frozen.contains("app"));
+        assertFalse(frozen.contains("ap"));
+        assertFalse(frozen.contains("banana"));
+
+        assertEquals("fruit", frozen.get("apple"));
+        assertEquals("prefix", frozen.get("app"));
+        assertEquals("vehicle", frozen.get("car"));
+        assertNull(frozen.get("ca"));
+    }
+
+    @Test
+    void testStartsWith() {
+        FrozenTrie<String> frozen = sampleFrozenTrie();
+        assertTrue(frozen.startsWith("ap"));
+        assertTrue(frozen.startsWith("car"));
+        assertFalse(frozen.startsWith("cars"));
+    }
+
+    @Test
+    void testListKeysMatching() {
+        FrozenTrie<String> frozen = sampleFrozenTrie();
+        assertEquals(List.of("app", "apple", "apricot"), frozen.listKeysMatching("ap"));
+        assertEquals(List.of("app", "apple"), frozen.listKeysMatching("ap", 2));
+        assertEquals(List.of("app", "apple", "apricot", "car"), frozen.listKeys());
+        assertTrue(frozen.listKeysMatching("b").isEmpty());
+    }
+
+    @Test
+    void testSnapshotIsUnaffectedByChanges() {
+        Trie<String> trie = new Trie<>();
+        trie.insert("apple", "fruit");
+        FrozenTrie<String> frozen = trie.freeze();
+
+        trie.insert("banana", "fruit");
+        trie.remove("apple");
+
+        assertTrue(frozen.contains("apple"));
+        assertFalse(frozen.contains("banana"));
+    }
+
+    @Test
+    void testEmptyAndEmptyKey() {
+        assertTrue(new Trie<String>().freeze().isEmpty());
+
+        Trie<String> trie = new Trie<>();
+        trie.insert("", "root");
+        FrozenTrie<String> frozen = trie.freeze();
+        assertEquals("root", frozen.get(""));
+        assertEquals(List.of(""), frozen.listKeys());
+    }
+
+    @Test
+    void testMatchesTrie() {
+        Random random = new Random(3);
+        Trie<Integer> trie = new Trie<>();
+        for (int i = 0; i < 3000; i++) {
+            trie.insert(Integer.toString(random.nextInt(100_000), 36), i);
+        }
+
+        FrozenTrie<Integer> frozen = trie.freeze();
+        for (String key : trie.listKeys()) {
+            assertEquals(trie.get(key), frozen.get(key));
+        }
+        assertEquals(trie.listKeys().size(), frozen.size());
+    }
+}
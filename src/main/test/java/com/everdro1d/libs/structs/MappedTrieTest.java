@@ -0,0 +1,164 @@
+// dro1dDev - created: 2026-10-16
+
+package com.everdro1d.libs.structs;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+class MappedTrieTest {
+    private Path file;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        file = Files.createTempFile("MappedTrieTest", ".trie");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    private MappedTrie<String> sampleMappedTrie() throws IOException {
+        Trie<String> trie = new Trie<>();
+        trie.insert("apple", "fruit");
+        trie.insert("app", "prefix");
+        trie.insert("apricot", "früit");
+        trie.insert("car", null);
+        MappedTrie.write(trie, file, TrieValueCodec.STRING);
+        return MappedTrie.open(file, TrieValueCodec.STRING);
+    }
+
+    @Test
+    void testContainsAndGet() throws IOException {
+        MappedTrie<String> mapped = sampleMappedTrie();
+        assertEquals(4, mapped.size());
+        assertTrue(mapped.contains("apple"));
+        assertTrue(mapped.contains("car"));
+        assertFalse(mapped.contains("ap"));
+
+        assertEquals("fruit", mapped.get("apple"));
+        assertEquals("prefix", mapped.get("app"));
+        assertEquals("früit", mapped.get("apricot"));
+        assertNull(mapped.get("car"));
+        assertNull(mapped.get("ca"));
+    }
+
+    @Test
+    void testStartsWithAndListKeys() throws IOException {
+        MappedTrie<String> mapped = sampleMappedTrie();
+        assertTrue(mapped.startsWith("apr"));
+        assertFalse(mapped.startsWith("b"));
+        assertEquals(List.of("app", "apple", "apricot"), mapped.listKeysMatching("ap"));
+        assertEquals(List.of("app", "apple"), mapped.listKeysMatching("ap", 2));
+        assertEquals(List.of("app", "apple", "apricot", "car"), mapped.listKeys());
+    }
+
+    @Test
+    void testKeysOnly() throws IOException {
+        Trie<String> trie = new Trie<>(List.of("alpha", "beta"));
+        MappedTrie.write(trie, file, null);
+
+        MappedTrie<String> mapped = MappedTrie.open(file, null);
+        assertTrue(mapped.contains("beta"));
+        assertNull(mapped.get("beta"));
+    }
+
+    @Test
+    void testEmpty() throws IOException {
+        MappedTrie.write(new Trie<Long>(), file, TrieValueCodec.LONG);
+        MappedTrie<Long> mapped = MappedTrie.open(file, TrieValueCodec.LONG);
+        assertTrue(mapped.isEmpty());
+        assertFalse(mapped.contains(""));
+        assertTrue(mapped.listKeys().isEmpty());
+    }
+
+    @Test
+    void testRejectsOtherFiles() throws IOException {
+        Files.write(file, new byte[] {1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19, 20});
+        assertThrows(IOException.class, () -> MappedTrie.open(file, TrieValueCodec.STRING));
+    }
+
+    @Test
+    void testRejectsBadVersionAndMissingCodec() throws IOException {
+        sampleMappedTrie();
+        assertThrows(IllegalArgumentException.class, () -> MappedTrie.open(file, null));
+
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[4] = bytes[5] = bytes[6] = bytes[7] = 0;
+        Files.write(file, bytes);
+        assertThrows(IOException.class, () -> MappedTrie.open(file, TrieValueCodec.STRING));
+    }
+
+    @Test
+    void testRejectsCorruptHeader() throws IOException {
+        sampleMappedTrie();
+        byte[] bytes = Files.readAllBytes(file);
+
+        for (int nodeCount : new int[] {-1, Integer.MAX_VALUE, 1 << 30}) {
+            ByteBuffer.wrap(bytes).putInt(12, nodeCount);
+            Files.write(file, bytes);
+            assertThrows(IOException.class, () -> MappedTrie.open(file, TrieValueCodec.STRING));
+        }
+    }
+
+    @Test
+    void testRejectsCorruptChildIndices() throws IOException {
+        sampleMappedTrie();
+        byte[] original = Files.readAllBytes(file);
+        int nodeCount = ByteBuffer.wrap(original).getInt(12);
+        int childStartOffset = 5 * Integer.BYTES;
+
+        // child of the root pointing back at the root, out of range, and a last entry past the node count
+        int[][] corruptions = {
+                {0, 0},
+                {1, nodeCount + 5},
+                {nodeCount, nodeCount + 1},
+        };
+        for (int[] corruption : corruptions) {
+            byte[] bytes = original.clone();
+            ByteBuffer.wrap(bytes).putInt(childStartOffset + corruption[0] * Integer.BYTES, corruption[1]);
+            Files.write(file, bytes);
+            assertThrows(IOException.class, () -> MappedTrie.open(file, TrieValueCodec.STRING));
+        }
+    }
+
+    @Test
+    void testRejectsCorruptValue() throws IOException {
+        Trie<String> trie = new Trie<>();
+        trie.insert("a", "hello");
+        MappedTrie.write(trie, file, TrieValueCodec.STRING);
+
+        // the length in front of the only value
+        byte[] bytes = Files.readAllBytes(file);
+        ByteBuffer.wrap(bytes).putInt(bytes.length - 9, 1000);
+        Files.write(file, bytes);
+
+        MappedTrie<String> mapped = MappedTrie.open(file, TrieValueCodec.STRING);
+        assertTrue(mapped.contains("a"));
+        assertThrows(UncheckedIOException.class, () -> mapped.get("a"));
+    }
+
+    @Test
+    void testMatchesTrie() throws IOException {
+        Random random = new Random(5);
+        Trie<Long> trie = new Trie<>();
+        for (int i = 0; i < 3000; i++) {
+            trie.insert(Integer.toString(random.nextInt(100_000), 36), (long) i);
+        }
+
+        MappedTrie.write(trie, file, TrieValueCodec.LONG);
+        MappedTrie<Long> mapped = MappedTrie.open(file, TrieValueCodec.LONG);
+        for (String key : trie.listKeys()) {
+            assertEquals(trie.get(key), mapped.get(key));
+        }
+        assertEquals(trie.listKeys(), mapped.listKeys());
+    }
+}
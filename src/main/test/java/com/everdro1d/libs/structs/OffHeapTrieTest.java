@@ -0,0 +1,130 @@
+// dro1dDev - created: 2026-10-16
+
+package com.everdro1d.libs.structs;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.*;
+
+class OffHeapTrieTest {
+
+    @Test
+    void testInsertAndGet() {
+        try (OffHeapTrie<String> trie = new OffHeapTrie<>()) {
+            trie.insert("apple", "fruit");
+            trie.insertLong("app", 42L);
+            trie.insert("car");
+
+            assertEquals(3, trie.size());
+            assertTrue(trie.contains("apple"));
+            assertTrue(trie.contains("car"));
+            assertFalse(trie.contains("ap"));
+            assertTrue(trie.startsWith("ap"));
+
+            assertEquals("fruit", trie.get("apple"));
+            assertEquals(-1, trie.getLong("apple", -1));
+            assertEquals(42L, trie.getLong("app", -1));
+            assertNull(trie.get("app"));
+            assertNull(trie.get("car"));
+            assertEquals(-1, trie.getLong("car", -1));
+
+            trie.insertLong("apple", 7L);
+            assertNull(trie.get("apple"));
+            assertEquals(7L, trie.getLong("apple", -1));
+            assertEquals(3, trie.size());
+        }
+    }
+
+    @Test
+    void testInsertWithoutValueClearsValue() {
+        try (OffHeapTrie<String> trie = new OffHeapTrie<>()) {
+            trie.insert("apple", "fruit");
+            trie.insertLong("app", 42L);
+
+            trie.insert("apple");
+            trie.insert("app");
+            assertNull(trie.get("apple"));
+            assertEquals(-1, trie.getLong("app", -1));
+            assertTrue(trie.contains("apple"));
+            assertEquals(2, trie.size());
+
+            // the handle of the cleared value is reused
+            trie.insert("car", "vehicle");
+            assertEquals("vehicle", trie.get("car"));
+            assertNull(trie.get("apple"));
+        }
+    }
+
+    @Test
+    void testListKeysMatching() {
+        try (OffHeapTrie<String> trie = new OffHeapTrie<>()) {
+            for (String key : List.of("car", "apricot", "apple", "app", "")) {
+                trie.insert(key);
+            }
+            assertEquals(List.of("", "app", "apple", "apricot", "car"), trie.listKeys());
+            assertEquals(List.of("app", "apple"), trie.listKeysMatching("ap", 2));
+            assertTrue(trie.listKeysMatching("b").isEmpty());
+        }
+    }
+
+    @Test
+    void testRemoveReusesNodes() {
+        try (OffHeapTrie<String> trie = new OffHeapTrie<>()) {
+            trie.insert("apple", "fruit");
+            trie.insert("app", "prefix");
+
+            assertTrue(trie.remove("apple"));
+            assertFalse(trie.remove("apple"));
+            assertFalse(trie.startsWith("appl"));
+            assertTrue(trie.contains("app"));
+            assertEquals("prefix", trie.get("app"));
+
+            assertTrue(trie.remove("app"));
+            assertTrue(trie.isEmpty());
+            assertFalse(trie.startsWith("a"));
+
+            trie.insert("banana", "fruit");
+            assertEquals(List.of("banana"), trie.listKeys());
+            assertEquals("fruit", trie.get("banana"));
+        }
+    }
+
+    @Test
+    void testClose() {
+        OffHeapTrie<String> trie = new OffHeapTrie<>();
+        trie.insert("apple");
+        assertTrue(trie.offHeapBytes() > 0);
+
+        trie.close();
+        assertEquals(0, trie.offHeapBytes());
+        assertThrows(IllegalStateException.class, () -> trie.contains("apple"));
+        assertThrows(IllegalStateException.class, trie::size);
+        assertThrows(IllegalStateException.class, trie::isEmpty);
+    }
+
+    @Test
+    void testMatchesTrie() {
+        Random random = new Random(4);
+        Trie<Integer> expected = new Trie<>();
+        try (OffHeapTrie<Integer> trie = new OffHeapTrie<>()) {
+            // enough nodes to span several chunks
+            for (int i = 0; i < 100_000; i++) {
+                String key = Integer.toString(random.nextInt(10_000_000), 36);
+                expected.insert(key, i);
+                trie.insert(key, i);
+            }
+            for (int i = 0; i < 20_000; i++) {
+                String key = Integer.toString(random.nextInt(10_000_000), 36);
+                expected.remove(key);
+                trie.remove(key);
+            }
+
+            List<String> keys = expected.listKeys();
+            assertEquals(keys, trie.listKeys());
+            assertEquals(keys.size(), trie.size());
+            for (String key : keys) {
+                assertEquals(expected.get(key), trie.get(key));
+            }
+        }
+    }
+}
@@ -0,0 +1,115 @@
+// dro1dDev - created: 2026-10-16
+
+package com.everdro1d.libs.structs;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.*;
+
+class PersistentTrieTest {
+
+    @Test
+    void testInsertReturnsNewVersion() {
+        PersistentTrie<String> empty = PersistentTrie.empty();
+        PersistentTrie<String> one = empty.insert("apple", "fruit");
+        PersistentTrie<String> two = one.insert("app", "prefix");
+
+        assertTrue(empty.isEmpty());
+        assertFalse(empty.contains("apple"));
+
+        assertEquals(1, one.size());
+        assertFalse(one.contains("app"));
+        assertEquals("fruit", one.get("apple"));
+
+        assertEquals(2, two.size());
+        assertEquals("prefix", two.get("app"));
+        assertEquals(List.of("app", "apple"), two.listKeys());
+
+        PersistentTrie<String> replaced = two.insert("apple", "red fruit");
+        assertEquals(2, replaced.size());
+        assertEquals("red fruit", replaced.get("apple"));
+        assertEquals("fruit", two.get("apple"));
+    }
+
+    @Test
+    void testRemoveReturnsNewVersion() {
+        PersistentTrie<String> trie = PersistentTrie.<String>empty()
+                .insert("apple", "fruit")
+                .insert("app", "prefix")
+                .insert("car", "vehicle");
+
+        PersistentTrie<String> removed = trie.remove("apple");
+        assertEquals(2, removed.size());
+        assertFalse(removed.contains("apple"));
+        assertFalse(removed.startsWith("appl"));
+        assertTrue(removed.contains("app"));
+        assertTrue(trie.contains("apple"));
+
+        assertSame(removed, removed.remove("apple"));
+        assertTrue(removed.remove("app").remove("car").isEmpty());
+    }
+
+    @Test
+    void testListKeysMatching() {
+        PersistentTrie<String> trie = PersistentTrie.<String>empty()
+                .insert(Map.of("apple", "fruit", "app", "prefix", "apricot", "fruit", "car", "vehicle"));
+        assertEquals(List.of("app", "apple", "apricot"), trie.listKeysMatching("ap"));
+        assertEquals(List.of("app", "apple"), trie.listKeysMatching("ap", 2));
+        assertTrue(trie.listKeysMatching("b").isEmpty());
+    }
+
+    @Test
+    void testHolderPublishesConsistentVersions() throws InterruptedException {
+        PersistentTrie.Holder<Integer> holder = new PersistentTrie.Holder<>();
+        int threads = 4;
+        int perThread = 500;
+
+        List<Thread> writers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int id = t;
+            writers.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    String key = id + ":" + i;
+                    holder.update(trie -> trie.insert(key, id));
+                }
+            }));
+        }
+
+        // every snapshot a reader sees is complete: its size matches its listed keys
+        while (writers.stream().anyMatch(Thread::isAlive)) {
+            PersistentTrie<Integer> snapshot = holder.get();
+            assertEquals(snapshot.size(), snapshot.listKeys().size());
+        }
+        for (Thread writer : writers) {
+            writer.join();
+        }
+
+        assertEquals(threads * perThread, holder.get().size());
+        assertEquals(perThread, holder.get().listKeysMatching("2:").size());
+    }
+
+    @Test
+    void testMatchesTrie() {
+        Random random = new Random(8);
+        Trie<Integer> expected = new Trie<>();
+        PersistentTrie<Integer> trie = PersistentTrie.empty();
+
+        for (int i = 0; i < 5000; i++) {
+            String key = Integer.toString(random.nextInt(50_000), 36);
+            if (random.nextInt(4) == 0) {
+                expected.remove(key);
+                trie = trie.remove(key);
+            } else {
+                expected.insert(key, i);
+                trie = trie.insert(key, i);
+            }
+        }
+
+        List<String> keys = expected.listKeys();
+        assertEquals(keys, trie.listKeys());
+        assertEquals(keys.size(), trie.size());
+        for (String key : keys) {
+            assertEquals(expected.get(key), trie.get(key));
+        }
+    }
+}
@@ -0,0 +1,137 @@
+// dro1dDev - created: 2026-10-16
+
+package com.everdro1d.libs.structs;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.*;
+
+class RadixTrieTest {
+
+    @Test
+    void testInsertAndContains() {
+        RadixTrie<String> trie = new RadixTrie<>();
+        trie.insert("apple", "fruit");
+        assertTrue(trie.contains("apple"));
+        assertFalse(trie.contains("app"));
+        assertFalse(trie.contains("applesauce"));
+    }
+
+    @Test
+    void testSplitOnInsert() {
+        RadixTrie<String> trie = new RadixTrie<>();
+        trie.insert("BasicSettingsWindow.Defaults.x", "x");
+        trie.insert("BasicSettingsWindow.Defaults.y", "y");
+        trie.insert("BasicSettingsWindow.Title", "title");
+        trie.insert("Basic", "basic");
+
+        assertEquals("x", trie.get("BasicSettingsWindow.Defaults.x"));
+        assertEquals("y", trie.get("BasicSettingsWindow.Defaults.y"));
+        assertEquals("title", trie.get("BasicSettingsWindow.Title"));
+        assertEquals("basic", trie.get("Basic"));
+        assertNull(trie.get("BasicSettingsWindow.Defaults"));
+        assertFalse(trie.contains("BasicSettings"));
+    }
+
+    @Test
+    void testStartsWith() {
+        RadixTrie<String> trie = new RadixTrie<>();
+        trie.insert("apple", "fruit");
+        trie.insert("app", "prefix");
+        assertTrue(trie.startsWith("app"));
+        assertTrue(trie.startsWith("appl")); // ends inside an edge label
+        assertFalse(trie.startsWith("apply"));
+        assertFalse(trie.startsWith("banana"));
+    }
+
+    @Test
+    void testRemoveMergesEdges() {
+        RadixTrie<String> trie = new RadixTrie<>();
+        trie.insert("app", "prefix");
+        trie.insert("apple", "fruit");
+        trie.insert("apricot", "fruit");
+
+        assertTrue(trie.remove("app"));
+        assertFalse(trie.contains("app"));
+        assertTrue(trie.contains("apple"));
+        assertTrue(trie.startsWith("appl"));
+
+        assertTrue(trie.remove("apricot"));
+        assertEquals(List.of("apple"), trie.listKeys());
+
+        assertFalse(trie.remove("apple "));
+        assertTrue(trie.remove("apple"));
+        assertTrue(trie.isEmpty());
+    }
+
+    @Test
+    void testRemoveAll() {
+        RadixTrie<String> trie = new RadixTrie<>();
+        List<String> keys = Arrays.asList("apple", "app", "application");
+        trie.insert(keys);
+        assertTrue(trie.removeAll(keys));
+        assertTrue(trie.isEmpty());
+    }
+
+    @Test
+    void testListKeysMatching() {
+        RadixTrie<String> trie = new RadixTrie<>();
+        trie.insert("apple", "fruit");
+        trie.insert("app", "prefix");
+        trie.insert("banana", "fruit");
+        assertEquals(List.of("app", "apple"), trie.listKeysMatching("ap"));
+        assertEquals(List.of("app", "apple"), trie.listKeysMatching("app"));
+        assertEquals(List.of("apple"), trie.listKeysMatching("appl"));
+        assertTrue(trie.listKeysMatching("apz").isEmpty());
+    }
+
+    @Test
+    void testListKeysMatchingLimited() {
+        RadixTrie<String> trie = new RadixTrie<>();
+        trie.insert("apple", "fruit");
+        trie.insert("app", "prefix");
+        trie.insert("apricot", "fruit");
+        trie.insert("ap", "prefix");
+
+        List<String> keys = trie.listKeysMatching("ap", 2);
+        assertEquals(List.of("ap", "app"), keys);
+    }
+
+    @Test
+    void testSet() {
+        RadixTrie<String> trie = new RadixTrie<>();
+        trie.insert("apple", "fruit");
+
+        assertTrue(trie.set("apple", "newFruit"));
+        assertEquals("newFruit", trie.get("apple"));
+
+        assertFalse(trie.set("app", "prefix")); // inside an edge, not a key
+        assertFalse(trie.set("banana", "fruit"));
+        assertNull(trie.get("banana"));
+    }
+
+    @Test
+    void testMatchesTrie() {
+        Random random = new Random(7);
+        RadixTrie<Integer> radixTrie = new RadixTrie<>();
+        Trie<Integer> trie = new Trie<>();
+
+        for (int i = 0; i < 5000; i++) {
+            String key = Integer.toString(random.nextInt(2000), 3);
+            if (random.nextInt(3) == 0) {
+                radixTrie.remove(key);
+                trie.remove(key);
+            } else {
+                radixTrie.insert(key, i);
+                trie.insert(key, i);
+            }
+        }
+
+        List<String> expected = trie.listKeys();
+        Collections.sort(expected);
+        assertEquals(expected, radixTrie.listKeys());
+        for (String key : expected) {
+            assertEquals(trie.get(key), radixTrie.get(key));
+        }
+    }
+}
@@ -0,0 +1,102 @@
+// dro1dDev - created: 2026-10-16
+
+package com.everdro1d.libs.structs;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+class SequenceTrieTest {
+
+    @Test
+    void testByteKeys() {
+        SequenceTrie<byte[], String> trie = new SequenceTrie<>(SequenceKeyAdapter.bytes());
+        trie.insert(utf8("GET /settings"), "settings");
+        trie.insert(utf8("GET /séance"), "seance");
+        trie.insert(utf8("POST /settings"), "save");
+
+        assertEquals(3, trie.size());
+        assertEquals("settings", trie.get(utf8("GET /settings")));
+        assertTrue(trie.startsWith(utf8("GET /s")));
+        assertFalse(trie.contains(utf8("GET /")));
+
+        // unsigned bytes keep the order of the encoded strings
+        List<String> keys = new ArrayList<>();
+        for (byte[] key : trie.listKeysMatching(utf8("GET "))) {
+            keys.add(new String(key, StandardCharsets.UTF_8));
+        }
+        assertEquals(List.of("GET /settings", "GET /séance"), keys);
+    }
+
+    @Test
+    void testIntKeys() {
+        SequenceTrie<int[], Integer> trie = new SequenceTrie<>(SequenceKeyAdapter.ints());
+        trie.insert(new int[] {101, 7, -3}, 1);
+        trie.insert(new int[] {101, 7}, 2);
+        trie.insert(new int[] {101, 2048}, 3);
+
+        assertEquals(Integer.valueOf(1), trie.get(new int[] {101, 7, -3}));
+        assertNull(trie.get(new int[] {101}));
+
+        List<int[]> keys = trie.listKeysMatching(new int[] {101});
+        assertEquals(3, keys.size());
+        assertArrayEquals(new int[] {101, 7}, keys.get(0));
+        assertArrayEquals(new int[] {101, 7, -3}, keys.get(1));
+        assertArrayEquals(new int[] {101, 2048}, keys.get(2));
+        assertEquals(2, trie.listKeysMatching(new int[0], 2).size());
+    }
+
+    @Test
+    void testSegmentKeys() {
+        SequenceTrie<List<String>, Long> trie = new SequenceTrie<>(SequenceKeyAdapter.segments());
+        trie.insert(List.of("usr", "lib", "libc.so"), 4096L);
+        trie.insert(List.of("usr", "bin", "java"), 512L);
+        trie.insert(List.of("etc", "hosts"), 64L);
+
+        assertEquals(Long.valueOf(512L), trie.get(List.of("usr", "bin", "java")));
+        assertTrue(trie.startsWith(List.of("usr", "lib")));
+        assertFalse(trie.startsWith(List.of("us")));
+        assertEquals(List.of(List.of("usr", "lib", "libc.so"), List.of("usr", "bin", "java")),
+                trie.listKeysMatching(List.of("usr")));
+    }
+
+    @Test
+    void testSegmentLookupDoesNotRegister() {
+        SequenceTrie<List<String>, Long> trie = new SequenceTrie<>(SequenceKeyAdapter.segments());
+        assertFalse(trie.contains(List.of("var")));
+        assertNull(trie.get(List.of("var", "log")));
+        assertFalse(trie.remove(List.of("var")));
+
+        // segments are ordered by when they were first inserted, lookups must not count
+        trie.insert(List.of("tmp"), 1L);
+        trie.insert(List.of("var"), 2L);
+        assertEquals(List.of(List.of("tmp"), List.of("var")), trie.listKeys());
+        assertFalse(trie.startsWith(List.of("tmp", "var")));
+    }
+
+    @Test
+    void testRemove() {
+        SequenceTrie<String, Boolean> trie = new SequenceTrie<>(SequenceKeyAdapter.chars());
+        trie.insert("tap");
+        trie.insert("taps");
+        trie.insert("top");
+
+        assertFalse(trie.remove("ta"));
+        assertTrue(trie.remove("taps"));
+        assertFalse(trie.startsWith("taps"));
+        assertTrue(trie.contains("tap"));
+        assertTrue(trie.remove("tap"));
+        assertFalse(trie.startsWith("ta"));
+        assertEquals(List.of("top"), trie.listKeys());
+        assertEquals(1, trie.size());
+
+        trie.clear();
+        assertTrue(trie.isEmpty());
+        assertEquals(List.of(), trie.listKeys());
+    }
+
+    private static byte[] utf8(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+}
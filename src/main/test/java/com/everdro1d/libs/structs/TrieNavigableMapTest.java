@@ -0,0 +1,146 @@
+// dro1dDev - created: 2026-10-16
+
+package com.everdro1d.libs.structs;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.*;
+
+class TrieNavigableMapTest {
+
+    private static Trie<String> sampleTrie() {
+        Trie<String> trie = new Trie<>();
+        trie.insert("apple", "fruit");
+        trie.insert("app", "prefix");
+        trie.insert("apricot", "fruit");
+        trie.insert("banana", "fruit");
+        trie.insert("car", "vehicle");
+        return trie;
+    }
+
+    @Test
+    void testOrderedNavigation() {
+        NavigableMap<String, String> map = sampleTrie().asNavigableMap();
+
+        assertEquals(List.of("app", "apple", "apricot", "banana", "car"), new ArrayList<>(map.keySet()));
+        assertEquals(5, map.size());
+        assertEquals("app", map.firstKey());
+        assertEquals("car", map.lastKey());
+
+        assertEquals("apple", map.ceilingKey("appl"));
+        assertEquals("apple", map.ceilingKey("apple"));
+        assertEquals("apricot", map.higherKey("apple"));
+        assertEquals("app", map.floorKey("appl"));
+        assertEquals("apple", map.lowerKey("apples"));
+        assertEquals("apricot", map.lowerKey("b"));
+        assertNull(map.lowerKey("app"));
+        assertNull(map.higherKey("car"));
+        assertEquals("fruit", map.ceilingEntry("b").getValue());
+    }
+
+    @Test
+    void testRangeViews() {
+        Trie<String> trie = sampleTrie();
+        NavigableMap<String, String> map = trie.asNavigableMap();
+
+        assertEquals(List.of("apple", "apricot"), new ArrayList<>(map.subMap("apple", "b").keySet()));
+        assertEquals(List.of("app", "apple"), new ArrayList<>(map.headMap("apricot").keySet()));
+        assertEquals(List.of("banana", "car"), new ArrayList<>(map.tailMap("b").keySet()));
+        assertEquals(List.of("car", "banana", "apricot", "apple", "app"), new ArrayList<>(map.descendingMap().keySet()));
+        assertEquals(List.of("apricot", "apple"), new ArrayList<>(map.descendingMap().subMap("b", "app").keySet()));
+
+        NavigableMap<String, String> prefixed = trie.prefixMap("ap");
+        assertEquals(List.of("app", "apple", "apricot"), new ArrayList<>(prefixed.keySet()));
+        assertEquals(3, prefixed.size());
+        assertEquals(3, prefixed.descendingMap().size());
+        assertEquals(2, prefixed.tailMap("apple", true).size());
+        assertEquals(0, map.subMap("apple", false, "apple", false).size());
+        assertThrows(IllegalArgumentException.class, () -> prefixed.put("banana", "fruit"));
+        assertThrows(IllegalArgumentException.class, () -> map.subMap("b", "a"));
+    }
+
+    @Test
+    void testViewWritesThrough() {
+        Trie<String> trie = sampleTrie();
+        NavigableMap<String, String> prefixed = trie.prefixMap("ap");
+
+        assertEquals("fruit", prefixed.put("apricot", "orange fruit"));
+        assertEquals("orange fruit", trie.get("apricot"));
+
+        assertEquals("app", prefixed.pollFirstEntry().getKey());
+        assertFalse(trie.contains("app"));
+
+        for (Map.Entry<String, String> entry : prefixed.entrySet()) {
+            entry.setValue("changed");
+        }
+        assertEquals("changed", trie.get("apple"));
+
+        prefixed.clear();
+        assertEquals(List.of("banana", "car"), trie.listKeys());
+        trie.insert("apex");
+        assertEquals(List.of("apex"), new ArrayList<>(prefixed.keySet()));
+    }
+
+    @Test
+    void testIteratorRemoveAndConcurrentModification() {
+        Trie<String> trie = sampleTrie();
+        Iterator<String> iterator = trie.asNavigableMap().keySet().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().startsWith("ap")) iterator.remove();
+        }
+        assertEquals(List.of("banana", "car"), trie.listKeys());
+
+        Iterator<String> stale = trie.asNavigableMap().keySet().iterator();
+        stale.next();
+        trie.insert("zebra");
+        assertThrows(ConcurrentModificationException.class, stale::next);
+    }
+
+    @Test
+    void testMatchesTreeMap() {
+        Random random = new Random(13);
+        Trie<Integer> trie = new Trie<>();
+        TreeMap<String, Integer> expected = new TreeMap<>();
+        for (int i = 0; i < 2000; i++) {
+            String key = randomKey(random);
+            trie.insert(key, i);
+            expected.put(key, i);
+        }
+
+        NavigableMap<String, Integer> map = trie.asNavigableMap();
+        assertEquals(expected, map);
+        assertEquals(new ArrayList<>(expected.descendingKeySet()), new ArrayList<>(map.descendingKeySet()));
+
+        for (int i = 0; i < 500; i++) {
+            String key = randomKey(random);
+            assertEquals(expected.ceilingKey(key), map.ceilingKey(key));
+            assertEquals(expected.higherKey(key), map.higherKey(key));
+            assertEquals(expected.floorKey(key), map.floorKey(key));
+            assertEquals(expected.lowerKey(key), map.lowerKey(key));
+
+            String other = randomKey(random);
+            String from = key.compareTo(other) <= 0 ? key : other;
+            String to = key.compareTo(other) <= 0 ? other : key;
+            boolean fromInclusive = random.nextBoolean();
+            boolean toInclusive = random.nextBoolean();
+            NavigableMap<String, Integer> expectedRange = expected.subMap(from, fromInclusive, to, toInclusive);
+            NavigableMap<String, Integer> range = map.subMap(from, fromInclusive, to, toInclusive);
+            assertEquals(new ArrayList<>(expectedRange.keySet()), new ArrayList<>(range.keySet()));
+            assertEquals(expectedRange.size(), range.size());
+            assertEquals(expected.headMap(key, fromInclusive).size(), map.headMap(key, fromInclusive).size());
+            assertEquals(expected.tailMap(key, toInclusive).size(), map.tailMap(key, toInclusive).size());
+            assertEquals(new ArrayList<>(expectedRange.descendingKeySet()), new ArrayList<>(range.descendingKeySet()));
+            assertEquals(expectedRange.isEmpty() ? null : expectedRange.lastKey(), range.isEmpty() ? null : range.lastKey());
+            assertEquals(expectedRange.floorKey(key + "m"), range.floorKey(key + "m"));
+        }
+    }
+
+    private static String randomKey(Random random) {
+        StringBuilder builder = new StringBuilder();
+        int length = random.nextInt(6);
+        for (int i = 0; i < length; i++) {
+            builder.append((char) ('a' + random.nextInt(5)));
+        }
+        return builder.toString();
+    }
+}
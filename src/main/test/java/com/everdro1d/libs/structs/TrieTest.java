@@ -53,6 +53,19 @@ class TrieTest {
         assertFalse(trie.remove("banana"));
     }
 
+    @Test
+    void testRemoveWithOtherKeysLeft() {
+        Trie<String> trie = new Trie<>();
+        trie.insert("apple", "fruit");
+        trie.insert("app", "prefix");
+        trie.insert("car", "vehicle");
+        assertTrue(trie.remove("apple"));
+        assertTrue(trie.remove("app"));
+        assertFalse(trie.remove("app"));
+        assertTrue(trie.contains("car"));
+        assertEquals(1, trie.countWithPrefix(""));
+    }
+
     @Test
     void testRemoveAll() {
         Trie<String> trie = new Trie<>();
@@ -154,4 +167,574 @@ class TrieTest {
         assertEquals("vehicle", trie.get("car"));
         assertNull(trie.get("banana")); // Key not present
     }
-}
\ No newline at end of file
+
+    @Test
+    void testTopK() {
+        Trie<String> trie = new Trie<>();
+        trie.insert("apple", "fruit", 10);
+        trie.insert("apricot", "fruit", 30);
+        trie.insert("app", "prefix", 20);
+        trie.insert("application", "software", 20);
+        trie.insert("banana", "fruit", 100);
+
+        assertEquals(List.of("apricot", "app"), trie.topK("ap", 2));
+        assertEquals(List.of("apricot", "app", "application", "apple"), trie.topK("ap", 10));
+        assertEquals(List.of("banana"), trie.topK("", 1));
+        assertTrue(trie.topK("c", 3).isEmpty());
+    }
+
+    @Test
+    void testTopKAfterWeightChangesAndRemoval() {
+        Trie<String> trie = new Trie<>();
+        trie.insert("apple", "fruit", 10);
+        trie.insert("apricot", "fruit", 30);
+        trie.insert("app", "prefix", 20);
+
+        assertTrue(trie.setWeight("apricot", 5));
+        assertEquals(5, trie.getWeight("apricot"));
+        assertEquals(List.of("app", "apple", "apricot"), trie.topK("ap", 3));
+
+        trie.remove("app");
+        assertEquals(List.of("apple"), trie.topK("a", 1));
+        assertEquals(-1, trie.getWeight("app"));
+
+        trie.insert("apple", "fruit"); // re-inserting without a weight keeps it
+        assertEquals(10, trie.getWeight("apple"));
+
+        assertFalse(trie.setWeight("banana", 1));
+        assertThrows(IllegalArgumentException.class, () -> trie.insert("cherry", "fruit", -1));
+    }
+
+    @Test
+    void testTopKMatchesSortedKeys() {
+        Random random = new Random(11);
+        Trie<Integer> trie = new Trie<>();
+        Map<String, Long> weights = new HashMap<>();
+
+        for (int i = 0; i < 4000; i++) {
+            String key = Integer.toString(random.nextInt(5000), 7);
+            if (random.nextInt(4) == 0) {
+                trie.remove(key);
+                weights.remove(key);
+            } else {
+                long weight = random.nextInt(50);
+                trie.insert(key, i, weight);
+                weights.put(key, weight);
+            }
+        }
+
+        List<String> expected = new ArrayList<>(weights.keySet());
+        expected.removeIf(key -> !key.startsWith("1"));
+        expected.sort(Comparator.comparing((String key) -> -weights.get(key)).thenComparing(key -> key));
+
+        assertEquals(expected.subList(0, 25), trie.topK("1", 25));
+    }
+
+    @Test
+    void testSearchWithinDistance() {
+        Trie<String> trie = new Trie<>();
+        trie.insert(Arrays.asList("--help", "--hello", "--debug", "--hell", "-h"));
+
+        assertEquals(List.of("--help"), trie.searchWithinDistance("--help", 0));
+        assertEquals(List.of("--hell", "--hello", "--help"), trie.searchWithinDistance("--helo", 1));
+        assertEquals(List.of("--debug"), trie.searchWithinDistance("--debgu", 2));
+        assertTrue(trie.searchWithinDistance("--verbose", 2).isEmpty());
+    }
+
+    @Test
+    void testSearchWithinDistanceTranspositions() {
+        Trie<String> trie = new Trie<>();
+        trie.insert(Arrays.asList("--help", "--debug"));
+
+        // a swap costs two edits without transpositions, one with
+        assertTrue(trie.searchWithinDistance("--hlep", 1).isEmpty());
+        assertEquals(List.of("--help"), trie.searchWithinDistance("--hlep", 1, true));
+    }
+
+    @Test
+    void testSearchWithinDistanceMatchesBruteForce() {
+        Random random = new Random(5);
+        Trie<String> trie = new Trie<>();
+        List<String> words = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            String word = Integer.toString(random.nextInt(40_000), 5);
+            trie.insert(word);
+            words.add(word);
+        }
+
+        for (int q = 0; q < 20; q++) {
+            String query = Integer.toString(random.nextInt(40_000), 5);
+            for (boolean transpositions : new boolean[]{false, true}) {
+                Set<String> expected = new TreeSet<>();
+                for (String word : words) {
+                    if (editDistance(query, word, transpositions) <= 2) expected.add(word);
+                }
+                assertEquals(expected, new TreeSet<>(trie.searchWithinDistance(query, 2, transpositions)));
+            }
+        }
+    }
+
+    private static int editDistance(String a, String b, boolean transpositions) {
+        int[][] d = new int[a.length() + 1][b.length() + 1];
+        for (int i = 0; i <= a.length(); i++) d[i][0] = i;
+        for (int j = 0; j <= b.length(); j++) d[0][j] = j;
+        for (int i = 1; i <= a.length(); i++) {
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                d[i][j] = Math.min(Math.min(d[i - 1][j] + 1, d[i][j - 1] + 1), d[i - 1][j - 1] + cost);
+                if (transpositions && i > 1 && j > 1
+                        && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    d[i][j] = Math.min(d[i][j], d[i - 2][j - 2] + 1);
+                }
+            }
+        }
+        return d[a.length()][b.length()];
+    }
+
+    @Test
+    void testEntriesInOrder() {
+        Trie<String> trie = new Trie<>();
+        trie.insert("banana", "fruit");
+        trie.insert("apple", "fruit");
+        trie.insert("app", "prefix");
+        trie.insert("apricot", "fruit");
+
+        List<String> keys = new ArrayList<>();
+        trie.entries("ap").forEach(entry -> keys.add(entry.getKey() + "=" + entry.getValue()));
+        assertEquals(List.of("app=prefix", "apple=fruit", "apricot=fruit"), keys);
+
+        assertEquals(List.of("app", "apple", "apricot", "banana"), trie.keys("").toList());
+        assertEquals(0, trie.entries("c").count());
+    }
+
+    @Test
+    void testEntryIterator() {
+        Trie<String> trie = new Trie<>();
+        trie.insert("apple", "fruit");
+        trie.insert("app", "prefix");
+
+        Iterator<Map.Entry<String, String>> iterator = trie.entryIterator("app");
+        assertEquals("app", iterator.next().getKey());
+        assertEquals("apple", iterator.next().getKey());
+        assertFalse(iterator.hasNext());
+        assertThrows(NoSuchElementException.class, iterator::next);
+
+        Iterator<Map.Entry<String, String>> modified = trie.entryIterator("");
+        trie.insert("banana", "fruit");
+        assertThrows(ConcurrentModificationException.class, modified::next);
+    }
+
+    @Test
+    void testParallelEntriesMatchSequential() {
+        Random random = new Random(9);
+        Trie<Integer> trie = new Trie<>();
+        for (int i = 0; i < 20_000; i++) {
+            trie.insert(Integer.toString(random.nextInt(1_000_000), 36), i);
+        }
+
+        List<String> sequential = trie.keys("").toList();
+        List<String> parallel = trie.entries().parallel().map(Map.Entry::getKey).toList();
+
+        assertEquals(sequential, parallel);
+        assertEquals(trie.listKeys().size(), sequential.size());
+        assertEquals(trie.listKeysMatching("a").size(), trie.keys("a").parallel().count());
+    }
+
+    @Test
+    void testFromSortedKeysAndEntries() {
+        Trie<String> keysOnly = Trie.fromSortedKeys(List.of("", "app", "apple", "apple", "apricot", "car"));
+        assertEquals(List.of("", "app", "apple", "apricot", "car"), keysOnly.listKeys());
+        assertTrue(keysOnly.startsWith("apr"));
+        assertFalse(keysOnly.contains("ap"));
+
+        TreeMap<String, String> map = new TreeMap<>(Map.of("app", "prefix", "apple", "fruit", "car", "vehicle"));
+        Trie<String> trie = Trie.fromSortedEntries(map.entrySet());
+        assertEquals("fruit", trie.get("apple"));
+        assertEquals("vehicle", trie.get("car"));
+        trie.remove("app");
+        assertFalse(trie.contains("app"));
+        assertTrue(trie.contains("apple"));
+
+        assertThrows(IllegalArgumentException.class, () -> Trie.fromSortedKeys(List.of("apple", "app")));
+        assertThrows(IllegalArgumentException.class, () -> Trie.fromSortedKeys(List.of("b", "a")));
+    }
+
+    @Test
+    void testBulkLoadMatchesInsert() {
+        Random random = new Random(11);
+        Map<String, Integer> map = new HashMap<>();
+        for (int i = 0; i < 100_000; i++) {
+            map.put(Integer.toString(random.nextInt(10_000_000), 36), i);
+        }
+        map.put("", -1);
+
+        Trie<Integer> inserted = new Trie<>();
+        inserted.insert(map);
+        Trie<Integer> loaded = new Trie<>(map);
+
+        assertEquals(inserted.listKeys(), loaded.listKeys());
+        for (String key : map.keySet()) {
+            assertEquals(map.get(key), loaded.get(key));
+        }
+
+        loaded.insert("zzzzzz", 0);
+        assertTrue(loaded.contains("zzzzzz"));
+        assertEquals(new TreeSet<>(map.keySet()).first(), loaded.keys("").findFirst().orElseThrow());
+    }
+
+    @Test
+    void testBatchOperations() {
+        Trie<String> trie = new Trie<>();
+        BitSet added = trie.insertBatch(List.of("car", "apple", "app", "apple"), List.of("vehicle", "fruit", "prefix", "red fruit"));
+        assertEquals(BitSet.valueOf(new long[] {0b0111}), added);
+        assertEquals("red fruit", trie.get("apple"));
+
+        BitSet found = trie.containsBatch(List.of("apple", "ap", "banana", "car", "app"));
+        assertEquals(BitSet.valueOf(new long[] {0b11001}), found);
+
+        BitSet removed = trie.removeBatch(List.of("apple", "ap", "apple", "car"));
+        assertEquals(BitSet.valueOf(new long[] {0b1001}), removed);
+        assertEquals(List.of("app"), trie.listKeys());
+        assertFalse(trie.startsWith("appl"));
+        assertFalse(trie.startsWith("c"));
+
+        assertThrows(IllegalArgumentException.class, () -> trie.insertBatch(List.of("a"), List.of()));
+
+        // enough unsorted keys to be merged, duplicates keep the value given last
+        List<String> keys = new ArrayList<>();
+        List<String> values = new ArrayList<>();
+        for (int i = 40; i > 0; i--) {
+            keys.add("k" + (i % 20));
+            values.add("v" + i);
+        }
+        trie.insertBatch(keys, values);
+        assertEquals("v20", trie.get("k0"));
+        assertEquals("v1", trie.get("k1"));
+    }
+
+    @Test
+    void testRemoveBatchKeepsWeights() {
+        Trie<String> trie = new Trie<>();
+        trie.insert("apple", null, 10);
+        trie.insert("apricot", null, 5);
+        trie.insert("app", null, 1);
+
+        trie.removeBatch(List.of("apple", "missing"));
+        assertEquals(List.of("apricot", "app"), trie.topK("ap", 5));
+    }
+
+    @Test
+    void testBatchMatchesSingleOperations() {
+        Random random = new Random(14);
+        Trie<Integer> batch = new Trie<>();
+        Trie<Integer> single = new Trie<>();
+
+        for (int round = 0; round < 20; round++) {
+            List<String> keys = new ArrayList<>();
+            for (int i = 0; i < 500; i++) {
+                keys.add(Integer.toString(random.nextInt(20_000), 36));
+            }
+
+            BitSet expected = new BitSet();
+            if (round % 2 == 0) {
+                for (int i = 0; i < keys.size(); i++) {
+                    if (!single.contains(keys.get(i))) expected.set(i);
+                    single.insert(keys.get(i));
+                }
+                assertEquals(expected, batch.insertBatch(keys, null));
+            } else {
+                for (int i = 0; i < keys.size(); i++) {
+                    if (single.contains(keys.get(i))) expected.set(i);
+                    single.remove(keys.get(i));
+                }
+                assertEquals(expected, batch.removeBatch(keys));
+            }
+
+            assertEquals(single.listKeys(), batch.listKeys());
+            for (int i = 0; i < keys.size(); i++) {
+                assertEquals(single.contains(keys.get(i)), batch.containsBatch(keys).get(i));
+            }
+        }
+    }
+
+    @Test
+    void testCountWithPrefixAndRankSelect() {
+        Trie<String> trie = new Trie<>(List.of("app", "apple", "apricot", "banana", "car"));
+        assertEquals(5, trie.countWithPrefix(""));
+        assertEquals(3, trie.countWithPrefix("ap"));
+        assertEquals(2, trie.countWithPrefix("app"));
+        assertEquals(0, trie.countWithPrefix("d"));
+
+        assertEquals("apricot", trie.keyAt("ap", 2));
+        assertEquals("banana", trie.keyAt("", 3));
+        assertEquals(1, trie.indexOf("apple"));
+        assertEquals(4, trie.indexOf("car"));
+        assertEquals(-1, trie.indexOf("ap"));
+        assertThrows(IndexOutOfBoundsException.class, () -> trie.keyAt("ap", 3));
+        assertThrows(IndexOutOfBoundsException.class, () -> trie.keyAt("d", 0));
+
+        trie.remove("apple");
+        trie.insert("apex");
+        trie.removeBatch(List.of("car"));
+        trie.insertBatch(List.of("bandana"), null);
+        assertEquals(List.of("apex", "app", "apricot", "banana", "bandana"), trie.listKeys());
+        assertEquals(3, trie.countWithPrefix("ap"));
+        assertEquals("bandana", trie.keyAt("", 4));
+    }
+
+    @Test
+    void testCountsMatchListing() {
+        Random random = new Random(15);
+        List<String> initial = new ArrayList<>();
+        for (int i = 0; i < 70_000; i++) {
+            initial.add(Integer.toString(random.nextInt(5_000_000), 36));
+        }
+        // large enough to be loaded in parallel
+        Trie<Integer> trie = new Trie<>(initial);
+
+        for (int i = 0; i < 5000; i++) {
+            String key = Integer.toString(random.nextInt(5_000_000), 36);
+            if (random.nextBoolean()) trie.insert(key, i); else trie.remove(key);
+        }
+
+        List<String> keys = trie.listKeys();
+        assertEquals(keys.size(), trie.countWithPrefix(""));
+        assertEquals(keys.size(), trie.entries().parallel().count());
+        assertEquals(keys.size(), trie.entries().spliterator().getExactSizeIfKnown());
+        for (int i = 0; i < keys.size(); i += 97) {
+            assertEquals(keys.get(i), trie.keyAt("", i));
+            assertEquals(i, trie.indexOf(keys.get(i)));
+        }
+        assertEquals(trie.listKeysMatching("a").size(), trie.countWithPrefix("a"));
+    }
+
+    @Test
+    void testCursor() {
+        Trie<String> trie = new Trie<>();
+        trie.insert("apple", "fruit");
+        trie.insert("app", "prefix");
+        trie.insert("apricot", "fruit");
+
+        Trie<String>.Cursor cursor = trie.cursor();
+        assertTrue(cursor.advance('a'));
+        assertTrue(cursor.advance('p'));
+        assertEquals(List.of("app", "apple", "apricot"), cursor.completions());
+        assertEquals(3, cursor.completionCount());
+
+        assertTrue(cursor.advance('p'));
+        assertTrue(cursor.isKey());
+        assertEquals("prefix", cursor.value());
+        assertEquals(List.of("app"), cursor.completions(1));
+
+        // typing past the Trie and back again
+        assertFalse(cursor.advance('x'));
+        assertFalse(cursor.advance('y'));
+        assertTrue(cursor.completions().isEmpty());
+        assertEquals("appxy", cursor.prefix());
+        assertTrue(cursor.back());
+        assertTrue(cursor.back());
+        assertTrue(cursor.exists());
+        assertEquals(List.of("app", "apple"), cursor.completions());
+
+        Trie<String>.Cursor copy = cursor.copy();
+        copy.back();
+        assertEquals("ap", copy.prefix());
+        assertEquals("app", cursor.prefix());
+
+        cursor.reset();
+        assertEquals("", cursor.prefix());
+        assertFalse(cursor.back());
+        assertEquals(3, cursor.completionCount());
+    }
+
+    @Test
+    void testCursorFollowsChanges() {
+        Trie<String> trie = new Trie<>(List.of("apple"));
+        Trie<String>.Cursor cursor = trie.cursor();
+        for (char c : "appl".toCharArray()) cursor.advance(c);
+
+        trie.remove("apple");
+        assertFalse(cursor.exists());
+        assertTrue(cursor.completions().isEmpty());
+
+        trie.insert("applet");
+        assertTrue(cursor.exists());
+        assertEquals(List.of("applet"), cursor.completions());
+
+        for (char c : "et-long-enough-to-grow-the-cursor".toCharArray()) cursor.advance(c);
+        assertFalse(cursor.exists());
+        trie.insert("applet-long-enough-to-grow-the-cursor");
+        assertTrue(cursor.isKey());
+    }
+
+    @Test
+    void testSetAlgebra() {
+        Trie<String> builtIn = new Trie<>();
+        builtIn.insert("--help", "help");
+        builtIn.insert("--hello", "hello", 5);
+        builtIn.insert("--debug", "debug");
+        Trie<String> plugins = new Trie<>();
+        plugins.insert("--hello", "plugin hello");
+        plugins.insert("--helpful", "helpful", 9);
+        plugins.insert("--zip", "zip");
+
+        Trie<String> union = builtIn.union(plugins);
+        assertEquals(List.of("--debug", "--hello", "--help", "--helpful", "--zip"), union.listKeys());
+        assertEquals("hello", union.get("--hello"));
+        assertEquals(5, union.countWithPrefix(""));
+        assertEquals(List.of("--helpful", "--hello"), union.topK("--hel", 2));
+
+        Trie<String> intersection = builtIn.intersect(plugins);
+        assertEquals(List.of("--hello"), intersection.listKeys());
+        assertEquals(1, intersection.countWithPrefix("--"));
+
+        Trie<String> difference = builtIn.difference(plugins);
+        assertEquals(List.of("--debug", "--help"), difference.listKeys());
+        assertFalse(difference.startsWith("--hell"));
+        assertTrue(builtIn.intersect(new Trie<>()).isEmpty());
+
+        // the results are copies
+        union.remove("--zip");
+        assertTrue(plugins.contains("--zip"));
+        assertEquals(3, builtIn.listKeys().size());
+    }
+
+    @Test
+    void testMerge() {
+        Trie<String> locale = new Trie<>();
+        locale.insert("main.title", "Title");
+        locale.insert("main.exit", "Exit");
+        Trie<String> overrides = new Trie<>();
+        overrides.insert("main.exit", "Quit");
+        overrides.insert("main.theme.dark", "Dark");
+
+        assertTrue(locale.merge(overrides, (current, override) -> override));
+        assertEquals("Quit", locale.get("main.exit"));
+        assertEquals("Dark", locale.get("main.theme.dark"));
+        assertEquals(3, locale.countWithPrefix("main."));
+        assertEquals(1, locale.indexOf("main.theme.dark"));
+
+        assertFalse(locale.merge(overrides, (current, override) -> current + "!"));
+        assertEquals("Quit!", locale.get("main.exit"));
+
+        overrides.remove("main.theme.dark");
+        assertTrue(locale.contains("main.theme.dark"));
+    }
+
+    @Test
+    void testRemovePrefix() {
+        Trie<String> trie = new Trie<>(List.of("main.title", "main.exit", "main", "menu.open", "menu.opening"));
+        trie.insert("menu.save", null, 7);
+
+        assertEquals(2, trie.removePrefix("menu.open"));
+        assertEquals(List.of("main", "main.exit", "main.title", "menu.save"), trie.listKeys());
+        assertEquals(List.of("menu.save"), trie.topK("", 1));
+
+        // ancestors that only led to the removed keys are pruned, "main" is still a key
+        assertEquals(2, trie.removePrefix("main."));
+        assertFalse(trie.startsWith("main."));
+        assertTrue(trie.contains("main"));
+        assertEquals(2, trie.countWithPrefix(""));
+
+        trie.insert("menu.open");
+        assertEquals(2, trie.removePrefix("menu"));
+        assertFalse(trie.startsWith("me"));
+        assertTrue(trie.startsWith("ma"));
+        assertEquals(0, trie.removePrefix("missing"));
+        assertTrue(trie.topK("", 1).contains("main"));
+
+        assertEquals(1, trie.removePrefix(""));
+        assertTrue(trie.isEmpty());
+        assertEquals(0, trie.countWithPrefix(""));
+    }
+
+    @Test
+    void testSubTrie() {
+        Trie<String> trie = new Trie<>();
+        trie.insert("BasicSettingsWindow.title", "Settings");
+        trie.insert("BasicSettingsWindow.exit", "Exit");
+        trie.insert("MainWindow.title", "Main");
+
+        Trie<String>.SubTrie window = trie.subTrie("BasicSettingsWindow.");
+        assertEquals(2, window.size());
+        assertEquals(List.of("exit", "title"), window.listKeys());
+        assertEquals("Settings", window.get("title"));
+        assertTrue(window.startsWith("ti"));
+        assertFalse(window.contains("Main"));
+
+        window.insert("apply", "Apply");
+        assertEquals("Apply", trie.get("BasicSettingsWindow.apply"));
+        assertTrue(window.set("exit", "Close"));
+        assertEquals("Close", trie.get("BasicSettingsWindow.exit"));
+
+        // changes to the Trie show up in the view
+        trie.remove("BasicSettingsWindow.title");
+        assertEquals(List.of("apply", "exit"), window.listKeys());
+        assertEquals(List.of("apply"), window.listKeysMatching("a"));
+        assertEquals(List.of("exit"), window.subTrie("e").subTrie("").listKeysMatching("").stream().map(k -> "e" + k).toList());
+
+        window.clear();
+        assertTrue(window.isEmpty());
+        assertEquals(List.of("MainWindow.title"), trie.listKeys());
+
+        Trie<String>.SubTrie missing = trie.subTrie("Other.");
+        assertTrue(missing.isEmpty());
+        missing.insert("key");
+        assertEquals(1, missing.size());
+        assertTrue(missing.remove("key"));
+        assertEquals(List.of("MainWindow.title"), trie.listKeys());
+    }
+
+    @Test
+    void testLongestPrefixOf() {
+        Trie<String> trie = new Trie<>(List.of("--out", "--output", "-v"));
+        assertEquals("--output", trie.longestPrefixOf("--output=file.txt"));
+        assertEquals("--out", trie.longestPrefixOf("--outline"));
+        assertEquals("--out", trie.longestPrefixOf("--out"));
+        assertNull(trie.longestPrefixOf("--ou"));
+        assertNull(trie.longestPrefixOf("x"));
+
+        trie.insert("");
+        assertEquals("", trie.longestPrefixOf("x"));
+    }
+
+    @Test
+    void testChildStorageGrowsAndShrinks() {
+        // one node goes from a single child, to sorted arrays, to a hash table that resizes, and back
+        List<String> keys = new ArrayList<>();
+        for (char c = '!'; c < '!' + 40; c++) keys.add("k" + c);
+        keys.add("k\u00e9");
+        keys.add("k\uffff");
+        List<String> insertOrder = new ArrayList<>(keys);
+        Collections.shuffle(insertOrder, new Random(42));
+
+        Trie<Integer> trie = new Trie<>();
+        TreeSet<String> expected = new TreeSet<>();
+        for (String key : insertOrder) {
+            trie.insert(key, (int) key.charAt(1));
+            expected.add(key);
+            assertEquals(new ArrayList<>(expected), trie.listKeys());
+            for (String present : expected) assertEquals(Integer.valueOf(present.charAt(1)), trie.get(present));
+            assertFalse(trie.contains("k\u0000"));
+        }
+
+        List<String> removeOrder = new ArrayList<>(keys);
+        Collections.shuffle(removeOrder, new Random(7));
+        for (String key : removeOrder) {
+            trie.remove(key);
+            expected.remove(key);
+            assertFalse(trie.contains(key));
+            assertEquals(new ArrayList<>(expected), trie.listKeys());
+            for (String present : expected) assertTrue(trie.contains(present));
+            assertEquals(expected.size(), trie.countWithPrefix("k"));
+        }
+        assertTrue(trie.isEmpty());
+    }
+
+    @Test
+    void testSearchWithinHugeDistance() {
+        Trie<String> trie = new Trie<>(List.of("--help", "--debug", "-h"));
+        assertEquals(List.of("-h", "--help", "--debug"), trie.searchWithinDistance("-", Integer.MAX_VALUE));
+        assertEquals(3, trie.searchWithinDistance("--hlep", Integer.MAX_VALUE, true).size());
+    }
+}